@@ -0,0 +1,211 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import asmCodeGenerator.ASMCodeGenerator;
+import asmCodeGenerator.codeStorage.ASMCodeFragment;
+import lexicalAnalyzer.LexicalAnalyzer;
+import lexicalAnalyzer.Scanner;
+import logging.TanLogger;
+import parseTree.ParseNode;
+import parseTree.ParseNodeVisitor;
+import parser.Parser;
+import semanticAnalyzer.SemanticAnalyzer;
+import tokens.Token;
+
+/**
+ * JMH benchmarks of each phase of the compiler over a SyntheticCorpus program, whose four axes
+ * are the @Params of <code>Corpus</code>. Scale one axis from the command line, e.g.
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar -p functionCount=10,100
+ * </pre>
+ * Each phase is measured alone, on input prepared in a @Setup: the parser is fed tokens lexed
+ * beforehand, and the phases that decorate the tree they are given (analysis and generation)
+ * get a new one for every invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CompilerBenchmarks {
+
+    @Benchmark
+    public List<Token> lex(Corpus corpus) {
+        return lexed(corpus.filename);
+    }
+
+    @Benchmark
+    public ParseNode parse(Corpus corpus) {
+        return Parser.parse(new ListScanner(corpus.tokens));
+    }
+
+    @Benchmark
+    public void visit(Corpus corpus, Blackhole blackhole) {
+        CountingVisitor visitor = new CountingVisitor();
+        corpus.parsed.accept(visitor);
+        blackhole.consume(visitor.count);
+    }
+
+    @Benchmark
+    public ParseNode analyze(ParsedTree tree) {
+        return SemanticAnalyzer.analyze(tree.tree);
+    }
+
+    @Benchmark
+    public ASMCodeFragment generate(AnalyzedTree tree) {
+        return ASMCodeGenerator.generate(tree.tree);
+    }
+
+    @Benchmark
+    public String emit(Corpus corpus) {
+        return corpus.fragment.toString();
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // states: the corpus, and the trees made for each invocation.
+
+    @State(Scope.Benchmark)
+    public static class Corpus {
+        @Param("10")
+        public int functionCount;
+        @Param("4")
+        public int nestingDepth;
+        @Param("16")
+        public int arrayLiteralSize;
+        @Param("8")
+        public int statementsPerLevel;
+
+        private File directory;
+        private File file;
+        String filename;
+        List<Token> tokens;
+        ParseNode parsed;
+        ASMCodeFragment fragment;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            SyntheticCorpus corpus = SyntheticCorpus.make(functionCount, nestingDepth,
+                    arrayLiteralSize, statementsPerLevel);
+            directory = Files.createTempDirectory("tanBenchmarks").toFile();
+            file = corpus.writeTo(directory);
+            filename = file.getPath();
+
+            ParseNode analyzed = analyzed(filename);
+            if (TanLogger.hasErrors()) {
+                throw new IllegalStateException("generated corpus has errors: " + file);
+            }
+            tokens = lexed(filename);
+            parsed = parsed(filename);
+            fragment = ASMCodeGenerator.generate(analyzed);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            file.delete();
+            directory.delete();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ParsedTree {
+        ParseNode tree;
+
+        @Setup(Level.Invocation)
+        public void setUp(Corpus corpus) {
+            tree = parsed(corpus.filename);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class AnalyzedTree {
+        ParseNode tree;
+
+        @Setup(Level.Invocation)
+        public void setUp(Corpus corpus) {
+            tree = analyzed(corpus.filename);
+        }
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // preparing the inputs
+
+    static List<Token> lexed(String filename) {
+        Scanner scanner = LexicalAnalyzer.make(filename);
+        List<Token> tokens = new ArrayList<Token>();
+        while (scanner.hasNext()) {
+            tokens.add(scanner.next());
+        }
+        tokens.add(scanner.next());
+        return tokens;
+    }
+
+    static ParseNode parsed(String filename) {
+        return Parser.parse(LexicalAnalyzer.make(filename));
+    }
+
+    static ParseNode analyzed(String filename) {
+        return SemanticAnalyzer.analyze(parsed(filename));
+    }
+
+    // the cost of a walk alone: counts the visits.
+    private static class CountingVisitor extends ParseNodeVisitor.Default {
+        private int count = 0;
+
+        @Override
+        public void defaultVisit(ParseNode node) {
+            count++;
+        }
+    }
+
+    // hands out tokens lexed beforehand; the last (a NullToken) is repeated.
+    private static class ListScanner implements Scanner {
+        private final List<Token> tokens;
+        private int index = 0;
+
+        ListScanner(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < tokens.size() - 1;
+        }
+
+        @Override
+        public Token next() {
+            Token result = tokens.get(index);
+            if (index < tokens.size() - 1) {
+                index++;
+            }
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package applications;
 
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintStream;
 
 import parseTree.ParseNode;
@@ -16,9 +16,9 @@ public class TanAbstractSyntaxTree extends TanApplication {
      * Prints abstract syntax tree of a tan file. Prints errors if syntax incorrect.
      * 
      * @param args
-     * @throws FileNotFoundException
+     * @throws IOException
      */
-    public static void main(String[] args) throws FileNotFoundException {
+    public static void main(String[] args) throws IOException {
         checkArguments(args, className());
 
         ParseTreePrinter.setPrintLevel(ParseTreePrinter.Level.FULL);
@@ -30,13 +30,13 @@ public class TanAbstractSyntaxTree extends TanApplication {
      * analyzes a file specified by filename.
      * 
      * @param filename the name of the file to be analyzed.
-     * @throws FileNotFoundException
+     * @throws IOException
      */
     public static void parseFileToAST(String filename, PrintStream out)
-            throws FileNotFoundException {
+            throws IOException {
         Scanner scanner = LexicalAnalyzer.make(filename);
         ParseNode syntaxTree = Parser.parse(scanner);
 
-        out.print(syntaxTree);
+        ParseTreePrinter.print(syntaxTree, out);
     }
 }
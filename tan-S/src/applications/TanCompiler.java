@@ -3,14 +3,24 @@ package applications;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
 import asmCodeGenerator.ASMCodeGenerator;
 import asmCodeGenerator.codeStorage.ASMCodeFragment;
-import lexicalAnalyzer.LexicalAnalyzer;
+import lexicalAnalyzer.ParallelLexicalAnalyzer;
+import logging.TanLogger;
 import lexicalAnalyzer.Scanner;
+import parseTree.CompactTree;
 import parseTree.ParseNode;
+import parseTree.ParseTreeCache;
+import parseTree.nodeTypes.ErrorNode;
+import parseTree.nodeTypes.ProgramNode;
 import parser.Parser;
+import semanticAnalyzer.ConstantFolder;
 import semanticAnalyzer.SemanticAnalyzer;
 import tokens.Tokens;
 
@@ -21,11 +31,15 @@ public class TanCompiler extends TanApplication {
      * @param args
      * @throws FileNotFoundException
      */
-    public static void main(String[] args) throws FileNotFoundException {
+    public static void main(String[] args) throws IOException {
         checkArguments(args, className());
 
         Tokens.setPrintLevel(Tokens.Level.FULL);
-        compile(args[0]);
+        if (Boolean.getBoolean("tan.pipelined")) {
+            compilePipelined(args[0]);
+        } else {
+            compile(args[0]);
+        }
         System.exit(0);
     }
 
@@ -33,16 +47,130 @@ public class TanCompiler extends TanApplication {
      * analyzes a file specified by filename.
      * 
      * @param filename the name of the file to be analyzed.
-     * @throws FileNotFoundException
+     * @throws IOException
      */
-    public static void compile(String filename) throws FileNotFoundException {
-        Scanner scanner = LexicalAnalyzer.make(filename);
-        ParseNode syntaxTree = Parser.parse(scanner);
-        ParseNode decoratedTree = SemanticAnalyzer.analyze(syntaxTree);
+    public static void compile(String filename) throws IOException {
+        if (Boolean.getBoolean("tan.compactAst")) {
+            compileCompact(filename);
+            return;
+        }
+        ParseNode syntaxTree = Boolean.getBoolean("tan.astCache")
+                ? parseWithCache(filename)
+                : parse(filename);
+        ParseNode decoratedTree = Boolean.getBoolean("tan.parallelAnalysis")
+                ? SemanticAnalyzer.analyzeInParallel(syntaxTree)
+                : SemanticAnalyzer.analyze(syntaxTree);
 
         generateCodeIfNoErrors(filename, decoratedTree);
     }
 
+    // the parser builds a CompactTree, and the first semantic pass reads it; ParseNodes are
+    // made from it for the second pass.
+    private static void compileCompact(String filename) throws IOException {
+        CompactTree syntaxTree = Parser.parseCompact(ParallelLexicalAnalyzer.make(filename));
+        ParseNode decoratedTree = SemanticAnalyzer.analyze(syntaxTree);
+        generateCodeIfNoErrors(filename, decoratedTree);
+    }
+
+    private static ParseNode parse(String filename) {
+        Scanner scanner = ParallelLexicalAnalyzer.make(filename);
+        return Boolean.getBoolean("tan.parallelParse")
+                ? Parser.parseInParallel(scanner)
+                : Parser.parse(scanner);
+    }
+
+    // the tree from the file's ParseTreeCache if it holds one, and otherwise the parsed tree,
+    // which is stored there if it was parsed without errors.
+    private static ParseNode parseWithCache(String filename) throws IOException {
+        ParseTreeCache cache = ParseTreeCache.make(filename);
+        ParseNode syntaxTree = cache.load();
+        if (syntaxTree == null) {
+            syntaxTree = parse(filename);
+            if (!thereAreErrors()) {
+                cache.store(syntaxTree);
+            }
+        }
+        return syntaxTree;
+    }
+
+    /**
+     * compiles a file function by function: each subr is parsed, analyzed, and its code
+     * generated and written out before the next one is parsed, so that only one function body,
+     * and its tokens, is held in memory at a time. The function code is spooled to a temporary
+     * file, since the main program's code precedes it in the output but is only known at the end.
+     * A function or main block with syntax errors is not analyzed, as its analysis would only
+     * report errors that follow from them.
+     * Falls back to <code>compile</code> if the file has lexical errors or unbalanced braces.
+     * 
+     * @param filename the name of the file to be compiled.
+     * @throws IOException
+     */
+    public static void compilePipelined(String filename) throws IOException {
+        Parser parser = Parser.functionByFunction(filename);
+        if (parser == null) {
+            compile(filename);
+            return;
+        }
+
+        // as with parse(), a syntax error outside the function bodies leaves nothing to analyze.
+        ParseNode program = parser.parseProgramHeaders();
+        String outfile = outputFilename(filename);
+        if (!(program instanceof ProgramNode) || thereAreErrors()) {
+            stopProcessing(outfile);
+            System.exit(1);
+        }
+
+        SemanticAnalyzer analyzer = new SemanticAnalyzer(program);
+        analyzer.analyzeSignatures();
+        ASMCodeGenerator generator = new ASMCodeGenerator(program);
+        ASMCodeFragment header = generator.headerASM();
+
+        File functionFile = File.createTempFile("tanFunctions", ".asm");
+        try {
+            PrintStream functionOut = new PrintStream(functionFile);
+            List<ParseNode> functions = new ArrayList<ParseNode>(program.getChildren());
+            for (ParseNode function : functions) {
+                boolean hasBody = parser.hasSkippedBody(function);
+                int messagesBefore = TanLogger.messageCount();
+                if (hasBody) {
+                    parser.parseFunctionBody(function);
+                }
+                if (TanLogger.messageCount() == messagesBefore) {
+                    analyzer.analyzeChild(function);
+                    if (!thereAreErrors()) {
+                        functionOut.print(generator.functionASM(ConstantFolder.fold(function)));
+                    }
+                }
+                if (hasBody) {
+                    parser.dropFunctionBody(function);
+                }
+            }
+            functionOut.close();
+
+            int messagesBefore = TanLogger.messageCount();
+            ParseNode mainBlock = parser.parseMainBlock(program);
+            if (!(mainBlock instanceof ErrorNode) && TanLogger.messageCount() == messagesBefore) {
+                analyzer.analyzeChild(mainBlock);
+                analyzer.finish();
+            }
+
+            if (!thereAreErrors()) {
+                PrintStream out = new PrintStream(new File(outfile));
+                out.print(header);
+                out.print(generator.mainASM(ConstantFolder.fold(mainBlock)));
+                out.write(Files.readAllBytes(functionFile.toPath()));
+                out.print(generator.trailerASM());
+                out.close();
+            }
+        } finally {
+            functionFile.delete();
+        }
+        if (thereAreErrors()) {
+            stopProcessing(outfile);
+            System.exit(1);
+        }
+    }
+
     private static void generateCodeIfNoErrors(String filename, ParseNode decoratedTree)
             throws FileNotFoundException {
         String outfile = outputFilename(filename);
@@ -72,10 +200,10 @@ public class TanCompiler extends TanApplication {
         }
     }
 
-    // normal code generation.
+    // normal code generation, once the constants are folded.
     private static void generateAndPrintCode(String outfile, ParseNode decoratedTree)
             throws FileNotFoundException {
-        ASMCodeFragment code = ASMCodeGenerator.generate(decoratedTree);
+        ASMCodeFragment code = ASMCodeGenerator.generate(ConstantFolder.fold(decoratedTree));
         printCodeToFile(outfile, code);
     }
 
@@ -1,6 +1,6 @@
 package applications;
 
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintStream;
 
 import lexicalAnalyzer.LexicalAnalyzer;
@@ -17,9 +17,9 @@ public class TanSemanticChecker extends TanApplication {
      * errors if not.
      * 
      * @param args
-     * @throws FileNotFoundException
+     * @throws IOException
      */
-    public static void main(String[] args) throws FileNotFoundException {
+    public static void main(String[] args) throws IOException {
         checkArguments(args, className());
 
         ParseTreePrinter.setPrintLevel(ParseTreePrinter.Level.FULL);
@@ -32,14 +32,14 @@ public class TanSemanticChecker extends TanApplication {
      * 
      * @param filename the name of the file to be analyzed.
      * @param out the PrintStream to print the decorated tree to.
-     * @throws FileNotFoundException
+     * @throws IOException
      */
     public static void checkFileSemantics(String filename, PrintStream out)
-            throws FileNotFoundException {
+            throws IOException {
         Scanner scanner = LexicalAnalyzer.make(filename);
         ParseNode syntaxTree = Parser.parse(scanner);
         ParseNode decoratedTree = SemanticAnalyzer.analyze(syntaxTree);
 
-        out.print(decoratedTree);
+        ParseTreePrinter.print(decoratedTree, out);
     }
 }
@@ -4,7 +4,7 @@ import static applications.tests.FixtureDefinitions.AST_INPUT_FILENAME;
 import static applications.tests.FixtureDefinitions.AST_EXPECTED_FULL_FILENAME;
 import static applications.tests.FixtureDefinitions.AST_EXPECTED_TOKEN_ONLY_FILENAME;
 
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintStream;
 
 import parseTree.ParseTreePrinter;
@@ -42,7 +42,7 @@ public class TestAbstractSyntaxTree extends FileFixturesTestCase {
             this.filename = filename;
         }
 
-        public void run(PrintStream out) throws FileNotFoundException {
+        public void run(PrintStream out) throws IOException {
             TanAbstractSyntaxTree.parseFileToAST(filename, out);
         }
     }
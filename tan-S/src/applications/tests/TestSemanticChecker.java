@@ -3,7 +3,7 @@ package applications.tests;
 import static applications.tests.FixtureDefinitions.SEMANTIC_INPUT_FILENAME;
 import static applications.tests.FixtureDefinitions.SEMANTIC_EXPECTED_FILENAME;
 
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintStream;
 
 import parseTree.ParseTreePrinter;
@@ -38,7 +38,7 @@ public class TestSemanticChecker extends FileFixturesTestCase {
             this.filename = filename;
         }
 
-        public void run(PrintStream out) throws FileNotFoundException {
+        public void run(PrintStream out) throws IOException {
             TanSemanticChecker.checkFileSemantics(filename, out);
         }
     }
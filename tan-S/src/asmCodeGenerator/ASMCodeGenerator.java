@@ -45,6 +45,7 @@ import parseTree.nodeTypes.StringConstantNode;
 import parseTree.nodeTypes.TabNode;
 import parseTree.nodeTypes.TargetExpressionNode;
 import parseTree.nodeTypes.WhileStatementNode;
+import semanticAnalyzer.ConstantFolder;
 import semanticAnalyzer.signatures.FunctionSignature;
 import semanticAnalyzer.types.ArrayType;
 import semanticAnalyzer.types.PrimitiveType;
@@ -58,6 +59,8 @@ import static asmCodeGenerator.codeStorage.ASMOpcode.*;
 public class ASMCodeGenerator {
     ParseNode root;
     private ASMCodeFragment functions = new ASMCodeFragment(GENERATES_VOID);
+    // for pipelined generation: the code that sets each function's pointer.
+    private ASMCodeFragment functionPointers = new ASMCodeFragment(GENERATES_VOID);
 
     public static ASMCodeFragment generate(ParseNode syntaxTree) {
         ASMCodeGenerator codeGenerator = new ASMCodeGenerator(syntaxTree);
@@ -81,6 +84,45 @@ public class ASMCodeGenerator {
         return code;
     }
 
+    // pipelined generation, for a ProgramNode whose children are analyzed one at a time:
+    // headerASM, then functionASM for each function definition in order, then mainASM for the
+    // main block, then trailerASM. In the order headerASM, mainASM, the functionASMs, trailerASM,
+    // the pieces make the code makeASM would.
+    public ASMCodeFragment headerASM() {
+        ASMCodeFragment code = new ASMCodeFragment(GENERATES_VOID);
+        code.append(MemoryManager.codeForInitialization());
+        code.append(stackFrameASM());
+        code.append(RunTime.getEnvironment());
+        return code;
+    }
+
+    public ASMCodeFragment functionASM(ParseNode functionDefinition) {
+        CodeVisitor visitor = new CodeVisitor();
+        functionDefinition.accept(visitor);
+        functionPointers.append(visitor.removeVoidCode(functionDefinition));
+
+        ASMCodeFragment code = functions;
+        functions = new ASMCodeFragment(GENERATES_VOID);
+        return code;
+    }
+
+    public ASMCodeFragment mainASM(ParseNode mainBlock) {
+        CodeVisitor visitor = new CodeVisitor();
+        mainBlock.accept(visitor);
+
+        ASMCodeFragment code = new ASMCodeFragment(GENERATES_VOID);
+        code.append(globalVariableBlockASM());
+        code.add(Label, RunTime.MAIN_PROGRAM_LABEL);
+        code.append(functionPointers);
+        code.append(visitor.removeVoidCode(mainBlock));
+        code.add(Halt);
+        return code;
+    }
+
+    public ASMCodeFragment trailerASM() {
+        return MemoryManager.codeForAfterApplication();
+    }
+
     private ASMCodeFragment stackFrameASM() {
         ASMCodeFragment code = new ASMCodeFragment(GENERATES_VOID);
         Macros.declareI(code, RunTime.FRAME_POINTER);
@@ -686,8 +728,9 @@ public class ASMCodeGenerator {
             Object variant = signature.getVariant();
             if (variant instanceof ASMOpcode) {
                 args.forEach(arg -> code.append(arg));
-                // handle division by zero
-                if (args.size() == 2 && node.getOperator() == Punctuator.DIVIDE) {
+                // handle division by zero, unless the divisor is a constant that is not zero
+                if (args.size() == 2 && node.getOperator() == Punctuator.DIVIDE
+                        && !ConstantFolder.isNonzeroConstant(node.child(1))) {
                     Type divisorType = node.child(1).getType();
                     assert divisorType == PrimitiveType.INTEGER || divisorType == PrimitiveType.FLOAT;
                     Labeller labeller = new Labeller("divide-zero-check");
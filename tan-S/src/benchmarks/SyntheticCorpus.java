@@ -0,0 +1,142 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+/**
+ * A generated tan program for benchmarking, scaled along four axes: the number of subroutines,
+ * the depth of the if/while nesting in each, the size of the array literal each declares, and the
+ * number of statements at each level of nesting (which sets the length of the source).
+ * <p>
+ * The program is valid tan, so every phase of the compiler runs over all of it. Use the factory
+ * <code>make(...)</code>; <code>writeTo(directory)</code> puts the source in a file for the
+ * phases that start from a filename.
+ */
+public class SyntheticCorpus {
+    private final int functionCount;
+    private final int nestingDepth;
+    private final int arrayLiteralSize;
+    private final int statementsPerLevel;
+    private final String source;
+
+
+    public static SyntheticCorpus make(int functionCount, int nestingDepth, int arrayLiteralSize,
+            int statementsPerLevel) {
+        if (functionCount < 1 || nestingDepth < 0 || arrayLiteralSize < 1 || statementsPerLevel < 1) {
+            throw new IllegalArgumentException("SyntheticCorpus: bad parameters");
+        }
+        return new SyntheticCorpus(functionCount, nestingDepth, arrayLiteralSize, statementsPerLevel);
+    }
+
+    private SyntheticCorpus(int functionCount, int nestingDepth, int arrayLiteralSize,
+            int statementsPerLevel) {
+        this.functionCount = functionCount;
+        this.nestingDepth = nestingDepth;
+        this.arrayLiteralSize = arrayLiteralSize;
+        this.statementsPerLevel = statementsPerLevel;
+        this.source = generate();
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getName() {
+        return "f" + functionCount + "-d" + nestingDepth + "-a" + arrayLiteralSize
+                + "-s" + statementsPerLevel;
+    }
+
+    public File writeTo(File directory) throws IOException {
+        File file = new File(directory, getName() + ".tan");
+        Files.write(file.toPath(), source.getBytes(Charset.defaultCharset()));
+        return file;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // generation
+
+    private String generate() {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < functionCount; i++) {
+            generateFunction(result, i);
+        }
+        result.append("main {\n");
+        result.append("    var result := f").append(functionCount - 1).append("(1, 2);\n");
+        result.append("    print result \\n;\n");
+        result.append("}\n");
+        return result.toString();
+    }
+
+    // subr int fN(int a, int b) { declarations; nested blocks; return }
+    private void generateFunction(StringBuilder result, int index) {
+        result.append("subr int f").append(index).append("(int a, int b) {\n");
+        String indent = "    ";
+        result.append(indent).append("var x := a + b * ").append(index + 1).append(";\n");
+        result.append(indent).append("var y := 0.5 * 2.25e+1;\n");
+        result.append(indent).append("var table := [");
+        for (int i = 0; i < arrayLiteralSize; i++) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            result.append((i * 7 + index) % 1000);
+        }
+        result.append("];\n");
+        if (index > 0) {
+            result.append(indent).append("x := x + f").append(index - 1).append("(x, b);\n");
+        }
+        generateLevel(result, indent, 0);
+        result.append(indent).append("return x + [table : 0];\n");
+        result.append("}\n\n");
+    }
+
+    private void generateLevel(StringBuilder result, String indent, int depth) {
+        for (int i = 0; i < statementsPerLevel; i++) {
+            generateStatement(result, indent, depth, i);
+        }
+        if (depth == nestingDepth) {
+            return;
+        }
+        String inner = indent + "    ";
+        if (depth % 2 == 0) {
+            result.append(indent).append("if (x > ").append(depth).append(" && y < 100.0) {\n");
+        } else {
+            result.append(indent).append("while (x < ").append(depth * 10 + 10).append(") {\n");
+        }
+        result.append(inner).append("var z").append(depth).append(" := x - ").append(depth)
+                .append(";\n");
+        generateLevel(result, inner, depth + 1);
+        if (depth % 2 != 0) {
+            result.append(inner).append("x := x + 1;\n");
+        }
+        result.append(indent).append("}\n");
+    }
+
+    private void generateStatement(StringBuilder result, String indent, int depth, int index) {
+        switch (index % 4) {
+        case 0:
+            result.append(indent).append("x := x + ").append(index).append(" * (b - ").append(depth)
+                    .append(");\n");
+            break;
+        case 1:
+            result.append(indent).append("y := y / 2.0 + ").append(index).append(".5;\n");
+            break;
+        case 2:
+            result.append(indent).append("x := x + [table : ").append(index % arrayLiteralSize)
+                    .append("] + length table;\n");
+            break;
+        default:
+            result.append(indent).append("if (x == ").append(index).append(" || !(y > 1.0)) {\n");
+            result.append(indent).append("    y := y + <float>(x);\n");
+            result.append(indent).append("}\n");
+            break;
+        }
+    }
+}
@@ -11,6 +11,9 @@ import java.util.Iterator;
  * <p>
  * Although InputHandler is an Iterable on String, it permits only one Iterator. The current line
  * number of the InputHandler is the line number of the corresponding Iterator, if any.
+ * <p>
+ * The factories <code>mappedFromFilename(...)</code> give a MappedFileInputHandler, which reads the
+ * whole file at once and also allows indexed access to its text.
  *
  */
 public class InputHandler implements Iterable<String> {
@@ -22,7 +25,7 @@ public class InputHandler implements Iterable<String> {
     protected String terminator;
 
 
-    private InputHandler(String filename, String terminator) {
+    protected InputHandler(String filename, String terminator) {
         this.filename = filename;
         this.terminator = terminator;
     }
@@ -60,7 +63,7 @@ public class InputHandler implements Iterable<String> {
         return new HandlerIterator(filename);
     }
 
-    private void ensureSingleIterator() {
+    protected void ensureSingleIterator() {
         if (iteratorIssued) {
             throw new IllegalStateException("Cannot get two iterators on same InputHandler.");
         }
@@ -91,4 +94,12 @@ public class InputHandler implements Iterable<String> {
     public static InputHandler fromFilename(String filename) {
         return fromFilename(filename, DEFAULT_TERMINATOR);
     }
+
+    public static MappedFileInputHandler mappedFromFilename(String filename, String terminator) {
+        return new MappedFileInputHandler(filename, terminator);
+    }
+
+    public static MappedFileInputHandler mappedFromFilename(String filename) {
+        return mappedFromFilename(filename, DEFAULT_TERMINATOR);
+    }
 }
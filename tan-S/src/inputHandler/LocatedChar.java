@@ -54,13 +54,11 @@ public class LocatedChar implements Locator {
     // delegates
 
     public boolean isIdentifierLeadingChar() {
-        return ('a' <= character && character <= 'z') || ('A' <= character && character <= 'Z')
-                || (character == '_') || (character == '@');
+        return isIdentifierLeadingChar(character);
     }
 
     public boolean isIdentifierTailingChar() {
-        return isIdentifierLeadingChar() || ('0' <= character && character <= '9');
-
+        return isIdentifierTailingChar(character);
     }
 
     public boolean isDigit() {
@@ -70,4 +68,17 @@ public class LocatedChar implements Locator {
     public boolean isWhitespace() {
         return Character.isWhitespace(character);
     }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // the same tests, for characters read without a location
+
+    public static boolean isIdentifierLeadingChar(char character) {
+        return ('a' <= character && character <= 'z') || ('A' <= character && character <= 'Z')
+                || (character == '_') || (character == '@');
+    }
+
+    public static boolean isIdentifierTailingChar(char character) {
+        return isIdentifierLeadingChar(character) || ('0' <= character && character <= '9');
+    }
 }
@@ -4,7 +4,15 @@ package inputHandler;
 import java.util.Iterator;
 
 
-
+/**
+ * A stream of the characters of an InputHandler, each with its location.
+ * <p>
+ * The stream can be read in two ways. As an Iterator, it returns a LocatedChar for every character.
+ * The primitive methods <code>nextChar()</code> and <code>position()</code> return the character
+ * and its PackedPosition instead, and allocate nothing; use <code>locationOf(...)</code> or
+ * <code>locatedChar(...)</code> to build the objects only when they are needed. At the end of input
+ * <code>nextChar()</code> returns NULL_CHAR with the position PackedPosition.END_OF_INPUT.
+ */
 public class LocatedCharStream implements Iterator<LocatedChar> {
     public static final char NULL_CHAR = '\0';
     public static final LocatedChar FLAG_END_OF_INPUT =
@@ -15,32 +23,73 @@ public class LocatedCharStream implements Iterator<LocatedChar> {
     private String line;
     private int index;
 
-    private LocatedChar next;
+    private char nextChar;
+    private long nextPosition;
+    private long position;
     private InputHandler input;
 
+    // set only when reading from a MappedFileInputHandler.
+    private MappedFileInputHandler mappedInput;
+    private int offset;
+    private int endOffset;
+    private int lineNumber;
+
 
     public LocatedCharStream(InputHandler input) {
         super();
         this.input = input;
-        this.inputIterator = input.iterator();
-        this.index = 0;
-        this.line = "";
+        if (input instanceof MappedFileInputHandler) {
+            this.mappedInput = (MappedFileInputHandler) input;
+            this.offset = 0;
+            this.endOffset = mappedInput.length();
+            this.lineNumber = 1;
+        } else {
+            this.inputIterator = input.iterator();
+            this.index = 0;
+            this.line = "";
+        }
+        this.position = PackedPosition.END_OF_INPUT;
+        preloadChar();
+    }
+
+    /**
+     * A stream over lines firstLine (inclusive) through endLine (exclusive) of a
+     * MappedFileInputHandler. Locations are those of the whole file; the stream ends after the
+     * last character of line endLine - 1.
+     */
+    public LocatedCharStream(MappedFileInputHandler input, int firstLine, int endLine) {
+        super();
+        this.input = input;
+        this.mappedInput = input;
+        this.offset = input.lineStart(firstLine);
+        this.endOffset = input.lineStart(endLine);
+        this.lineNumber = firstLine;
+        this.position = PackedPosition.END_OF_INPUT;
         preloadChar();
     }
 
     private void preloadChar() {
+        if (mappedInput != null) {
+            preloadMappedChar();
+            return;
+        }
         ensureLineHasACharacter();
-        next = nextCharInLine();
+        preloadCharInLine();
     }
 
-    private LocatedChar nextCharInLine() {
+    private void preloadCharInLine() {
         if (endOfInput()) {
-            return FLAG_END_OF_INPUT;
+            preloadEndOfInput();
+            return;
         }
 
-        TextLocation location = new TextLocation(input.fileName(), input.lineNumber(), index);
-        char character = line.charAt(index++);
-        return new LocatedChar(character, location);
+        nextPosition = PackedPosition.pack(input.lineNumber(), index);
+        nextChar = line.charAt(index++);
+    }
+
+    private void preloadEndOfInput() {
+        nextPosition = PackedPosition.END_OF_INPUT;
+        nextChar = NULL_CHAR;
     }
 
     private void ensureLineHasACharacter() {
@@ -64,6 +113,55 @@ public class LocatedCharStream implements Iterator<LocatedChar> {
     }
 
 
+    //////////////////////////////////////////////////////////////////////////////
+    // indexed reading from a MappedFileInputHandler.
+    // Produces the same locations as the line-by-line reading above.
+
+    private void preloadMappedChar() {
+        if (offset >= endOffset) {
+            preloadEndOfInput();
+            return;
+        }
+        while (offset >= mappedInput.lineStart(lineNumber + 1)) {
+            lineNumber++;
+        }
+
+        nextPosition = PackedPosition.pack(lineNumber, offset - mappedInput.lineStart(lineNumber));
+        nextChar = mappedInput.charAt(offset++);
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // primitive reading.
+    // position() is the PackedPosition of the character last returned by nextChar() or next().
+
+    public char nextChar() {
+        char result = nextChar;
+        position = nextPosition;
+        preloadChar();
+        return result;
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public TextLocation locationOf(long packedPosition) {
+        if (PackedPosition.isEndOfInput(packedPosition)) {
+            return FLAG_END_OF_INPUT.getLocation();
+        }
+        return new TextLocation(input.fileName(), PackedPosition.lineNumber(packedPosition),
+                PackedPosition.position(packedPosition));
+    }
+
+    public LocatedChar locatedChar(char character, long packedPosition) {
+        if (PackedPosition.isEndOfInput(packedPosition)) {
+            return FLAG_END_OF_INPUT;
+        }
+        return new LocatedChar(character, locationOf(packedPosition));
+    }
+
+
     //////////////////////////////////////////////////////////////////////////////
     // Iterator<LocatedChar> overrides
     // next() extra-politely returns a fully-formed LocatedChar (FLAG_END_OF_INPUT)
@@ -71,14 +169,13 @@ public class LocatedCharStream implements Iterator<LocatedChar> {
 
     @Override
     public boolean hasNext() {
-        return next != FLAG_END_OF_INPUT;
+        return !PackedPosition.isEndOfInput(nextPosition);
     }
 
     @Override
     public LocatedChar next() {
-        LocatedChar result = next;
-        preloadChar();
-        return result;
+        char character = nextChar();
+        return locatedChar(character, position());
     }
 
     /**
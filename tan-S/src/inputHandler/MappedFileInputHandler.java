@@ -0,0 +1,181 @@
+package inputHandler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An InputHandler that maps its whole file into memory and decodes it once into a single character
+ * buffer. Use the factory <code>InputHandler.mappedFromFilename(...)</code> to construct.
+ * <p>
+ * The buffer holds the same text that the line iterator of an ordinary InputHandler would produce:
+ * every line terminator ("\n", "\r\n" or "\r") is replaced by the handler's terminator, and the last
+ * line receives a terminator even if the file does not end with one. Unlike an ordinary
+ * InputHandler, the text may also be accessed by index through <code>charAt(...)</code>, which is
+ * what LocatedCharStream uses when it is given one of these.
+ * <p>
+ * Lines are one-based; <code>lineStart(n)</code> is the buffer index of the first character of
+ * line n, and <code>lineStart(lineCount() + 1)</code> is the length of the buffer.
+ */
+public class MappedFileInputHandler extends InputHandler {
+    private static final int STARTING_LINE_CAPACITY = 64;
+
+    private char[] text;
+    private int length;
+    private int[] lineStarts;
+    private int lineCount;
+
+
+    protected MappedFileInputHandler(String filename, String terminator) {
+        super(filename, terminator);
+        load(decode(mapFile(filename)));
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // indexed access
+
+    public char charAt(int index) {
+        return text[index];
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int lineCount() {
+        return lineCount;
+    }
+
+    public int lineStart(int lineNumber) {
+        return lineStarts[lineNumber - 1];
+    }
+
+    public String line(int lineNumber) {
+        int start = lineStart(lineNumber);
+        return new String(text, start, lineStart(lineNumber + 1) - start);
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // Iterable<String>, for clients that still want lines
+
+    @Override
+    public Iterator<String> iterator() {
+        ensureSingleIterator();
+
+        return new BufferIterator();
+    }
+
+    private class BufferIterator implements Iterator<String> {
+        @Override
+        public boolean hasNext() {
+            return lineNumber < lineCount;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lineNumber++;
+            return line(lineNumber);
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // reading the file
+
+    private static ByteBuffer mapFile(String filename) {
+        Path path = Paths.get(filename);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    // the default charset, to match the InputStreamReader used by LineBasedReader.
+    private static CharBuffer decode(ByteBuffer bytes) {
+        return Charset.defaultCharset().decode(bytes);
+    }
+
+    // copies the decoded characters into text, normalizing line terminators as it goes.
+    private void load(CharBuffer source) {
+        int sourceLength = source.remaining();
+        text = new char[sourceLength + terminator.length() + 1];
+        lineStarts = new int[STARTING_LINE_CAPACITY];
+        length = 0;
+        lineCount = 0;
+
+        int index = 0;
+        while (index < sourceLength) {
+            startLine();
+            while (index < sourceLength && !isLineBreak(source.get(index))) {
+                append(source.get(index++));
+            }
+            index = skipLineBreak(source, index);
+            appendTerminator();
+        }
+        recordLineStart(lineCount, length);
+    }
+
+    private static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\r';
+    }
+
+    // a line break is "\n", "\r\n" or "\r", as for BufferedReader.readLine().
+    private static int skipLineBreak(CharBuffer source, int index) {
+        if (index < source.remaining() && source.get(index) == '\r') {
+            index++;
+        }
+        if (index < source.remaining() && source.get(index) == '\n') {
+            index++;
+        }
+        return index;
+    }
+
+    private void startLine() {
+        recordLineStart(lineCount, length);
+        lineCount++;
+    }
+
+    private void recordLineStart(int lineIndex, int start) {
+        if (lineIndex == lineStarts.length) {
+            lineStarts = Arrays.copyOf(lineStarts, lineStarts.length * 2);
+        }
+        lineStarts[lineIndex] = start;
+    }
+
+    private void append(char c) {
+        ensureTextCapacity(1);
+        text[length++] = c;
+    }
+
+    private void appendTerminator() {
+        ensureTextCapacity(terminator.length());
+        terminator.getChars(0, terminator.length(), text, length);
+        length += terminator.length();
+    }
+
+    // only needed when the terminator is longer than the line breaks it replaces.
+    private void ensureTextCapacity(int extra) {
+        if (length + extra > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, length + extra));
+        }
+    }
+}
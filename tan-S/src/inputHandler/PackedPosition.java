@@ -0,0 +1,36 @@
+package inputHandler;
+
+/**
+ * Static helpers for a source position packed into a long: the line number is held in the high 32
+ * bits and the character position within the line in the low 32 bits.
+ * <p>
+ * The primitive methods of LocatedCharStream report positions this way so that no TextLocation
+ * needs to be built for a character until a token or a diagnostic asks for one. END_OF_INPUT
+ * unpacks to the line and position of LocatedCharStream.FLAG_END_OF_INPUT.
+ */
+public final class PackedPosition {
+    public static final long END_OF_INPUT = pack(-1, -1);
+
+    private PackedPosition() {}
+
+
+    public static long pack(int lineNumber, int position) {
+        return ((long) lineNumber << 32) | (position & 0xFFFFFFFFL);
+    }
+
+    public static long pack(TextLocation location) {
+        return pack(location.getLineNumber(), location.getPosition());
+    }
+
+    public static int lineNumber(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    public static int position(long packed) {
+        return (int) packed;
+    }
+
+    public static boolean isEndOfInput(long packed) {
+        return packed == END_OF_INPUT;
+    }
+}
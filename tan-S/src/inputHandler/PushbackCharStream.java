@@ -1,37 +1,129 @@
 package inputHandler;
 
-import java.util.Stack;
-
+/**
+ * A LocatedCharStream that can push back characters and peek ahead without consuming.
+ * <p>
+ * Pushed-back and peeked characters are kept, with their PackedPositions, in a fixed-capacity ring
+ * buffer whose head is the next character to be returned. Pushback adds at the head and so is
+ * last-in, first-out, as with a stack; <code>peekChar(k)</code> reads ahead from the underlying
+ * stream into the tail. Together they may hold at most CAPACITY characters, which is far more than
+ * the lexer needs.
+ */
 public class PushbackCharStream extends LocatedCharStream {
-    private Stack<LocatedChar> pushedBack;
+    public static final int CAPACITY = 16;
+    private static final int INDEX_MASK = CAPACITY - 1;
+
+    private char[] bufferedChars;
+    private long[] bufferedPositions;
+    private int head;
+    private int size;
+    private long position;
 
     public PushbackCharStream(InputHandler handler) {
         super(handler);
-        this.pushedBack = new Stack<LocatedChar>();
+        initializeBuffer();
+    }
+
+    public PushbackCharStream(MappedFileInputHandler handler, int firstLine, int endLine) {
+        super(handler, firstLine, endLine);
+        initializeBuffer();
+    }
+
+    private void initializeBuffer() {
+        this.bufferedChars = new char[CAPACITY];
+        this.bufferedPositions = new long[CAPACITY];
+        this.head = 0;
+        this.size = 0;
+        this.position = PackedPosition.END_OF_INPUT;
     }
 
     @Override
     public boolean hasNext() {
-        return !pushedBack.empty() || super.hasNext();
+        return size > 0 || super.hasNext();
     }
 
+    public LocatedChar peek() {
+        return locatedChar(peekChar(0), peekPosition(0));
+    }
+
+    public void pushback(LocatedChar locatedChar) {
+        pushback(locatedChar.getCharacter(), PackedPosition.pack(locatedChar.getLocation()));
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // primitive reading, pushback, and peeking.
+    // next() is inherited, and reads through nextChar().
+
     @Override
-    public LocatedChar next() {
-        if (pushedBack.empty()) {
-            return super.next();
-        } else {
-            return pushedBack.pop();
+    public char nextChar() {
+        if (size == 0) {
+            char result = super.nextChar();
+            position = super.position();
+            return result;
         }
+        char result = bufferedChars[head];
+        position = bufferedPositions[head];
+        head = (head + 1) & INDEX_MASK;
+        size--;
+        return result;
     }
 
-    public LocatedChar peek() {
-        LocatedChar result = next();
-        pushback(result);
-        return result;
+    @Override
+    public long position() {
+        return position;
     }
 
-    public void pushback(LocatedChar locatedChar) {
-        pushedBack.push(locatedChar);
+    public void pushback(char character, long packedPosition) {
+        ensureRoom();
+        head = (head - 1) & INDEX_MASK;
+        bufferedChars[head] = character;
+        bufferedPositions[head] = packedPosition;
+        size++;
+    }
+
+    /**
+     * Look at an upcoming character without consuming it.
+     * 
+     * @param k the number of characters to look past; peekChar(0) is the character that the next
+     *        call to nextChar() will return.
+     * @return the character, or NULL_CHAR if it is past the end of input.
+     */
+    public char peekChar(int k) {
+        fillTo(k);
+        return bufferedChars[(head + k) & INDEX_MASK];
+    }
+
+    public char peekChar() {
+        return peekChar(0);
+    }
+
+    public long peekPosition(int k) {
+        fillTo(k);
+        return bufferedPositions[(head + k) & INDEX_MASK];
+    }
+
+    public long peekPosition() {
+        return peekPosition(0);
+    }
+
+    // reads from the underlying stream until the buffer holds the character at lookahead k.
+    private void fillTo(int k) {
+        if (k < 0 || k >= CAPACITY) {
+            throw new IllegalArgumentException("peek distance " + k + " out of range");
+        }
+        while (size <= k) {
+            int tail = (head + size) & INDEX_MASK;
+            bufferedChars[tail] = super.nextChar();
+            bufferedPositions[tail] = super.position();
+            size++;
+        }
+    }
+
+    private void ensureRoom() {
+        if (size == CAPACITY) {
+            throw new IllegalStateException("pushback buffer full");
+        }
     }
 
     /**
@@ -46,4 +138,9 @@ public class PushbackCharStream extends LocatedCharStream {
         return new PushbackCharStream(handler);
     }
 
+    public static PushbackCharStream make(MappedFileInputHandler handler, int firstLine,
+            int endLine) {
+        return new PushbackCharStream(handler, firstLine, endLine);
+    }
+
 }
@@ -5,6 +5,7 @@ import static inputHandler.tests.FixtureDefinitions.*;
 import inputHandler.InputHandler;
 import inputHandler.LocatedChar;
 import inputHandler.LocatedCharStream;
+import inputHandler.PackedPosition;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -21,8 +22,35 @@ public class TestLocatedCharStream extends FileFixturesTestCase {
         assertEquals(expectedOutput, actualOutput);
     }
 
+    public void testMappedLocCharStream() throws Exception {
+        InputHandler input = InputHandler.mappedFromFilename(SIMPLE_FIXTURE_FILENAME, "\n");
+        String actualOutput = locCharStreamOutput(input);
+        String expectedOutput = getContents(SIMPLE_LCHAR_FILENAME);
+        assertEquals(expectedOutput, actualOutput);
+    }
+
+    public void testPrimitiveLocCharStream() throws Exception {
+        InputHandler input = InputHandler.mappedFromFilename(SIMPLE_FIXTURE_FILENAME, "\n");
+        final LocatedCharStream stream = new LocatedCharStream(input);
+        String actualOutput = outputFor(new Command() {
+            public void run(PrintStream out) {
+                while (stream.hasNext()) {
+                    char c = stream.nextChar();
+                    out.println(stream.locatedChar(c, stream.position()));
+                }
+            }
+        });
+        String expectedOutput = getContents(SIMPLE_LCHAR_FILENAME);
+        assertEquals(expectedOutput, actualOutput);
+        assertEquals(LocatedCharStream.NULL_CHAR, stream.nextChar());
+        assertTrue(PackedPosition.isEndOfInput(stream.position()));
+    }
+
     public String locCharStreamOutput(String filename) throws Exception {
-        InputHandler input = InputHandler.fromFilename(filename, "\n");
+        return locCharStreamOutput(InputHandler.fromFilename(filename, "\n"));
+    }
+
+    public String locCharStreamOutput(InputHandler input) throws Exception {
         LocatedCharStream stream = new LocatedCharStream(input);
         Command printCommand = new printLCStreamCommand(stream);
         return outputFor(printCommand);
@@ -0,0 +1,28 @@
+package inputHandler.tests;
+
+import inputHandler.InputHandler;
+import inputHandler.MappedFileInputHandler;
+
+import static inputHandler.tests.FixtureDefinitions.*;
+
+
+public class TestMappedFileInputHandler extends TestInputHandler {
+    @Override
+    protected InputHandler factory(String filename, String terminator) {
+        return InputHandler.mappedFromFilename(filename, terminator);
+    }
+
+
+    public void testIndexedAccess() {
+        MappedFileInputHandler handler = InputHandler.mappedFromFilename(SIMPLE_FIXTURE_FILENAME, "\n");
+
+        assertEquals(simpleFixtureStrings.length, handler.lineCount());
+        for (int i = 0; i < simpleFixtureStrings.length; i++) {
+            String lineExpected = simpleFixtureStrings[i] + "\n";
+            int start = handler.lineStart(i + 1);
+            assertEquals(lineExpected, handler.line(i + 1));
+            assertEquals(lineExpected.charAt(0), handler.charAt(start));
+        }
+        assertEquals(handler.length(), handler.lineStart(handler.lineCount() + 1));
+    }
+}
@@ -0,0 +1,98 @@
+package inputHandler.tests;
+
+import static inputHandler.tests.FixtureDefinitions.*;
+
+import inputHandler.InputHandler;
+import inputHandler.LocatedChar;
+import inputHandler.LocatedCharStream;
+import inputHandler.PackedPosition;
+import inputHandler.PushbackCharStream;
+import junit.framework.TestCase;
+
+public class TestPushbackCharStream extends TestCase {
+    private PushbackCharStream factory() {
+        return PushbackCharStream.make(InputHandler.mappedFromFilename(SIMPLE_FIXTURE_FILENAME, "\n"));
+    }
+
+
+    public void testPeekDoesNotConsume() {
+        PushbackCharStream stream = factory();
+
+        assertEquals('h', stream.peekChar(0));
+        assertEquals('l', stream.peekChar(3));
+        assertEquals('e', stream.peekChar(1));
+        assertEquals(PackedPosition.pack(1, 3), stream.peekPosition(3));
+
+        assertEquals('h', stream.nextChar());
+        assertEquals(PackedPosition.pack(1, 0), stream.position());
+        assertEquals('e', stream.nextChar());
+        assertEquals('l', stream.peekChar());
+        assertEquals(PackedPosition.pack(1, 1), stream.position());
+    }
+
+    public void testPushbackIsLastInFirstOut() {
+        PushbackCharStream stream = factory();
+
+        char h = stream.nextChar();
+        long hPosition = stream.position();
+        char e = stream.nextChar();
+        long ePosition = stream.position();
+        stream.pushback(e, ePosition);
+        stream.pushback(h, hPosition);
+
+        LocatedChar first = stream.next();
+        assertTrue(first.isChar('h'));
+        assertEquals(1, first.getLocation().getLineNumber());
+        assertEquals(0, first.getLocation().getPosition());
+        assertEquals('e', stream.nextChar());
+        assertEquals(ePosition, stream.position());
+        assertEquals('l', stream.nextChar());
+    }
+
+    public void testPushbackInFrontOfPeeked() {
+        PushbackCharStream stream = factory();
+
+        char h = stream.nextChar();
+        long hPosition = stream.position();
+        assertEquals('l', stream.peekChar(2));
+        stream.pushback(h, hPosition);
+
+        assertEquals("hell", nextChars(stream, 4));
+    }
+
+    public void testEndOfInput() {
+        PushbackCharStream stream = factory();
+        while (stream.hasNext()) {
+            stream.next();
+        }
+        assertEquals(LocatedCharStream.NULL_CHAR, stream.peekChar(1));
+        assertSame(LocatedCharStream.FLAG_END_OF_INPUT, stream.next());
+
+        stream.pushback(LocatedCharStream.FLAG_END_OF_INPUT);
+        assertTrue(stream.hasNext());
+        assertSame(LocatedCharStream.FLAG_END_OF_INPUT, stream.next());
+    }
+
+    public void testCapacity() {
+        PushbackCharStream stream = factory();
+        stream.peekChar(PushbackCharStream.CAPACITY - 1);
+        try {
+            stream.pushback('x', PackedPosition.pack(1, 0));
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        try {
+            stream.peekChar(PushbackCharStream.CAPACITY);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    private String nextChars(PushbackCharStream stream, int count) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            result.append(stream.nextChar());
+        }
+        return result.toString();
+    }
+}
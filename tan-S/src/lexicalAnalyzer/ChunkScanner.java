@@ -0,0 +1,60 @@
+package lexicalAnalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import inputHandler.PackedPosition;
+import inputHandler.PushbackCharStream;
+import logging.TanLogger;
+import tokens.NullToken;
+import tokens.Token;
+
+// a LexicalAnalyzer that keeps its error messages instead of logging them, so that they can be
+// logged later, when the token they were found with is handed out. Used by
+// ParallelLexicalAnalyzer and IncrementalLexer, which lex parts of a file ahead of time.
+class ChunkScanner extends LexicalAnalyzer {
+    private List<String> pendingMessages = new ArrayList<String>();
+
+    ChunkScanner(PushbackCharStream input, IdentifierPool identifierPool) {
+        super(input, identifierPool);
+    }
+
+    @Override
+    protected void reportError(String message) {
+        pendingMessages.add(message);
+    }
+
+    // null if there are none, as most tokens have none.
+    String[] takeMessages() {
+        if (pendingMessages.isEmpty()) {
+            return null;
+        }
+        String[] result = pendingMessages.toArray(new String[pendingMessages.size()]);
+        pendingMessages.clear();
+        return result;
+    }
+
+    static void reportErrors(String[] messages) {
+        if (messages == null) {
+            return;
+        }
+        TanLogger log = TanLogger.getLogger("compiler.lexicalAnalyzer");
+        for (String message : messages) {
+            log.severe(message);
+        }
+    }
+
+    static boolean isEndOfInput(Token token) {
+        return token instanceof NullToken && PackedPosition.isEndOfInput(positionOf(token));
+    }
+
+    // a scanner that stops advancing returns the same NullToken over and over.
+    static boolean isRepeatedNullToken(Token previous, Token token) {
+        return previous instanceof NullToken && token instanceof NullToken
+                && positionOf(previous) == positionOf(token);
+    }
+
+    private static long positionOf(Token token) {
+        return PackedPosition.pack(token.getLocation());
+    }
+}
@@ -0,0 +1,92 @@
+package lexicalAnalyzer;
+
+import java.util.Arrays;
+
+/**
+ * The identifiers seen in one compilation, each spelled by a single shared String and numbered by
+ * a symbol id. Ids are dense and start at zero, in order of first appearance.
+ * <p>
+ * An identifier is interned from a slice of a char array, and its String is only created the
+ * first time that spelling is seen.
+ */
+public class IdentifierPool {
+    private static final int STARTING_CAPACITY = 256;
+
+    private String[] spellings;
+    private int[] hashes;
+    private int[] table;            // symbol id + 1, or 0 for an empty slot
+    private int size;
+
+    public IdentifierPool() {
+        spellings = new String[STARTING_CAPACITY / 2];
+        hashes = new int[STARTING_CAPACITY / 2];
+        table = new int[STARTING_CAPACITY];
+        size = 0;
+    }
+
+    public int intern(char[] chars, int offset, int length) {
+        return intern(chars, offset, length, null);
+    }
+
+    // interning a String keeps that String as the spelling, if it is the first one seen.
+    public int intern(String spelling) {
+        return intern(spelling.toCharArray(), 0, spelling.length(), spelling);
+    }
+
+    private int intern(char[] chars, int offset, int length, String spelling) {
+        int hash = LexemeMap.hash(chars, offset, length);
+        int mask = table.length - 1;
+        int i = hash & mask;
+        while (table[i] != 0) {
+            int id = table[i] - 1;
+            if (hashes[id] == hash && LexemeMap.matches(spellings[id], chars, offset, length)) {
+                return id;
+            }
+            i = (i + 1) & mask;
+        }
+        if (spelling == null) {
+            spelling = new String(chars, offset, length);
+        }
+        return add(spelling, hash, i);
+    }
+
+    public String spelling(int symbolId) {
+        return spellings[symbolId];
+    }
+
+    public int size() {
+        return size;
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // growth. The table is kept at most half full.
+
+    private int add(String spelling, int hash, int slot) {
+        int id = size++;
+        if (id == spellings.length) {
+            spellings = Arrays.copyOf(spellings, id * 2);
+            hashes = Arrays.copyOf(hashes, id * 2);
+        }
+        spellings[id] = spelling;
+        hashes[id] = hash;
+        table[slot] = id + 1;
+
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return id;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int i = hashes[id] & mask;
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = id + 1;
+        }
+    }
+}
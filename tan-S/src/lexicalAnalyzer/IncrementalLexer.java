@@ -0,0 +1,276 @@
+package lexicalAnalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import inputHandler.InputHandler;
+import inputHandler.LocatedCharStream;
+import inputHandler.MappedFileInputHandler;
+import inputHandler.PushbackCharStream;
+import inputHandler.TextLocation;
+import tokens.NullToken;
+import tokens.Token;
+import tokens.TokenImp;
+
+/**
+ * The tokens of a file, kept line by line so that an edit to the file can be re-lexed without
+ * lexing the lines it did not touch. Use the factory <code>make(filename)</code>, then
+ * <code>relex(...)</code> after each change and <code>scanner()</code> to read the tokens.
+ * <p>
+ * No tan token, comment, or lexical error spans a line terminator, so each line is lexed on its
+ * own, as ParallelLexicalAnalyzer lexes its chunks. An edit replaces a range of lines; only the
+ * new lines are lexed, and the lines after them are reused. Tokens on lines that have moved are
+ * given their new line numbers as the scanner hands them out, and a moved line with lexical errors
+ * is lexed again so that its messages carry the new line number too.
+ * <p>
+ * A scanner hands out the tokens and logs the lexical errors that a LexicalAnalyzer over the
+ * whole file would. All lines share one IdentifierPool, which keeps every spelling ever seen, so
+ * symbol ids stay the same from one relex to the next. Do not relex while a scanner is in use.
+ */
+public class IncrementalLexer {
+    private MappedFileInputHandler text;
+    private Line[] lines;
+    private IdentifierPool identifierPool;
+
+
+    public static IncrementalLexer make(String filename) {
+        return new IncrementalLexer(InputHandler.mappedFromFilename(filename));
+    }
+
+    public IncrementalLexer(MappedFileInputHandler text) {
+        this.text = text;
+        this.identifierPool = new IdentifierPool();
+        this.lines = new Line[text.lineCount()];
+        for (int lineNumber = 1; lineNumber <= lines.length; lineNumber++) {
+            lines[lineNumber - 1] = lexLine(lineNumber);
+        }
+    }
+
+    public IdentifierPool getIdentifierPool() {
+        return identifierPool;
+    }
+
+    public int lineCount() {
+        return lines.length;
+    }
+
+    public Scanner scanner() {
+        return new LineScanner();
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // relexing
+
+    /**
+     * Re-lexes the file after lines firstLine (inclusive) through oldEndLine (exclusive) were
+     * replaced by lines firstLine through newEndLine (exclusive) of newText.
+     */
+    public void relex(MappedFileInputHandler newText, int firstLine, int oldEndLine, int newEndLine) {
+        if (firstLine < 1 || oldEndLine < firstLine || newEndLine < firstLine
+                || oldEndLine > lines.length + 1
+                || newText.lineCount() != lines.length + (newEndLine - oldEndLine)) {
+            throw new IllegalArgumentException("IncrementalLexer: bad line range " + firstLine
+                    + ", " + oldEndLine + ", " + newEndLine);
+        }
+        text = newText;
+
+        Line[] result = new Line[newText.lineCount()];
+        System.arraycopy(lines, 0, result, 0, firstLine - 1);
+        for (int lineNumber = firstLine; lineNumber < newEndLine; lineNumber++) {
+            result[lineNumber - 1] = lexLine(lineNumber);
+        }
+        System.arraycopy(lines, oldEndLine - 1, result, newEndLine - 1,
+                lines.length - (oldEndLine - 1));
+        lines = result;
+    }
+
+    /**
+     * Re-lexes the file after it has changed on disk, finding the changed lines by comparing the
+     * new text with the old.
+     */
+    public void relex(String filename) {
+        MappedFileInputHandler newText = InputHandler.mappedFromFilename(filename);
+        int oldLineCount = text.lineCount();
+        int newLineCount = newText.lineCount();
+
+        int firstLine = 1;
+        while (firstLine <= oldLineCount && firstLine <= newLineCount
+                && sameLine(text, firstLine, newText, firstLine)) {
+            firstLine++;
+        }
+        int oldEndLine = oldLineCount + 1;
+        int newEndLine = newLineCount + 1;
+        while (oldEndLine > firstLine && newEndLine > firstLine
+                && sameLine(text, oldEndLine - 1, newText, newEndLine - 1)) {
+            oldEndLine--;
+            newEndLine--;
+        }
+        relex(newText, firstLine, oldEndLine, newEndLine);
+    }
+
+    private static boolean sameLine(MappedFileInputHandler oldText, int oldLine,
+            MappedFileInputHandler newText, int newLine) {
+        int oldStart = oldText.lineStart(oldLine);
+        int newStart = newText.lineStart(newLine);
+        int length = oldText.lineStart(oldLine + 1) - oldStart;
+        if (newText.lineStart(newLine + 1) - newStart != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (oldText.charAt(oldStart + i) != newText.charAt(newStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // Line: the tokens lexed from one line, as for a ParallelLexicalAnalyzer chunk.
+    // lineNumber is the line the tokens' locations give, which lags behind the line's index
+    // in lines after an edit above it.
+
+    private static class Line {
+        private final int lineNumber;
+        private final Token[] tokens;
+        private final String[][] messages;
+        private final String[] trailingMessages;
+        private final boolean isStuck;
+
+        Line(int lineNumber, Token[] tokens, String[][] messages, String[] trailingMessages,
+                boolean isStuck) {
+            this.lineNumber = lineNumber;
+            this.tokens = tokens;
+            this.messages = messages;
+            this.trailingMessages = trailingMessages;
+            this.isStuck = isStuck;
+        }
+
+        boolean hasMessages() {
+            if (trailingMessages != null) {
+                return true;
+            }
+            for (String[] tokenMessages : messages) {
+                if (tokenMessages != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private Line lexLine(int lineNumber) {
+        ChunkScanner scanner = new ChunkScanner(
+                PushbackCharStream.make(text, lineNumber, lineNumber + 1), identifierPool);
+        List<Token> tokenList = new ArrayList<Token>();
+        List<String[]> messageList = new ArrayList<String[]>();
+        String[] trailingMessages = null;
+        boolean isStuck = false;
+
+        Token previous = null;
+        while (true) {
+            Token token = scanner.findNextToken();
+            String[] tokenMessages = scanner.takeMessages();
+            if (ChunkScanner.isEndOfInput(token)) {
+                trailingMessages = tokenMessages;
+                break;
+            }
+            if (ChunkScanner.isRepeatedNullToken(previous, token)) {
+                isStuck = true;
+                break;
+            }
+            tokenList.add(token);
+            messageList.add(tokenMessages);
+            previous = token;
+        }
+        return new Line(lineNumber, tokenList.toArray(new Token[tokenList.size()]),
+                messageList.toArray(new String[messageList.size()][]), trailingMessages, isStuck);
+    }
+
+    // the line at the given index, with its tokens moved to the line number of that index.
+    private Line lineAt(int index) {
+        Line line = lines[index];
+        int lineNumber = index + 1;
+        if (line.lineNumber == lineNumber) {
+            return line;
+        }
+        if (line.hasMessages()) {
+            line = lexLine(lineNumber);
+        } else {
+            line = new Line(lineNumber, relocate(line.tokens, lineNumber), line.messages, null,
+                    line.isStuck);
+        }
+        lines[index] = line;
+        return line;
+    }
+
+    private Token[] relocate(Token[] tokens, int lineNumber) {
+        Token[] result = new Token[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            TextLocation location = tokens[i].getLocation();
+            TextLocation newLocation = new TextLocation(location.getFilename(), lineNumber,
+                    location.getPosition());
+            result[i] = ((TokenImp) tokens[i]).relocated(newLocation);
+        }
+        return result;
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // LineScanner: Iterator<Token> over the lines, following ParallelLexicalAnalyzer.
+    // At the end of the last line (or of a line that got stuck) the last token is repeated.
+
+    private class LineScanner implements Scanner {
+        private int lineIndex = 0;
+        private int tokenIndex = -1;
+        private Token nextToken;
+        private final Token endOfInput =
+                NullToken.make(LocatedCharStream.FLAG_END_OF_INPUT.getLocation());
+
+        @Override
+        public boolean hasNext() {
+            preloadFirstToken();
+            return !(nextToken instanceof NullToken);
+        }
+
+        @Override
+        public Token next() {
+            preloadFirstToken();
+            Token result = nextToken;
+            advance();
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void preloadFirstToken() {
+            if (nextToken == null) {
+                advance();
+            }
+        }
+
+        private void advance() {
+            tokenIndex++;
+            while (lineIndex < lines.length) {
+                Line line = lineAt(lineIndex);
+                if (tokenIndex < line.tokens.length) {
+                    ChunkScanner.reportErrors(line.messages[tokenIndex]);
+                    nextToken = line.tokens[tokenIndex];
+                    return;
+                }
+                if (line.isStuck) {
+                    tokenIndex--;
+                    return;
+                }
+                ChunkScanner.reportErrors(line.trailingMessages);
+                lineIndex++;
+                tokenIndex = 0;
+            }
+            nextToken = endOfInput;
+        }
+    }
+}
@@ -50,23 +50,23 @@ public enum Keyword implements Lextant {
         return prototype;
     }
 
+    // a hashtable lookup, which also accepts the lexeme as a slice of a char array.
+    private static LexemeMap<Keyword> lexemeToKeyword =
+            new LexemeMap<Keyword>(values(), NULL_KEYWORD);
+
     public static Keyword forLexeme(String lexeme) {
-        for (Keyword keyword : values()) {
-            if (keyword.lexeme.equals(lexeme)) {
-                return keyword;
-            }
-        }
-        return NULL_KEYWORD;
+        return lexemeToKeyword.forLexeme(lexeme);
+    }
+
+    public static Keyword forLexeme(char[] chars, int offset, int length) {
+        return lexemeToKeyword.forLexeme(chars, offset, length);
     }
 
     public static boolean isAKeyword(String lexeme) {
         return forLexeme(lexeme) != NULL_KEYWORD;
     }
 
-    // the following hashtable lookup can replace the serial-search implementation of forLexeme() above.
-    // It is faster but less clear.
-    // private static LexemeMap<Keyword> lexemeToKeyword = new LexemeMap<Keyword>(values(), NULL_KEYWORD);
-    // public static Keyword forLexeme(String lexeme) {
-    //     return lexemeToKeyword.forLexeme(lexeme);
-    // }
+    public static boolean isAKeyword(char[] chars, int offset, int length) {
+        return forLexeme(chars, offset, length) != NULL_KEYWORD;
+    }
 }
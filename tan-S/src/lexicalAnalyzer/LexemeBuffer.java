@@ -0,0 +1,45 @@
+package lexicalAnalyzer;
+
+import java.util.Arrays;
+
+/**
+ * A reusable, unsynchronized character buffer in which the lexical analyzer collects the characters
+ * of one lexeme. Its contents can be examined in place through <code>chars()</code> and
+ * <code>length()</code>; <code>toString()</code> copies them into a new String.
+ */
+public class LexemeBuffer {
+    private static final int STARTING_CAPACITY = 64;
+
+    private char[] chars = new char[STARTING_CAPACITY];
+    private int length = 0;
+
+    public LexemeBuffer clear() {
+        length = 0;
+        return this;
+    }
+
+    public LexemeBuffer append(char c) {
+        if (length == chars.length) {
+            chars = Arrays.copyOf(chars, length * 2);
+        }
+        chars[length++] = c;
+        return this;
+    }
+
+    public char[] chars() {
+        return chars;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public char charAt(int index) {
+        return chars[index];
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
@@ -1,11 +1,16 @@
 package lexicalAnalyzer;
 
-import java.util.HashMap;
-import java.util.Map;
-
 
+/**
+ * A map from lexeme to Lextant. A lexeme may be looked up as a String or as a slice of a char
+ * array; the slice form allocates nothing. Lexemes not in the map give the nullValue.
+ * <p>
+ * The table is open-addressed and sized once at construction, so it is never modified afterward.
+ */
 public class LexemeMap<T extends Lextant> {
-    private Map<String, T> lexemeToT = new HashMap<String, T>();
+    private String[] lexemes;
+    private Object[] values;
+    private int mask;
     private T nullValue;
 
     public LexemeMap(T[] values, T nullValue) {
@@ -14,12 +19,69 @@ public class LexemeMap<T extends Lextant> {
     }
 
     public T forLexeme(String lexeme) {
-        return lexemeToT.getOrDefault(lexeme, nullValue);
+        for (int i = lexeme.hashCode() & mask; lexemes[i] != null; i = (i + 1) & mask) {
+            if (lexemes[i].equals(lexeme)) {
+                return valueAt(i);
+            }
+        }
+        return nullValue;
+    }
+
+    public T forLexeme(char[] chars, int offset, int length) {
+        for (int i = hash(chars, offset, length) & mask; lexemes[i] != null; i = (i + 1) & mask) {
+            if (matches(lexemes[i], chars, offset, length)) {
+                return valueAt(i);
+            }
+        }
+        return nullValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T valueAt(int index) {
+        return (T) values[index];
+    }
+
+    private void buildMap(T[] tokens) {
+        int capacity = Integer.highestOneBit(Math.max(tokens.length, 1) * 4);
+        lexemes = new String[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+
+        for (T token : tokens) {
+            put(token.getLexeme(), token);
+        }
+    }
+
+    private void put(String lexeme, T value) {
+        int i = lexeme.hashCode() & mask;
+        while (lexemes[i] != null && !lexemes[i].equals(lexeme)) {
+            i = (i + 1) & mask;
+        }
+        lexemes[i] = lexeme;
+        values[i] = value;
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // slice utilities. hash() agrees with String.hashCode().
+
+    public static int hash(char[] chars, int offset, int length) {
+        int result = 0;
+        for (int i = offset; i < offset + length; i++) {
+            result = 31 * result + chars[i];
+        }
+        return result;
     }
 
-    private void buildMap(T[] values) {
-        for (T token : values) {
-            lexemeToT.put(token.getLexeme(), token);
+    public static boolean matches(String string, char[] chars, int offset, int length) {
+        if (string.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (string.charAt(i) != chars[offset + i]) {
+                return false;
+            }
         }
+        return true;
     }
 }
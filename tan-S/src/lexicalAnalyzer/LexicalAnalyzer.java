@@ -5,7 +5,7 @@ import logging.TanLogger;
 
 import inputHandler.InputHandler;
 import inputHandler.LocatedChar;
-import inputHandler.LocatedCharStream;
+import inputHandler.PackedPosition;
 import inputHandler.PushbackCharStream;
 import tokens.CharToken;
 import tokens.FloatToken;
@@ -16,17 +16,46 @@ import tokens.NumberToken;
 import tokens.StringToken;
 import tokens.Token;
 
+import static lexicalAnalyzer.NumberScanningAids.*;
 import static lexicalAnalyzer.PunctuatorScanningAids.*;
 
 public class LexicalAnalyzer extends ScannerImp {
     public static LexicalAnalyzer make(String filename) {
-        InputHandler handler = InputHandler.fromFilename(filename);
+        InputHandler handler = InputHandler.mappedFromFilename(filename);
         PushbackCharStream charStream = PushbackCharStream.make(handler);
         return new LexicalAnalyzer(charStream);
     }
 
+    private final IdentifierPool identifierPool;
+    private final LexemeBuffer lexeme = new LexemeBuffer();
+    private TokenBuffer recording;
+
     public LexicalAnalyzer(PushbackCharStream input) {
+        this(input, new IdentifierPool());
+    }
+
+    public LexicalAnalyzer(PushbackCharStream input, IdentifierPool identifierPool) {
         super(input);
+        this.identifierPool = identifierPool;
+    }
+
+    public IdentifierPool getIdentifierPool() {
+        return identifierPool;
+    }
+
+    // scans one token into the buffer, recording a keyword or punctuator without making its Token.
+    // Used by TokenBuffer in place of next(); the two should not be mixed on one LexicalAnalyzer.
+    void scanInto(TokenBuffer buffer) {
+        int size = buffer.size();
+        recording = buffer;
+        try {
+            Token token = findNextToken();
+            if (buffer.size() == size) {
+                buffer.add(token);
+            }
+        } finally {
+            recording = null;
+        }
     }
 
 
@@ -35,180 +64,209 @@ public class LexicalAnalyzer extends ScannerImp {
 
     @Override
     protected Token findNextToken() {
-        LocatedChar ch = nextNonWhitespaceChar();
-        if (ch.isDigit()) {
-            try {
-                return scanNumber(ch);
-            } catch (NumberFormatException e) {
-                lexicalError(ch, "integer too large for an int.");
-                return findNextToken();
-            } catch (IllegalArgumentException e) {
-                lexicalError(ch, e.getMessage());
-                return findNextToken();
-            }
-        } else if (ch.isIdentifierLeadingChar()) {
-            return scanIdentifier(ch);
+        char ch = nextNonWhitespaceChar();
+        long start = input.position();
+        if (Character.isDigit(ch)) {
+            return scanNumber(ch, start);
+        } else if (LocatedChar.isIdentifierLeadingChar(ch)) {
+            return scanIdentifier(ch, start);
         } else if (isPunctuatorStart(ch)) {
-            return PunctuatorScanner.scan(ch, input);
-        } else if (ch.isChar('#')) {
+            return scanPunctuator(ch, start);
+        } else if (ch == '#') {
             skipComment();
             return findNextToken();
-        } else if (ch.isChar('\'')) {
-            StringBuffer sb = new StringBuffer();
-            sb.append(ch.getCharacter());
-            LocatedChar lc = input.next();
-            char c = lc.getCharacter();
+        } else if (ch == '\'') {
+            LexemeBuffer buffer = lexeme.clear().append(ch);
+            char c = input.nextChar();
+            long cPosition = input.position();
             if (c < 32 || c > 126) {
-                lexicalError(lc);
-                input.pushback(lc);
-                return NullToken.make(lc);
+                lexicalError(c, cPosition);
+                input.pushback(c, cPosition);
+                return NullToken.make(input.locationOf(cPosition));
             }
-            sb.append(c);
-            LocatedChar closeQuote = input.next();
-            if (!closeQuote.isChar('\'')) {
-                lexicalError(closeQuote);
-                input.pushback(closeQuote);
-                input.pushback(lc);
-                return NullToken.make(closeQuote);
+            buffer.append(c);
+            char closeQuote = input.nextChar();
+            long closeQuotePosition = input.position();
+            if (closeQuote != '\'') {
+                lexicalError(closeQuote, closeQuotePosition);
+                input.pushback(closeQuote, closeQuotePosition);
+                input.pushback(c, cPosition);
+                return NullToken.make(input.locationOf(closeQuotePosition));
             }
-            sb.append(closeQuote.getCharacter());
-            return CharToken.make(ch, sb.toString());
-        } else if (ch.isChar('%')) {
-            StringBuffer sb = new StringBuffer();
-            sb.append(ch.getCharacter());
+            buffer.append(closeQuote);
+            return CharToken.make(input.locationOf(start), buffer.toString());
+        } else if (ch == '%') {
+            LexemeBuffer buffer = lexeme.clear().append(ch);
             for (int i = 0; i < 3; i++) {
-                LocatedChar lc = input.next();
-                char c = lc.getCharacter();
+                char c = input.nextChar();
                 if (c < '0' || c > '7') {
-                    lexicalError(lc);
-                    return NullToken.make(lc);
+                    lexicalError(c, input.position());
+                    return NullToken.make(input.locationOf(input.position()));
                 }
-                sb.append(c);
+                buffer.append(c);
             }
-            int value = Integer.parseInt(sb.substring(1).toString(), 8);
+            int value = octalValue(buffer);
             if (value > 127) {
-                lexicalError(ch, "Octal escape sequence out of range");
-                return NullToken.make(ch);
+                lexicalError(ch, start, "Octal escape sequence out of range");
+                return NullToken.make(input.locationOf(start));
             }
-            return CharToken.make(ch, sb.toString());
-        } else if (ch.isChar('"')) {
-            StringBuffer sb = new StringBuffer();
-            sb.append(ch.getCharacter());
-            LocatedChar lc = input.next();
-            while (!lc.isChar('"') && !lc.isChar('\n')) {
-                sb.append(lc.getCharacter());
-                lc = input.next();
+            return CharToken.make(input.locationOf(start), buffer.toString());
+        } else if (ch == '"') {
+            LexemeBuffer buffer = lexeme.clear().append(ch);
+            char c = input.nextChar();
+            while (c != '"' && c != '\n') {
+                buffer.append(c);
+                c = input.nextChar();
             }
-            if (lc.isChar('\n')) {
-                lexicalError(lc);
-                return NullToken.make(lc);
+            if (c == '\n') {
+                lexicalError(c, input.position());
+                return NullToken.make(input.locationOf(input.position()));
             }
-            sb.append(lc.getCharacter());
-            return StringToken.make(ch, sb.toString());
-        } else if (isEndOfInput(ch)) {
-            return NullToken.make(ch);
+            buffer.append(c);
+            return StringToken.make(input.locationOf(start), buffer.toString());
+        } else if (isEndOfInput(start)) {
+            return NullToken.make(input.locationOf(start));
         } else {
-            lexicalError(ch);
+            lexicalError(ch, start);
             return findNextToken();
         }
     }
 
     private void skipComment() {
-        LocatedChar ch = input.next();
-        while (!isEndOfInput(ch) && !ch.isChar('#') && !ch.isChar('\n')) {
-            ch = input.next();
+        char ch = input.nextChar();
+        while (!isEndOfInput(input.position()) && ch != '#' && ch != '\n') {
+            ch = input.nextChar();
         }
     }
 
-    private LocatedChar nextNonWhitespaceChar() {
-        LocatedChar ch = input.next();
-        while (ch.isWhitespace()) {
-            ch = input.next();
+    private char nextNonWhitespaceChar() {
+        char ch = input.nextChar();
+        while (Character.isWhitespace(ch)) {
+            ch = input.nextChar();
         }
         return ch;
     }
 
 
     //////////////////////////////////////////////////////////////////////////////
-    // Integer lexical analysis
+    // Number lexical analysis
+    // The value is converted from the lexeme in place; see NumberScanningAids.
+    // A literal too large for its type is reported, and scanning goes on after it.
 
-    private Token scanNumber(LocatedChar firstChar) {
-        StringBuffer buffer = new StringBuffer();
-        buffer.append(firstChar.getCharacter());
+    private Token scanNumber(char firstChar, long start) {
+        LexemeBuffer buffer = lexeme.clear().append(firstChar);
         appendSubsequentDigits(buffer);
-        LocatedChar lc = input.next();
-        if (!lc.isChar('.')) {
-            input.pushback(lc);
-            return NumberToken.make(firstChar, buffer.toString());
+        if (input.peekChar() != '.') {
+            return intToken(buffer, firstChar, start);
         }
-        buffer.append(lc.getCharacter());
-        lc = input.peek();
+        buffer.append(input.nextChar());
+        char c = input.peekChar();
         // // number after decimal point is not optional
-        if (!lc.isDigit()) {
-            lexicalError(lc);
-            return NullToken.make(lc);
+        if (!Character.isDigit(c)) {
+            return peekedCharError(c);
         }
         appendSubsequentDigits(buffer);
-        lc = input.next();
-        if (!lc.isChar('e') && !lc.isChar('E')) {
-            input.pushback(lc);
-            return FloatToken.make(firstChar, buffer.toString());
+        c = input.peekChar();
+        if (c != 'e' && c != 'E') {
+            return floatToken(buffer, firstChar, start);
         }
-        buffer.append(lc.getCharacter());
-        lc = input.next();
-        if (!lc.isChar('+') && !lc.isChar('-')) {
-            input.pushback(lc);
-            lexicalError(lc);
-            return NullToken.make(lc);
+        buffer.append(input.nextChar());
+        c = input.peekChar();
+        if (c != '+' && c != '-') {
+            return peekedCharError(c);
         }
-        buffer.append(lc.getCharacter()); // +/-
-        lc = input.peek();
-        if (!lc.isDigit()) {
-            lexicalError(lc);
-            return NullToken.make(lc);
+        buffer.append(input.nextChar()); // +/-
+        c = input.peekChar();
+        if (!Character.isDigit(c)) {
+            return peekedCharError(c);
         }
         appendSubsequentDigits(buffer);
-        return FloatToken.make(firstChar, buffer.toString());
+        return floatToken(buffer, firstChar, start);
     }
 
-    private void appendSubsequentDigits(StringBuffer buffer) {
-        LocatedChar c = input.next();
-        while (c.isDigit()) {
-            buffer.append(c.getCharacter());
-            c = input.next();
+    private Token intToken(LexemeBuffer buffer, char firstChar, long start) {
+        long value = intValue(buffer.chars(), 0, buffer.length());
+        if (value == INT_OVERFLOW) {
+            lexicalError(firstChar, start, "integer too large for an int.");
+            return findNextToken();
         }
-        input.pushback(c);
+        return NumberToken.make(input.locationOf(start), buffer.toString(), (int) value);
+    }
+
+    private Token floatToken(LexemeBuffer buffer, char firstChar, long start) {
+        double value = floatValue(buffer.chars(), 0, buffer.length());
+        if (Double.isInfinite(value)) {
+            lexicalError(firstChar, start, FloatToken.TOO_LARGE_MESSAGE);
+            return findNextToken();
+        }
+        return FloatToken.make(input.locationOf(start), buffer.toString(), value);
+    }
+
+    private void appendSubsequentDigits(LexemeBuffer buffer) {
+        while (Character.isDigit(input.peekChar())) {
+            buffer.append(input.nextChar());
+        }
+    }
+
+    private int octalValue(LexemeBuffer buffer) {
+        int value = 0;
+        for (int i = 1; i < buffer.length(); i++) {
+            value = value * 8 + (buffer.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private Token peekedCharError(char c) {
+        long position = input.peekPosition();
+        lexicalError(c, position);
+        return NullToken.make(input.locationOf(position));
     }
 
 
     //////////////////////////////////////////////////////////////////////////////
     // Identifier and keyword lexical analysis
 
-    private Token scanIdentifier(LocatedChar firstChar) {
-        StringBuffer buffer = new StringBuffer();
-        buffer.append(firstChar.getCharacter());
+    private Token scanIdentifier(char firstChar, long start) {
+        LexemeBuffer buffer = lexeme.clear().append(firstChar);
         appendSubsequentIdentifierChars(buffer);
 
-        String lexeme = buffer.toString();
-        if (Keyword.isAKeyword(lexeme)) {
-            return LextantToken.make(firstChar, lexeme, Keyword.forLexeme(lexeme));
+        Keyword keyword = Keyword.forLexeme(buffer.chars(), 0, buffer.length());
+        if (keyword != Keyword.NULL_KEYWORD) {
+            return lextantToken(keyword, start);
         } else {
-            return IdentifierToken.make(firstChar, lexeme);
+            int symbolId = identifierPool.intern(buffer.chars(), 0, buffer.length());
+            return IdentifierToken.make(input.locationOf(start), identifierPool, symbolId);
         }
     }
 
-    private void appendSubsequentIdentifierChars(StringBuffer buffer) {
-        LocatedChar c = input.next();
-        while (c.isIdentifierTailingChar()) {
-            buffer.append(c.getCharacter());
-            c = input.next();
+    private void appendSubsequentIdentifierChars(LexemeBuffer buffer) {
+        while (LocatedChar.isIdentifierTailingChar(input.peekChar())) {
+            buffer.append(input.nextChar());
         }
-        input.pushback(c);
     }
 
 
     //////////////////////////////////////////////////////////////////////////////
     // Punctuator lexical analysis
+
+    private Token scanPunctuator(char firstChar, long start) {
+        Punctuator punctuator = PunctuatorScanner.scan(firstChar, start, input);
+        if (punctuator == Punctuator.NULL_PUNCTUATOR) {
+            return NullToken.make(input.locationOf(start));
+        }
+        return lextantToken(punctuator, start);
+    }
+
+    // when recording into a TokenBuffer, the lextant goes into the buffer and the prototype
+    // is returned in place of a Token.
+    private Token lextantToken(Lextant lextant, long start) {
+        if (recording != null) {
+            recording.addLextant(lextant, start);
+            return lextant.prototype();
+        }
+        return LextantToken.make(input.locationOf(start), lextant.getLexeme(), lextant);
+    }
+
     // old method left in to show a simple scanning method.
     // current method is the algorithm object PunctuatorScanner.java
 
@@ -244,26 +302,37 @@ public class LexicalAnalyzer extends ScannerImp {
     //////////////////////////////////////////////////////////////////////////////
     // Character-classification routines specific to tan scanning.
 
-    private boolean isPunctuatorStart(LocatedChar lc) {
-        char c = lc.getCharacter();
+    private boolean isPunctuatorStart(char c) {
         return isPunctuatorStartingCharacter(c);
     }
 
-    private boolean isEndOfInput(LocatedChar lc) {
-        return lc == LocatedCharStream.FLAG_END_OF_INPUT;
+    private boolean isEndOfInput(long position) {
+        return PackedPosition.isEndOfInput(position);
     }
 
     //////////////////////////////////////////////////////////////////////////////
     // Error-reporting
 
     private void lexicalError(LocatedChar ch) {
-        TanLogger log = TanLogger.getLogger("compiler.lexicalAnalyzer");
-        log.severe("Lexical error: invalid character " + ch);
+        reportError("Lexical error: invalid character " + ch);
     }
 
     private void lexicalError(LocatedChar ch, String message) {
+        reportError(message + " at " + ch);
+    }
+
+    private void lexicalError(char c, long position) {
+        lexicalError(input.locatedChar(c, position));
+    }
+
+    private void lexicalError(char c, long position, String message) {
+        lexicalError(input.locatedChar(c, position), message);
+    }
+
+    // all lexical errors are reported here; overridden by ParallelLexicalAnalyzer's chunk scanners.
+    protected void reportError(String message) {
         TanLogger log = TanLogger.getLogger("compiler.lexicalAnalyzer");
-        log.severe(message + " at " + ch);
+        log.severe(message);
     }
 
 }
@@ -0,0 +1,111 @@
+package lexicalAnalyzer;
+
+/**
+ * Conversions of the lexemes of numeric literals, read in place from a char array, to their values.
+ * <p>
+ * An integer lexeme is a run of decimal digits. A float lexeme is digits, a decimal point, digits,
+ * and optionally an exponent of 'e' or 'E', a sign, and digits; the LexicalAnalyzer accepts no
+ * other forms.
+ * <p>
+ * A float whose significant digits fit in 53 bits and whose decimal exponent is at most 22 in size
+ * is converted with one multiplication or division by an exactly representable power of ten,
+ * which is correctly rounded. Any other float is handed to Double.parseDouble.
+ */
+public final class NumberScanningAids {
+    public static final long INT_OVERFLOW = -1;
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_EXACT_POWER_OF_TEN = 22;
+    private static final int MAX_EXPONENT = 100000;
+    private static final double[] POWERS_OF_TEN = makePowersOfTen();
+
+    private NumberScanningAids() {}
+
+    private static double[] makePowersOfTen() {
+        double[] result = new double[MAX_EXACT_POWER_OF_TEN + 1];
+        result[0] = 1.0;
+        for (int i = 1; i < result.length; i++) {
+            result[i] = result[i - 1] * 10;
+        }
+        return result;
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // integers
+
+    // the value of the digits, or INT_OVERFLOW if it is larger than Integer.MAX_VALUE.
+    public static long intValue(char[] chars, int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = value * 10 + (chars[i] - '0');
+            if (value > Integer.MAX_VALUE) {
+                return INT_OVERFLOW;
+            }
+        }
+        return value;
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // floats
+
+    public static double floatValue(char[] chars, int offset, int length) {
+        int end = offset + length;
+        long mantissa = 0;
+        int exponent = 0;
+        boolean inFraction = false;
+
+        int i = offset;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c == '.') {
+                inFraction = true;
+                continue;
+            }
+            if (c == 'e' || c == 'E') {
+                break;
+            }
+            if (mantissa >= MAX_EXACT_MANTISSA / 10) {
+                return slowFloatValue(chars, offset, length);
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            if (inFraction) {
+                exponent--;
+            }
+        }
+        if (i < end) {
+            int explicitExponent = exponentValue(chars, i + 1, end);
+            if (explicitExponent == Integer.MIN_VALUE) {
+                return slowFloatValue(chars, offset, length);
+            }
+            exponent += explicitExponent;
+        }
+
+        if (exponent < -MAX_EXACT_POWER_OF_TEN || exponent > MAX_EXACT_POWER_OF_TEN) {
+            return slowFloatValue(chars, offset, length);
+        }
+        if (exponent < 0) {
+            return mantissa / POWERS_OF_TEN[-exponent];
+        }
+        return mantissa * POWERS_OF_TEN[exponent];
+    }
+
+    // the signed exponent starting at the sign at chars[start], or Integer.MIN_VALUE once it is
+    // far beyond any exponent a double can have.
+    private static int exponentValue(char[] chars, int start, int end) {
+        boolean negative = chars[start] == '-';
+        int value = 0;
+        for (int i = start + 1; i < end; i++) {
+            value = value * 10 + (chars[i] - '0');
+            if (value > MAX_EXPONENT) {
+                return Integer.MIN_VALUE;
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    private static double slowFloatValue(char[] chars, int offset, int length) {
+        return Double.parseDouble(new String(chars, offset, length));
+    }
+}
@@ -0,0 +1,244 @@
+package lexicalAnalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import inputHandler.InputHandler;
+import inputHandler.MappedFileInputHandler;
+import inputHandler.PushbackCharStream;
+import tokens.IdentifierToken;
+import tokens.NullToken;
+import tokens.Token;
+
+/**
+ * A Scanner that lexes one file on several cores. Use the factory <code>make(...)</code>, which
+ * gives an ordinary LexicalAnalyzer for files too small to be worth splitting.
+ * <p>
+ * No tan token, comment, or lexical error spans a line terminator, so the file is cut into chunks
+ * of whole lines and each chunk is lexed separately, in a ForkJoinPool, into an array of tokens.
+ * The chunks' identifiers are then renumbered into one IdentifierPool for the file, whose String
+ * for each spelling replaces the chunk's, and the arrays are handed out in order.
+ * <p>
+ * The tokens handed out are the ones a LexicalAnalyzer would give for the whole file. Lexical
+ * errors found by the chunk scanners are held back and logged at the point where a LexicalAnalyzer
+ * would have logged them, so errors in text the parser never asks for are never logged.
+ */
+public class ParallelLexicalAnalyzer implements Scanner {
+    public static final int MINIMUM_PARALLEL_LINES = 20000;
+    public static final int LINES_PER_CHUNK = 4096;
+
+    private Chunk[] chunks;
+    private IdentifierPool identifierPool;
+
+    private int chunkIndex;
+    private int tokenIndex;
+    private Token nextToken;
+
+
+    public static Scanner make(String filename) {
+        MappedFileInputHandler handler = InputHandler.mappedFromFilename(filename);
+        if (handler.lineCount() < MINIMUM_PARALLEL_LINES) {
+            return new LexicalAnalyzer(PushbackCharStream.make(handler));
+        }
+        return new ParallelLexicalAnalyzer(handler, LINES_PER_CHUNK, ForkJoinPool.commonPool());
+    }
+
+    public ParallelLexicalAnalyzer(MappedFileInputHandler handler, int linesPerChunk,
+            ForkJoinPool pool) {
+        chunks = makeChunks(handler, linesPerChunk);
+        pool.invoke(new ChunkTask(chunks, 0, chunks.length, ChunkTask.LEX));
+
+        identifierPool = new IdentifierPool();
+        for (Chunk chunk : chunks) {
+            chunk.makeGlobalIds(identifierPool);
+        }
+        pool.invoke(new ChunkTask(chunks, 0, chunks.length, ChunkTask.RENUMBER));
+
+        chunkIndex = 0;
+        tokenIndex = -1;
+    }
+
+    public IdentifierPool getIdentifierPool() {
+        return identifierPool;
+    }
+
+    private static Chunk[] makeChunks(MappedFileInputHandler handler, int linesPerChunk) {
+        int lineCount = handler.lineCount();
+        int numChunks = Math.max(1, (lineCount + linesPerChunk - 1) / linesPerChunk);
+
+        Chunk[] result = new Chunk[numChunks];
+        for (int i = 0; i < numChunks; i++) {
+            int firstLine = 1 + i * linesPerChunk;
+            int endLine = Math.min(firstLine + linesPerChunk, lineCount + 1);
+            result[i] = new Chunk(handler, firstLine, endLine, i == numChunks - 1);
+        }
+        return result;
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // Iterator<Token> implementation, following ScannerImp.
+    // At the end of the last chunk (or of a chunk that got stuck) the last token is repeated.
+
+    @Override
+    public boolean hasNext() {
+        preloadFirstToken();
+        return !(nextToken instanceof NullToken);
+    }
+
+    @Override
+    public Token next() {
+        preloadFirstToken();
+        Token result = nextToken;
+        advance();
+        return result;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    private void preloadFirstToken() {
+        if (nextToken == null) {
+            advance();
+        }
+    }
+
+    private void advance() {
+        tokenIndex++;
+        while (tokenIndex == chunks[chunkIndex].tokens.length) {
+            Chunk chunk = chunks[chunkIndex];
+            if (chunk.isStuck || chunk.isLast) {
+                tokenIndex--;
+                return;
+            }
+            ChunkScanner.reportErrors(chunk.trailingMessages);
+            chunkIndex++;
+            tokenIndex = 0;
+        }
+        ChunkScanner.reportErrors(chunks[chunkIndex].messages[tokenIndex]);
+        nextToken = chunks[chunkIndex].tokens[tokenIndex];
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // Chunk: a range of lines and the tokens lexed from them.
+    // messages[i] are the errors logged while finding tokens[i]; trailingMessages are those
+    // logged while reaching the end of the chunk. A chunk is stuck if its scanner stopped
+    // advancing, returning the same NullToken over and over.
+
+    private static class Chunk {
+        private final MappedFileInputHandler handler;
+        private final int firstLine;
+        private final int endLine;
+        private final boolean isLast;
+
+        private Token[] tokens;
+        private String[][] messages;
+        private String[] trailingMessages;
+        private boolean isStuck;
+        private IdentifierPool identifiers;
+        private IdentifierPool globalIdentifiers;
+        private int[] globalIds;
+
+        Chunk(MappedFileInputHandler handler, int firstLine, int endLine, boolean isLast) {
+            this.handler = handler;
+            this.firstLine = firstLine;
+            this.endLine = endLine;
+            this.isLast = isLast;
+        }
+
+        void lex() {
+            identifiers = new IdentifierPool();
+            ChunkScanner scanner = new ChunkScanner(
+                    PushbackCharStream.make(handler, firstLine, endLine), identifiers);
+            List<Token> tokenList = new ArrayList<Token>();
+            List<String[]> messageList = new ArrayList<String[]>();
+
+            Token previous = null;
+            while (true) {
+                Token token = scanner.findNextToken();
+                String[] tokenMessages = scanner.takeMessages();
+                if (ChunkScanner.isEndOfInput(token) && !isLast) {
+                    trailingMessages = tokenMessages;
+                    break;
+                }
+                if (ChunkScanner.isRepeatedNullToken(previous, token)) {
+                    isStuck = true;
+                    break;
+                }
+                tokenList.add(token);
+                messageList.add(tokenMessages);
+                if (ChunkScanner.isEndOfInput(token)) {
+                    break;
+                }
+                previous = token;
+            }
+            tokens = tokenList.toArray(new Token[tokenList.size()]);
+            messages = messageList.toArray(new String[messageList.size()][]);
+        }
+
+        void makeGlobalIds(IdentifierPool pool) {
+            globalIdentifiers = pool;
+            globalIds = new int[identifiers.size()];
+            for (int id = 0; id < globalIds.length; id++) {
+                globalIds[id] = pool.intern(identifiers.spelling(id));
+            }
+        }
+
+        void renumber() {
+            for (int i = 0; i < tokens.length; i++) {
+                if (tokens[i] instanceof IdentifierToken) {
+                    IdentifierToken token = (IdentifierToken) tokens[i];
+                    int globalId = globalIds[token.getSymbolId()];
+                    if (globalId != token.getSymbolId()
+                            || token.getLexeme() != globalIdentifiers.spelling(globalId)) {
+                        tokens[i] = IdentifierToken.make(token.getLocation(), globalIdentifiers,
+                                globalId);
+                    }
+                }
+            }
+        }
+
+    }
+
+    // lexes, or renumbers the identifiers of, a range of chunks, splitting it in halves.
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        static final int LEX = 0;
+        static final int RENUMBER = 1;
+
+        private final Chunk[] chunks;
+        private final int start;
+        private final int end;
+        private final int phase;
+
+        ChunkTask(Chunk[] chunks, int start, int end, int phase) {
+            this.chunks = chunks;
+            this.start = start;
+            this.end = end;
+            this.phase = phase;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > 1) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new ChunkTask(chunks, start, middle, phase),
+                        new ChunkTask(chunks, middle, end, phase));
+                return;
+            }
+            if (end - start == 1) {
+                Chunk chunk = chunks[start];
+                if (phase == LEX) {
+                    chunk.lex();
+                } else {
+                    chunk.renumber();
+                }
+            }
+        }
+    }
+}
@@ -1,63 +1,72 @@
 package lexicalAnalyzer;
 
-import static lexicalAnalyzer.PunctuatorScanningAids.punctuatorSetForPrefix;
-import inputHandler.LocatedChar;
+import static lexicalAnalyzer.PunctuatorScanningAids.*;
 import inputHandler.PushbackCharStream;
 
-import java.util.Set;
-
-import tokens.Token;
-
 /**
  * Algorithm object to scan to find a punctuator. Invoke only on a character that can start a
  * punctuator lexeme.
  * <p>
- * PunctuatorScanner will grab input characters as long as it as seen a punctuator lexeme prefix. If
- * it discovers that it has taken input that is not such a prefix, it backtracks (possibly multiple
- * characters) until it matches a punctuator.
+ * PunctuatorScanner runs the automaton of PunctuatorScanningAids over the characters following the
+ * starting character, peeking rather than consuming them, for as long as it has seen a punctuator
+ * lexeme prefix. It then takes the longest punctuator it passed through, so input that turns out
+ * not to continue a punctuator is never consumed. It also stops early once only one punctuator has
+ * the prefix seen.
  * <p>
- * If it cannot find a punctuator starting with the given starting character, it returns a NullToken
- * at the startingCharacter's location.
+ * It returns the Punctuator found, leaving the making of a token to the caller. If it cannot find
+ * a punctuator starting with the given starting character, it pushes that character back and
+ * returns NULL_PUNCTUATOR.
  * <p>
  * PunctuatorScanner uses information derived from the lexeme fields of the enum constants of
- * Punctuator, and should work regardless of what the set of constants in Punctuator is. Part of
- * derived information is in PunctuatorScanningAids.java, part is in Punctuator itself.
+ * Punctuator, and should work regardless of what the set of constants in Punctuator is. The
+ * derived information is in PunctuatorScanningAids.java.
  */
 public class PunctuatorScanner {
     private PushbackCharStream input;
-    private PartiallyScannedPunctuator scanned;
+    private char startingChar;
+    private long startingPosition;
 
-    public static Token scan(LocatedChar startingCharacter, PushbackCharStream input) {
-        PunctuatorScanner scanner = new PunctuatorScanner(startingCharacter, input);
+    public static Punctuator scan(char startingChar, long startingPosition, PushbackCharStream input) {
+        PunctuatorScanner scanner = new PunctuatorScanner(startingChar, startingPosition, input);
         return scanner.scanPunctuator();
     }
 
-    private PunctuatorScanner(LocatedChar startingCharacter, PushbackCharStream input) {
+    private PunctuatorScanner(char startingChar, long startingPosition, PushbackCharStream input) {
         this.input = input;
-
-        scanned = new PartiallyScannedPunctuator(startingCharacter);
+        this.startingChar = startingChar;
+        this.startingPosition = startingPosition;
     }
 
-    private Token scanPunctuator() {
-        Set<Punctuator> punctuators = punctuatorSetForPrefix(scanned.asString());
+    private Punctuator scanPunctuator() {
+        int state = nextState(START_STATE, startingChar);
+        assert state != NO_STATE;
 
-        if (punctuators.size() == 1 && scanned.isPunctuator()) {
-            return scanned.asToken();
+        int matchedState = NO_STATE;
+        int matchedLookahead = 0;
+        int lookahead = 0;
+        while (true) {
+            if (isAccepting(state)) {
+                matchedState = state;
+                matchedLookahead = lookahead;
+                if (isUniquePrefix(state)) {
+                    break;
+                }
+            }
+            int next = nextState(state, input.peekChar(lookahead));
+            if (next == NO_STATE) {
+                break;
+            }
+            state = next;
+            lookahead++;
         }
 
-        if (punctuators.isEmpty() || !input.hasNext()) {
-            backupToLastPunctuatorPrefix();
-            return scanned.asToken();
+        if (matchedState == NO_STATE) {
+            input.pushback(startingChar, startingPosition);
+            return Punctuator.NULL_PUNCTUATOR;
         }
-
-        scanned.add(input.next());
-        return scanPunctuator();
-    }
-
-    private void backupToLastPunctuatorPrefix() {
-        while (!scanned.isPunctuator() && !scanned.isEmpty()) {
-            LocatedChar lc = scanned.chopTail();
-            input.pushback(lc);
+        for (int i = 0; i < matchedLookahead; i++) {
+            input.nextChar();
         }
+        return punctuatorForState(matchedState);
     }
 }
@@ -1,111 +1,107 @@
 package lexicalAnalyzer;
 
-import java.util.Collections;
-import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
-
-
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * A deterministic finite automaton recognizing punctuator lexemes, built once from the constants of
+ * Punctuator.
+ * <p>
+ * There is one state for each nonempty prefix of a punctuator lexeme, plus START_STATE for the
+ * empty prefix. <code>nextState(state, c)</code> gives the state for the prefix extended by c, or
+ * NO_STATE if that is not a prefix of any punctuator lexeme. Only characters below ALPHABET_SIZE
+ * have transitions; all punctuator lexemes are ASCII.
+ */
 public class PunctuatorScanningAids {
-    private static Set<Character> punctuatorStartingCharacters = new HashSet<Character>();
-    private static Map<String, Set<Punctuator>> punctuatorsHavingPrefix =
-            new HashMap<String, Set<Punctuator>>();
-    private static final Set<Punctuator> emptyPunctuatorSet =
-            Collections.unmodifiableSet(EnumSet.noneOf(Punctuator.class));
+    public static final int START_STATE = 0;
+    public static final int NO_STATE = -1;
+    private static final int ALPHABET_SIZE = 128;
+
+    private static int[][] transitions;
+    private static Punctuator[] punctuatorForState;
+    private static int[] numPunctuatorsHavingPrefix;
     static {
-        makeStartingCharacters();
-        makePunctuatorsHavingPrefix();
+        makeTransitionTable();
     }
 
     //////////////////////////////////////////////////////////////////////////////
     // public static interface
 
-    public static boolean isPunctuatorStartingCharacter(Character c) {
-        return punctuatorStartingCharacters.contains(c);
+    public static boolean isPunctuatorStartingCharacter(char c) {
+        return nextState(START_STATE, c) != NO_STATE;
     }
 
-    public static Set<Punctuator> punctuatorSetForPrefix(String prefix) {
-        if (punctuatorsHavingPrefix.containsKey(prefix)) {
-            return punctuatorsHavingPrefix.get(prefix);
-        } else {
-            return emptyPunctuatorSet;
+    public static int nextState(int state, char c) {
+        if (c >= ALPHABET_SIZE) {
+            return NO_STATE;
         }
+        return transitions[state][c];
     }
 
-    //////////////////////////////////////////////////////////////////////////////
-    // creation of startingCharacters
+    // the punctuator whose whole lexeme is this state's prefix, or NULL_PUNCTUATOR.
+    public static Punctuator punctuatorForState(int state) {
+        return punctuatorForState[state];
+    }
 
-    static private void makeStartingCharacters() {
-        for (Punctuator p : Punctuator.values()) {
-            String lexeme = p.getLexeme();
-            if (!lexeme.isEmpty()) {
-                punctuatorStartingCharacters.add(lexeme.charAt(0));
-            }
-        }
-        punctuatorStartingCharacters = Collections.unmodifiableSet(punctuatorStartingCharacters);
+    public static boolean isAccepting(int state) {
+        return punctuatorForState[state] != Punctuator.NULL_PUNCTUATOR;
     }
 
+    // true if only one punctuator has this state's prefix, so no longer match is possible.
+    public static boolean isUniquePrefix(int state) {
+        return numPunctuatorsHavingPrefix[state] == 1;
+    }
 
     //////////////////////////////////////////////////////////////////////////////
-    // creation of prefix map
+    // creation of the transition table
+
+    private static void makeTransitionTable() {
+        List<int[]> rows = new ArrayList<int[]>();
+        List<Punctuator> accepted = new ArrayList<Punctuator>();
+        List<Integer> counts = new ArrayList<Integer>();
+        addState(rows, accepted, counts);
 
-    private static void makePunctuatorsHavingPrefix() {
         for (Punctuator p : Punctuator.values()) {
-            addAllPrefixesToMap(p);
+            addLexeme(p, rows, accepted, counts);
         }
-        makeAllMapEntriesconstutable();
-    }
-
-    private static void addAllPrefixesToMap(Punctuator punctuator) {
-        String lexeme = punctuator.getLexeme();
 
-        for (String prefix : allNonemptyPrefixes(lexeme)) {
-            addPrefixToMap(prefix.intern(), punctuator);
+        transitions = rows.toArray(new int[rows.size()][]);
+        punctuatorForState = accepted.toArray(new Punctuator[accepted.size()]);
+        numPunctuatorsHavingPrefix = new int[counts.size()];
+        for (int state = 0; state < counts.size(); state++) {
+            numPunctuatorsHavingPrefix[state] = counts.get(state);
         }
     }
 
-    private static void addPrefixToMap(String prefix, Punctuator punctuator) {
-        Set<Punctuator> setForThisPrefix = mutablePunctuatorSetForPrefix(prefix);
-        setForThisPrefix.add(punctuator);
-    }
-
-    private static Set<Punctuator> mutablePunctuatorSetForPrefix(String prefix) {
-        if (punctuatorsHavingPrefix.containsKey(prefix)) {
-            return punctuatorsHavingPrefix.get(prefix);
-        } else {
-            EnumSet<Punctuator> emptySet = EnumSet.noneOf(Punctuator.class);
-            punctuatorsHavingPrefix.put(prefix, emptySet);
-            return emptySet;
+    private static void addLexeme(Punctuator punctuator, List<int[]> rows,
+            List<Punctuator> accepted, List<Integer> counts) {
+        String lexeme = punctuator.getLexeme();
+        if (lexeme.isEmpty()) {
+            return;
         }
-    }
 
-
-    private static void makeAllMapEntriesconstutable() {
-        for (Entry<String, Set<Punctuator>> entry : punctuatorsHavingPrefix.entrySet()) {
-            replaceValueWithconstutableValue(entry);
+        int state = START_STATE;
+        for (int i = 0; i < lexeme.length(); i++) {
+            char c = lexeme.charAt(i);
+            assert c < ALPHABET_SIZE : "non-ASCII punctuator lexeme " + lexeme;
+            if (rows.get(state)[c] == NO_STATE) {
+                rows.get(state)[c] = addState(rows, accepted, counts);
+            }
+            state = rows.get(state)[c];
+            counts.set(state, counts.get(state) + 1);
         }
+        accepted.set(state, punctuator);
     }
 
-    private static void replaceValueWithconstutableValue(Entry<String, Set<Punctuator>> entry) {
-        Set<Punctuator> value = entry.getValue();
-        Set<Punctuator> unmodifiableSet = Collections.unmodifiableSet(value);
-        entry.setValue(unmodifiableSet);
-    }
-
-
-    //////////////////////////////////////////////////////////////////////////////
-    // string utility
-
-    private static String[] allNonemptyPrefixes(String string) {
-        String[] result = new String[string.length()];
-
-        for (int length = 1; length <= string.length(); length++) {
-            result[length - 1] = string.substring(0, length);
-        }
-        return result;
+    private static int addState(List<int[]> rows, List<Punctuator> accepted, List<Integer> counts) {
+        int[] row = new int[ALPHABET_SIZE];
+        Arrays.fill(row, NO_STATE);
+        rows.add(row);
+        accepted.add(Punctuator.NULL_PUNCTUATOR);
+        counts.add(0);
+        return rows.size() - 1;
     }
 
 }
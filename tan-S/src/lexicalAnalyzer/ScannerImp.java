@@ -13,17 +13,26 @@ public abstract class ScannerImp implements Scanner {
     public ScannerImp(PushbackCharStream input) {
         super();
         this.input = input;
-        nextToken = findNextToken();
+    }
+
+    // the first token is found on first use rather than in the constructor, so that
+    // subclass fields are initialized before findNextToken() runs.
+    private void preloadFirstToken() {
+        if (nextToken == null) {
+            nextToken = findNextToken();
+        }
     }
 
     // Iterator<Token> implementation
     @Override
     public boolean hasNext() {
+        preloadFirstToken();
         return !(nextToken instanceof NullToken);
     }
 
     @Override
     public Token next() {
+        preloadFirstToken();
         Token result = nextToken;
         nextToken = findNextToken();
         return result;
@@ -0,0 +1,395 @@
+package lexicalAnalyzer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import inputHandler.LocatedCharStream;
+import inputHandler.PackedPosition;
+import logging.TanLogger;
+import logging.TanLogger.HeldMessages;
+import tokens.CharToken;
+import tokens.FloatToken;
+import tokens.IdentifierToken;
+import tokens.LextantToken;
+import tokens.NullToken;
+import tokens.NumberToken;
+import tokens.StringToken;
+import tokens.Token;
+
+/**
+ * The tokens of one Scanner, held as parallel arrays and read by index. Use the factory
+ * <code>make(scanner)</code>; the buffer is filled from the scanner as the indices are asked for.
+ * <p>
+ * Each token has a kind and a PackedPosition. Keywords and punctuators also have a lextant code,
+ * and are held as nothing more: a LexicalAnalyzer records them into the buffer without making a
+ * Token, and <code>token(index)</code> makes one only when a parse node or a diagnostic needs it.
+ * Identifiers and literals, whose Tokens carry their values, are held as the Tokens the scanner made.
+ * <p>
+ * Past the last token scanned (the end-of-input NullToken), every index reads as that last token.
+ * A LexicalAnalyzer is kept one token ahead of the highest index asked for, as ScannerImp keeps
+ * itself one token ahead of <code>next()</code>, so lexical errors are logged at the same points
+ * either way.
+ * <p>
+ * Tokens may be scanned ahead of the parser, as to check a whole file before parsing it. Between
+ * <code>startHoldingMessages()</code> and <code>stopHoldingMessages()</code> the messages the
+ * scanner logs while finding each token are held, and they are logged once that token is read,
+ * where they would have been logged had it been scanned then.
+ * <p>
+ * A reader that only goes forward may let go of the tokens behind it with
+ * <code>discardBefore(index)</code>, so that the buffer holds a window of the tokens rather
+ * than all of them; reading a discarded token is an error.
+ */
+public class TokenBuffer {
+    public static final byte LEXTANT = 0;
+    public static final byte IDENTIFIER = 1;
+    public static final byte NUMBER = 2;
+    public static final byte FLOAT = 3;
+    public static final byte CHARACTER = 4;
+    public static final byte STRING = 5;
+    public static final byte NULL = 6;
+    public static final byte OTHER = 7;
+    private static final int KIND_COUNT = 8;
+
+    private static final int NO_LEXTANT = -1;
+    private static final int STARTING_CAPACITY = 256;
+
+    private static final Keyword[] KEYWORDS = Keyword.values();
+    private static final Punctuator[] PUNCTUATORS = Punctuator.values();
+    private static final PseudoOperator[] PSEUDO_OPERATORS = PseudoOperator.values();
+    private static final int LEXTANT_COUNT =
+            KEYWORDS.length + PUNCTUATORS.length + PSEUDO_OPERATORS.length;
+    public static final int TERMINAL_COUNT = LEXTANT_COUNT + KIND_COUNT;
+
+    private final Scanner scanner;
+    private final LexicalAnalyzer lexicalAnalyzer;
+    private final LocatedCharStream locations;
+    private final int lookahead;
+
+    private byte[] kinds;
+    private int[] lextantCodes;
+    private long[] positions;
+    private Token[] tokens;
+    private int size;
+    private boolean ended;
+    private int offset;                 // the index of the token in slot 0
+    private int start;                  // the first index not discarded
+
+    private boolean holding;
+    private Map<Integer, HeldMessages> heldMessages;
+    private int unreadMessagesFrom;      // the messages held for tokens before this are logged
+
+
+    public static TokenBuffer make(Scanner scanner) {
+        return new TokenBuffer(scanner);
+    }
+
+    private TokenBuffer(Scanner scanner) {
+        this.scanner = scanner;
+        if (scanner instanceof LexicalAnalyzer) {
+            this.lexicalAnalyzer = (LexicalAnalyzer) scanner;
+            this.locations = lexicalAnalyzer.input;
+            this.lookahead = 1;
+        } else {
+            this.lexicalAnalyzer = null;
+            this.locations = null;
+            this.lookahead = 0;
+        }
+        kinds = new byte[STARTING_CAPACITY];
+        lextantCodes = new int[STARTING_CAPACITY];
+        positions = new long[STARTING_CAPACITY];
+        tokens = new Token[STARTING_CAPACITY];
+        size = 0;
+        ended = false;
+        offset = 0;
+        start = 0;
+        holding = false;
+        heldMessages = new HashMap<Integer, HeldMessages>();
+        unreadMessagesFrom = 0;
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // reading by index
+
+    public byte kind(int index) {
+        return kinds[slot(index)];
+    }
+
+    public long position(int index) {
+        return positions[slot(index)];
+    }
+
+    // the keyword, punctuator or pseudo-operator of the token, or null if it has none.
+    public Lextant lextant(int index) {
+        return lextantForCode(lextantCodes[slot(index)]);
+    }
+
+    public boolean isLextant(int index, Lextant lextant) {
+        return lextant(index) == lextant;
+    }
+
+    public boolean isLextant(int index, Lextant... lextants) {
+        Lextant lextant = lextant(index);
+        if (lextant == null) {
+            return false;
+        }
+        for (Lextant candidate : lextants) {
+            if (candidate == lextant) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the terminal symbol of the token, for parsing decisions: the lextant code of a keyword,
+    // punctuator or pseudo-operator, and otherwise a code for the token's kind.
+    public int terminal(int index) {
+        int slot = slot(index);
+        int code = lextantCodes[slot];
+        return code != NO_LEXTANT ? code : terminalFor(kinds[slot]);
+    }
+
+    public static int terminalFor(Lextant lextant) {
+        return codeForLextant(lextant);
+    }
+
+    public static int terminalFor(byte kind) {
+        return LEXTANT_COUNT + kind;
+    }
+
+    // the lextant whose terminal this is, or null for the terminal of a kind.
+    public static Lextant lextantFor(int terminal) {
+        return terminal < LEXTANT_COUNT ? lextantForCode(terminal) : null;
+    }
+
+    public Token token(int index) {
+        int slot = slot(index);
+        if (tokens[slot] == null) {
+            tokens[slot] = materialize(slot);
+        }
+        return tokens[slot];
+    }
+
+    // the number of tokens scanned so far.
+    public int size() {
+        return size;
+    }
+
+    // true if the scanner gave a token at index, rather than index being past the last one.
+    public boolean holds(int index) {
+        fillTo(index);
+        return index < size;
+    }
+
+    // scans up to the token at index, and for a LexicalAnalyzer the one after it, and logs the
+    // messages held for those tokens.
+    public void scanTo(int index) {
+        fillTo(index + lookahead);
+        if (!holding && !heldMessages.isEmpty()) {
+            logHeldMessages(Math.min(index + lookahead, size - 1));
+        }
+    }
+
+    private int slot(int index) {
+        scanTo(index);
+        if (index < start) {
+            throw new IllegalStateException("TokenBuffer: token " + index + " was discarded");
+        }
+        return Math.min(index, size - 1) - offset;
+    }
+
+    // lets go of the tokens before index, which will not be read again. The last token scanned
+    // is kept, as it stands for every index past it.
+    public void discardBefore(int index) {
+        start = Math.max(start, Math.min(index, size - 1));
+    }
+
+    // scans every token, and makes the Token of each keyword and punctuator held without one,
+    // so that token(index) no longer writes to the buffer; for a buffer read by several threads.
+    public void materializeAll() {
+        fillTo(Integer.MAX_VALUE);
+        for (int slot = start - offset; slot < size - offset; slot++) {
+            if (tokens[slot] == null) {
+                tokens[slot] = materialize(slot);
+            }
+        }
+    }
+
+    private Token materialize(int slot) {
+        Lextant lextant = lextantForCode(lextantCodes[slot]);
+        assert lextant != null : "only lextants are held without a Token";
+        return LextantToken.make(locations.locationOf(positions[slot]), lextant.getLexeme(), lextant);
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // held messages
+
+    public void startHoldingMessages() {
+        holding = true;
+    }
+
+    public void stopHoldingMessages() {
+        holding = false;
+    }
+
+    // true if messages are held for tokens that have not been read.
+    public boolean hasHeldMessages() {
+        return !heldMessages.isEmpty();
+    }
+
+    private void logHeldMessages(int lastIndex) {
+        for (; unreadMessagesFrom <= lastIndex; unreadMessagesFrom++) {
+            HeldMessages messages = heldMessages.remove(unreadMessagesFrom);
+            if (messages != null) {
+                messages.log();
+            }
+        }
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // filling
+
+    private void fillTo(int index) {
+        while (size <= index && !ended) {
+            if (holding) {
+                scanHoldingMessages();
+            } else {
+                scanOne();
+            }
+        }
+    }
+
+    private void scanOne() {
+        if (lexicalAnalyzer != null) {
+            lexicalAnalyzer.scanInto(this);
+        } else {
+            add(scanner.next());
+        }
+    }
+
+    private void scanHoldingMessages() {
+        HeldMessages messages;
+        TanLogger.holdMessages();
+        try {
+            scanOne();
+        } finally {
+            messages = TanLogger.releaseMessages();
+        }
+        if (!messages.isEmpty()) {
+            heldMessages.put(size - 1, messages);
+        }
+    }
+
+    void addLextant(Lextant lextant, long position) {
+        append(LEXTANT, codeForLextant(lextant), position, null);
+    }
+
+    void add(Token token) {
+        long position = PackedPosition.pack(token.getLocation());
+        if (token instanceof LextantToken) {
+            Lextant lextant = ((LextantToken) token).getLextant();
+            append(LEXTANT, codeForLextant(lextant), position, token);
+            return;
+        }
+        int last = size - 1 - offset;
+        boolean repeatsNullToken = last >= 0 && kinds[last] == NULL && positions[last] == position;
+        append(kindOf(token), NO_LEXTANT, position, token);
+        // a scanner that stops advancing gives the same NullToken over and over.
+        if (token instanceof NullToken && (PackedPosition.isEndOfInput(position) || repeatsNullToken)) {
+            ended = true;
+        }
+    }
+
+    private void append(byte kind, int lextantCode, long position, Token token) {
+        if (size - offset == kinds.length) {
+            if (start - offset >= kinds.length / 2) {
+                compact();
+            } else {
+                grow();
+            }
+        }
+        int slot = size - offset;
+        kinds[slot] = kind;
+        lextantCodes[slot] = lextantCode;
+        positions[slot] = position;
+        tokens[slot] = token;
+        size++;
+    }
+
+    // moves the tokens not discarded to the front of the arrays.
+    private void compact() {
+        int discarded = start - offset;
+        int kept = size - start;
+        System.arraycopy(kinds, discarded, kinds, 0, kept);
+        System.arraycopy(lextantCodes, discarded, lextantCodes, 0, kept);
+        System.arraycopy(positions, discarded, positions, 0, kept);
+        System.arraycopy(tokens, discarded, tokens, 0, kept);
+        Arrays.fill(tokens, kept, tokens.length, null);
+        offset = start;
+    }
+
+    private void grow() {
+        int capacity = kinds.length * 2;
+        kinds = Arrays.copyOf(kinds, capacity);
+        lextantCodes = Arrays.copyOf(lextantCodes, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        tokens = Arrays.copyOf(tokens, capacity);
+    }
+
+    // the kind a token of this class is held as.
+    public static byte kindOf(Token token) {
+        if (token instanceof IdentifierToken) {
+            return IDENTIFIER;
+        }
+        if (token instanceof NumberToken) {
+            return NUMBER;
+        }
+        if (token instanceof FloatToken) {
+            return FLOAT;
+        }
+        if (token instanceof CharToken) {
+            return CHARACTER;
+        }
+        if (token instanceof StringToken) {
+            return STRING;
+        }
+        if (token instanceof NullToken) {
+            return NULL;
+        }
+        return OTHER;
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // lextant codes: keywords, then punctuators, then pseudo-operators, by ordinal.
+
+    private static int codeForLextant(Lextant lextant) {
+        if (lextant instanceof Keyword) {
+            return ((Keyword) lextant).ordinal();
+        }
+        if (lextant instanceof Punctuator) {
+            return KEYWORDS.length + ((Punctuator) lextant).ordinal();
+        }
+        if (lextant instanceof PseudoOperator) {
+            return KEYWORDS.length + PUNCTUATORS.length + ((PseudoOperator) lextant).ordinal();
+        }
+        throw new IllegalArgumentException("TokenBuffer: unknown lextant " + lextant);
+    }
+
+    private static Lextant lextantForCode(int code) {
+        if (code == NO_LEXTANT) {
+            return null;
+        }
+        if (code < KEYWORDS.length) {
+            return KEYWORDS[code];
+        }
+        code -= KEYWORDS.length;
+        if (code < PUNCTUATORS.length) {
+            return PUNCTUATORS[code];
+        }
+        return PSEUDO_OPERATORS[code - PUNCTUATORS.length];
+    }
+}
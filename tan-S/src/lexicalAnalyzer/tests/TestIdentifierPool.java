@@ -0,0 +1,44 @@
+package lexicalAnalyzer.tests;
+
+import junit.framework.TestCase;
+import lexicalAnalyzer.IdentifierPool;
+import lexicalAnalyzer.Keyword;
+
+public class TestIdentifierPool extends TestCase {
+
+    public void testInternFromSlices() {
+        IdentifierPool pool = new IdentifierPool();
+        char[] source = "count := count + counter".toCharArray();
+
+        int count = pool.intern(source, 0, 5);
+        int counter = pool.intern(source, 17, 7);
+        assertEquals(count, pool.intern(source, 9, 5));
+        assertTrue(count != counter);
+
+        assertEquals("count", pool.spelling(count));
+        assertEquals("counter", pool.spelling(counter));
+        assertSame(pool.spelling(count), pool.spelling(pool.intern(source, 9, 5)));
+        assertEquals(2, pool.size());
+    }
+
+    public void testIdsAreDenseThroughGrowth() {
+        IdentifierPool pool = new IdentifierPool();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, pool.intern("x" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, pool.intern("x" + i));
+            assertEquals("x" + i, pool.spelling(i));
+        }
+        assertEquals(1000, pool.size());
+    }
+
+    public void testKeywordSliceLookup() {
+        char[] source = "while whiles if".toCharArray();
+        assertEquals(Keyword.WHILE, Keyword.forLexeme(source, 0, 5));
+        assertEquals(Keyword.NULL_KEYWORD, Keyword.forLexeme(source, 6, 6));
+        assertEquals(Keyword.IF, Keyword.forLexeme(source, 13, 2));
+        assertEquals(Keyword.NULL_KEYWORD, Keyword.forLexeme(source, 0, 0));
+        assertTrue(Keyword.isAKeyword("subr"));
+    }
+}
@@ -0,0 +1,87 @@
+package lexicalAnalyzer.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import inputHandler.InputHandler;
+import inputHandler.PushbackCharStream;
+import junit.framework.TestCase;
+import lexicalAnalyzer.IncrementalLexer;
+import lexicalAnalyzer.LexicalAnalyzer;
+import lexicalAnalyzer.Scanner;
+import tokens.Token;
+
+public class TestIncrementalLexer extends TestCase {
+    private static final String ORIGINAL =
+            "main {\n" +
+            "\tvar x := 3;\n" +
+            "\tvar y := x + 4.5e+2;\n" +
+            "\tprint x, y;\n" +
+            "}\n";
+    private File file;
+
+    @Override
+    protected void setUp() throws IOException {
+        file = File.createTempFile("incremental", ".tan");
+        file.deleteOnExit();
+        write(ORIGINAL);
+    }
+
+    public void testFreshLexMatchesLexicalAnalyzer() {
+        IncrementalLexer lexer = IncrementalLexer.make(file.getPath());
+        assertEquals(tokensOf(lexicalAnalyzer()), tokensOf(lexer.scanner()));
+    }
+
+    public void testChangedLine() throws IOException {
+        IncrementalLexer lexer = IncrementalLexer.make(file.getPath());
+        write(ORIGINAL.replace("x + 4.5e+2", "x * \"string\""));
+        lexer.relex(file.getPath());
+        assertEquals(tokensOf(lexicalAnalyzer()), tokensOf(lexer.scanner()));
+    }
+
+    public void testInsertedAndDeletedLines() throws IOException {
+        IncrementalLexer lexer = IncrementalLexer.make(file.getPath());
+        write(ORIGINAL.replace("main {\n", "main {\n\tconst z := 'c';\n\t# comment\n"));
+        lexer.relex(file.getPath());
+        assertEquals(tokensOf(lexicalAnalyzer()), tokensOf(lexer.scanner()));
+
+        write(ORIGINAL.replace("\tvar x := 3;\n", ""));
+        lexer.relex(file.getPath());
+        assertEquals(tokensOf(lexicalAnalyzer()), tokensOf(lexer.scanner()));
+    }
+
+    public void testExplicitLineRange() throws IOException {
+        IncrementalLexer lexer = IncrementalLexer.make(file.getPath());
+        write(ORIGINAL.replace("\tprint x, y;\n", "\tprint x;\n\tprint y;\n"));
+        lexer.relex(InputHandler.mappedFromFilename(file.getPath()), 4, 5, 6);
+        assertEquals(tokensOf(lexicalAnalyzer()), tokensOf(lexer.scanner()));
+
+        try {
+            lexer.relex(InputHandler.mappedFromFilename(file.getPath()), 4, 5, 7);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    private void write(String text) throws IOException {
+        Files.write(file.toPath(), text.getBytes(Charset.defaultCharset()));
+    }
+
+    private LexicalAnalyzer lexicalAnalyzer() {
+        InputHandler handler = InputHandler.mappedFromFilename(file.getPath());
+        return new LexicalAnalyzer(PushbackCharStream.make(handler));
+    }
+
+    private String tokensOf(Scanner scanner) {
+        StringBuilder result = new StringBuilder();
+        while (scanner.hasNext()) {
+            Token token = scanner.next();
+            result.append(token).append(' ').append(token.getLocation()).append('\n');
+        }
+        Token end = scanner.next();
+        result.append(end).append(' ').append(end.getLocation()).append('\n');
+        return result.toString();
+    }
+}
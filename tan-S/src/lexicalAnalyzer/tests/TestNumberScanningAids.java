@@ -0,0 +1,60 @@
+package lexicalAnalyzer.tests;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import lexicalAnalyzer.NumberScanningAids;
+
+public class TestNumberScanningAids extends TestCase {
+    public void testIntValue() {
+        assertEquals(0, intValue("0"));
+        assertEquals(42, intValue("0042"));
+        assertEquals(Integer.MAX_VALUE, intValue("2147483647"));
+        assertEquals(NumberScanningAids.INT_OVERFLOW, intValue("2147483648"));
+        assertEquals(NumberScanningAids.INT_OVERFLOW, intValue("99999999999999999999999"));
+    }
+
+    public void testFloatValueMatchesParseDouble() {
+        String[] lexemes = {
+            "0.0", "1.5", "3.14159", "0.1", "123456789.987654321", "1.0e+22", "1.0e+23",
+            "5.0e-324", "2.5E-3", "9007199254740993.0", "1.7976931348623157e+308",
+            "0.000000000000000000000000001", "1.0e+400", "12.34e-0",
+        };
+        for (String lexeme : lexemes) {
+            assertFloatValue(lexeme);
+        }
+    }
+
+    public void testRandomFloats() {
+        Random random = new Random(8);
+        for (int i = 0; i < 10000; i++) {
+            StringBuilder lexeme = new StringBuilder();
+            lexeme.append(digits(random, 1 + random.nextInt(10))).append('.');
+            lexeme.append(digits(random, 1 + random.nextInt(10)));
+            if (random.nextBoolean()) {
+                lexeme.append(random.nextBoolean() ? "e" : "E");
+                lexeme.append(random.nextBoolean() ? '+' : '-');
+                lexeme.append(random.nextInt(40));
+            }
+            assertFloatValue(lexeme.toString());
+        }
+    }
+
+    private void assertFloatValue(String lexeme) {
+        double expected = Double.parseDouble(lexeme);
+        double actual = NumberScanningAids.floatValue(lexeme.toCharArray(), 0, lexeme.length());
+        assertEquals(lexeme, Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+    }
+
+    private long intValue(String lexeme) {
+        return NumberScanningAids.intValue(lexeme.toCharArray(), 0, lexeme.length());
+    }
+
+    private String digits(Random random, int count) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            result.append((char) ('0' + random.nextInt(10)));
+        }
+        return result.toString();
+    }
+}
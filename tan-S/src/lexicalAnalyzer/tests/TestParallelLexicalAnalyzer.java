@@ -0,0 +1,63 @@
+package lexicalAnalyzer.tests;
+
+import java.util.concurrent.ForkJoinPool;
+
+import inputHandler.InputHandler;
+import inputHandler.MappedFileInputHandler;
+import inputHandler.PushbackCharStream;
+import junit.framework.TestCase;
+import lexicalAnalyzer.LexicalAnalyzer;
+import lexicalAnalyzer.ParallelLexicalAnalyzer;
+import lexicalAnalyzer.Scanner;
+import tokens.IdentifierToken;
+import tokens.Token;
+
+public class TestParallelLexicalAnalyzer extends TestCase {
+    private static final String FIXTURE_FILENAME = "src/applications/tests/fixtures/coinTest.tan";
+
+    public void testSameTokensAsSequential() {
+        String expected = tokensOf(sequential());
+        for (int linesPerChunk = 1; linesPerChunk <= 5; linesPerChunk++) {
+            assertEquals(expected, tokensOf(parallel(linesPerChunk)));
+        }
+    }
+
+    public void testIdentifiersShareOnePool() {
+        LexicalAnalyzer sequential = sequential();
+        ParallelLexicalAnalyzer parallel = parallel(2);
+        while (sequential.hasNext()) {
+            Token expected = sequential.next();
+            Token actual = parallel.next();
+            if (expected instanceof IdentifierToken) {
+                assertEquals(((IdentifierToken) expected).getSymbolId(),
+                        ((IdentifierToken) actual).getSymbolId());
+                assertEquals(expected.getLexeme(), actual.getLexeme());
+                assertSame(parallel.getIdentifierPool().spelling(((IdentifierToken) actual).getSymbolId()),
+                        actual.getLexeme());
+            }
+        }
+        assertFalse(parallel.hasNext());
+        assertEquals(sequential.getIdentifierPool().size(), parallel.getIdentifierPool().size());
+    }
+
+    private LexicalAnalyzer sequential() {
+        InputHandler handler = InputHandler.mappedFromFilename(FIXTURE_FILENAME);
+        return new LexicalAnalyzer(PushbackCharStream.make(handler));
+    }
+
+    private ParallelLexicalAnalyzer parallel(int linesPerChunk) {
+        MappedFileInputHandler handler = InputHandler.mappedFromFilename(FIXTURE_FILENAME);
+        return new ParallelLexicalAnalyzer(handler, linesPerChunk, ForkJoinPool.commonPool());
+    }
+
+    private String tokensOf(Scanner scanner) {
+        StringBuilder result = new StringBuilder();
+        while (scanner.hasNext()) {
+            Token token = scanner.next();
+            result.append(token).append(' ').append(token.getLocation()).append('\n');
+        }
+        Token end = scanner.next();
+        result.append(end).append(' ').append(end.getLocation()).append('\n');
+        return result.toString();
+    }
+}
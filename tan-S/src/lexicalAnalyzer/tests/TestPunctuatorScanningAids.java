@@ -0,0 +1,49 @@
+package lexicalAnalyzer.tests;
+
+import static lexicalAnalyzer.PunctuatorScanningAids.*;
+
+import junit.framework.TestCase;
+import lexicalAnalyzer.Punctuator;
+
+public class TestPunctuatorScanningAids extends TestCase {
+
+    public void testEveryLexemeIsAccepted() {
+        for (Punctuator punctuator : Punctuator.values()) {
+            if (punctuator == Punctuator.NULL_PUNCTUATOR) {
+                continue;
+            }
+            int state = run(punctuator.getLexeme());
+            assertTrue(state != NO_STATE);
+            assertEquals(punctuator, punctuatorForState(state));
+        }
+    }
+
+    public void testPrefixes() {
+        int colon = run(":");
+        assertTrue(isAccepting(colon));
+        assertFalse(isUniquePrefix(colon));
+        assertTrue(isUniquePrefix(run(":=")));
+
+        int ampersand = run("&");
+        assertFalse(isAccepting(ampersand));
+        assertTrue(isUniquePrefix(ampersand));
+
+        assertEquals(NO_STATE, run(":-"));
+    }
+
+    public void testStartingCharacters() {
+        assertTrue(isPunctuatorStartingCharacter('\\'));
+        assertTrue(isPunctuatorStartingCharacter('&'));
+        assertFalse(isPunctuatorStartingCharacter('a'));
+        assertFalse(isPunctuatorStartingCharacter('\0'));
+        assertFalse(isPunctuatorStartingCharacter('\u00e9'));
+    }
+
+    private int run(String lexeme) {
+        int state = START_STATE;
+        for (int i = 0; i < lexeme.length() && state != NO_STATE; i++) {
+            state = nextState(state, lexeme.charAt(i));
+        }
+        return state;
+    }
+}
@@ -0,0 +1,85 @@
+package lexicalAnalyzer.tests;
+
+import inputHandler.InputHandler;
+import inputHandler.PushbackCharStream;
+import junit.framework.TestCase;
+import lexicalAnalyzer.Keyword;
+import lexicalAnalyzer.LexicalAnalyzer;
+import lexicalAnalyzer.TokenBuffer;
+import tokens.Token;
+
+public class TestTokenBuffer extends TestCase {
+    private static final String FIXTURE_FILENAME = "src/applications/tests/fixtures/coinTest.tan";
+
+    public void testSameTokensAsScanner() {
+        LexicalAnalyzer scanner = lexicalAnalyzer();
+        TokenBuffer buffer = TokenBuffer.make(lexicalAnalyzer());
+
+        int index = 0;
+        while (scanner.hasNext()) {
+            Token expected = scanner.next();
+            Token actual = buffer.token(index);
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(expected.getLocation().toString(), actual.getLocation().toString());
+            assertEquals(expected.getLexeme(), actual.getLexeme());
+            index++;
+        }
+        assertEquals(TokenBuffer.NULL, buffer.kind(index));
+    }
+
+    public void testKindsWithoutTokens() {
+        TokenBuffer buffer = TokenBuffer.make(lexicalAnalyzer());
+
+        assertEquals(TokenBuffer.LEXTANT, buffer.kind(0));
+        assertTrue(buffer.isLextant(0, Keyword.MAIN));
+        assertSame(Keyword.MAIN, buffer.lextant(0));
+        assertFalse(buffer.isLextant(0, (Keyword) null));
+    }
+
+    public void testReadingPastTheEnd() {
+        TokenBuffer buffer = TokenBuffer.make(lexicalAnalyzer());
+        int last = 0;
+        while (buffer.kind(last) != TokenBuffer.NULL) {
+            last++;
+        }
+        assertEquals(TokenBuffer.NULL, buffer.kind(last + 10));
+        assertSame(buffer.token(last), buffer.token(last + 10));
+        assertEquals(last + 1, buffer.size());
+    }
+
+    public void testDiscardingKeepsTheWindow() {
+        LexicalAnalyzer scanner = lexicalAnalyzer();
+        TokenBuffer buffer = TokenBuffer.make(lexicalAnalyzer());
+
+        int index = 0;
+        while (scanner.hasNext()) {
+            Token expected = scanner.next();
+            assertEquals(expected.toString(), buffer.token(index).toString());
+            buffer.discardBefore(index);
+            index++;
+        }
+        assertEquals(TokenBuffer.NULL, buffer.kind(index));
+        try {
+            buffer.token(0);
+            fail("discarded token was read");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    public void testMaterializeAll() {
+        TokenBuffer buffer = TokenBuffer.make(lexicalAnalyzer());
+        buffer.materializeAll();
+        int size = buffer.size();
+
+        assertEquals(TokenBuffer.NULL, buffer.kind(size - 1));
+        for (int index = 0; index < size; index++) {
+            assertSame(buffer.token(index), buffer.token(index));
+        }
+        assertEquals(size, buffer.size());
+    }
+
+    private LexicalAnalyzer lexicalAnalyzer() {
+        InputHandler handler = InputHandler.mappedFromFilename(FIXTURE_FILENAME);
+        return new LexicalAnalyzer(PushbackCharStream.make(handler));
+    }
+}
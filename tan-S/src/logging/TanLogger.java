@@ -1,7 +1,10 @@
 package logging;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -11,30 +14,49 @@ import java.util.logging.Logger;
  * message count is reached.
  * <p>
  * Retains hard references to all loggers created.
+ * <p>
+ * Safe for concurrent use. A thread may hold the messages it logs, with holdMessages(), and get
+ * them back with releaseMessages(); held messages are not logged or counted until the
+ * HeldMessages are logged, so that messages from work done in parallel can be logged in the
+ * order that serial work would have logged them.
  */
 
 public class TanLogger {
-    private static Map<String, TanLogger> loggers = new HashMap<String, TanLogger>();
-    private static int numMessages = 0;
-    private static int maxMessagesBeforeQuit = Integer.MAX_VALUE;
+    private static Map<String, TanLogger> loggers = new ConcurrentHashMap<String, TanLogger>();
+    private static AtomicInteger numMessages = new AtomicInteger();
+    private static volatile int maxMessagesBeforeQuit = Integer.MAX_VALUE;
+    private static ThreadLocal<HeldMessages> heldMessages = new ThreadLocal<HeldMessages>();
 
     ////////////////////////////////////////////////////////////////
     // static interface
     public static TanLogger getLogger(String loggerName) {
-        if (!loggers.containsKey(loggerName)) {
-            loggers.put(loggerName, new TanLogger(loggerName));
-        }
-        return loggers.get(loggerName);
+        return loggers.computeIfAbsent(loggerName, TanLogger::new);
     }
 
     public static boolean hasErrors() {
-        return numMessages != 0;
+        return numMessages.get() != 0;
+    }
+
+    // the number of messages logged so far, not counting held ones.
+    public static int messageCount() {
+        return numMessages.get();
     }
 
     public static void setMaximumErrorMessages(int numMessages) {
         maxMessagesBeforeQuit = numMessages;
     }
 
+    public static void holdMessages() {
+        heldMessages.set(new HeldMessages());
+    }
+
+    // the messages this thread has logged since holdMessages(), which it no longer holds.
+    public static HeldMessages releaseMessages() {
+        HeldMessages result = heldMessages.get();
+        heldMessages.remove();
+        return result;
+    }
+
     ////////////////////////////////////////////////////////////////
     // per-instance code
     private Logger logger;
@@ -44,6 +66,11 @@ public class TanLogger {
     }
 
     public void log(Level level, String message) {
+        HeldMessages held = heldMessages.get();
+        if (held != null) {
+            held.add(this, level, message);
+            return;
+        }
         logger.log(level, message);
         incrementNumMessages();
     }
@@ -53,12 +80,36 @@ public class TanLogger {
     }
 
     private void incrementNumMessages() {
-        numMessages++;
-        if (numMessages >= maxMessagesBeforeQuit) {
+        if (numMessages.incrementAndGet() >= maxMessagesBeforeQuit) {
             throw new TanLoggerException("Too many error messages.  Aborting.");
         }
     }
 
+    ////////////////////////////////////////////////////////////////
+    // messages held by a thread, to be logged later
+    public static class HeldMessages {
+        private final List<TanLogger> loggers = new ArrayList<TanLogger>();
+        private final List<Level> levels = new ArrayList<Level>();
+        private final List<String> messages = new ArrayList<String>();
+
+        private void add(TanLogger logger, Level level, String message) {
+            loggers.add(logger);
+            levels.add(level);
+            messages.add(message);
+        }
+
+        public boolean isEmpty() {
+            return messages.isEmpty();
+        }
+
+        // logs the messages, in the order they were held.
+        public void log() {
+            for (int i = 0; i < messages.size(); i++) {
+                loggers.get(i).log(levels.get(i), messages.get(i));
+            }
+        }
+    }
+
     ////////////////////////////////////////////////////////////////
     // Exception to be thrown
     public class TanLoggerException extends RuntimeException {
@@ -0,0 +1,704 @@
+package parseTree;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import inputHandler.TextLocation;
+import lexicalAnalyzer.IdentifierPool;
+import lexicalAnalyzer.Lextant;
+import lexicalAnalyzer.TokenBuffer;
+import parseTree.nodeTypes.NodeKind;
+import semanticAnalyzer.types.ArrayType;
+import semanticAnalyzer.types.PrimitiveType;
+import semanticAnalyzer.types.Type;
+import tokens.CharToken;
+import tokens.FloatToken;
+import tokens.IdentifierToken;
+import tokens.LextantToken;
+import tokens.NullToken;
+import tokens.NumberToken;
+import tokens.StringToken;
+import tokens.Token;
+
+/**
+ * A parse tree held in parallel primitive arrays, indexed by node number in preorder (the root is
+ * ROOT): the node's kind, its first child, its next sibling, the index of its token, and the id
+ * of its type. Tokens and types are kept once each, in tables that those indices and ids refer
+ * to. A node costs 17 bytes, against the object header, child list, and four references of a
+ * ParseNode. Use the factory <code>compact(root)</code>, or have the Parser build the tree into
+ * an <code>Arena</code> (see <code>Parser.parseCompact</code>), so that no ParseNode is made.
+ * <p>
+ * <code>root()</code> gives a ParseNode view of the tree for the existing visitors. A view node
+ * makes its children from the arrays the first time they are asked for, so only the parts of the
+ * tree that are visited are ever made into ParseNodes. The arrays keep what the parser builds: the
+ * node kinds, tokens, and types (for a CastNode, its cast type). Other attributes, such as scopes
+ * and bindings, belong to the pass that computes them; a pass that works on the arrays directly
+ * keeps them in a SideTable, made with <code>newSideTable()</code> only when the pass runs.
+ * <p>
+ * <code>writeTo(...)</code> and <code>readFrom(...)</code> give the tree a binary form, for
+ * ParseTreeCache.
+ */
+public class CompactTree {
+    public static final int ROOT = 0;
+    public static final int NO_NODE = -1;
+    public static final int NO_TOKEN = -1;
+
+    private static final NodeKind[] KINDS = NodeKind.values();
+
+    private final byte[] kinds;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+    private final int[] tokenIndices;
+    private final int[] typeIds;
+    private final Token[] tokens;
+    private final Type[] types;
+
+
+    public static CompactTree compact(ParseNode root) {
+        return new Builder(root).build();
+    }
+
+    private CompactTree(byte[] kinds, int[] firstChildren, int[] nextSiblings, int[] tokenIndices,
+            int[] typeIds, Token[] tokens, Type[] types) {
+        this.kinds = kinds;
+        this.firstChildren = firstChildren;
+        this.nextSiblings = nextSiblings;
+        this.tokenIndices = tokenIndices;
+        this.typeIds = typeIds;
+        this.tokens = tokens;
+        this.types = types;
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // reading the arrays
+
+    public int size() {
+        return kinds.length;
+    }
+
+    public NodeKind kind(int node) {
+        return KINDS[kinds[node]];
+    }
+
+    public int firstChild(int node) {
+        return firstChildren[node];
+    }
+
+    public int nextSibling(int node) {
+        return nextSiblings[node];
+    }
+
+    public int tokenIndex(int node) {
+        return tokenIndices[node];
+    }
+
+    public Token token(int node) {
+        int index = tokenIndices[node];
+        return index == NO_TOKEN ? null : tokens[index];
+    }
+
+    public int typeId(int node) {
+        return typeIds[node];
+    }
+
+    public Type type(int node) {
+        return types[typeIds[node]];
+    }
+
+    public int tokenCount() {
+        return tokens.length;
+    }
+
+    public int typeCount() {
+        return types.length;
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // ParseNode views
+
+    public ParseNode root() {
+        return view(ROOT);
+    }
+
+    // a new ParseNode for the node, with no parent, whose children are made when first asked for.
+    public ParseNode view(int node) {
+        ParseNode result = kind(node).make(token(node), type(node));
+        if (firstChildren[node] != NO_NODE) {
+            result.viewArenaNode(this, node);
+        }
+        return result;
+    }
+
+    void appendChildViews(ParseNode parent, int node) {
+        for (int child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+            parent.appendChild(view(child));
+        }
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // SideTable: one attribute per node, for a pass over the arrays.
+
+    public <T> SideTable<T> newSideTable() {
+        return new SideTable<T>(size());
+    }
+
+    public static class SideTable<T> {
+        private final Object[] values;
+
+        private SideTable(int size) {
+            values = new Object[size];
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get(int node) {
+            return (T) values[node];
+        }
+
+        public void set(int node, T value) {
+            values[node] = value;
+        }
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // binary form: the nodes in preorder, each as its kind, its number of children, and its
+    // token index and type id; then the types; then a table of the strings the tokens use;
+    // then the tokens. Counts and indices are written as varints (seven bits a byte, low
+    // bits first), so that most take a byte or two. The first-child and next-sibling links
+    // are rebuilt from the numbers of children. A location in the file the tree was parsed
+    // from is written without its filename, and read back in the file named to readFrom, so
+    // that a tree can be read for a file that has moved.
+
+    private static final byte PRIMITIVE_TYPE = 0;
+    private static final byte ARRAY_TYPE = 1;
+
+    // how a token's location is written: these, or 2 + the index of its filename.
+    private static final int IN_SOURCE_FILE = 0;
+    private static final int NULL_LOCATION = 1;
+    private static final int FILENAME_OFFSET = 2;
+
+    public void writeTo(DataOutputStream out, String filename) throws IOException {
+        int size = size();
+        writeVarint(out, size);
+        for (int node = 0; node < size; node++) {
+            out.writeByte(kinds[node]);
+            writeVarint(out, childCount(node));
+            writeVarint(out, tokenIndices[node] + 1);
+            writeVarint(out, typeIds[node]);
+        }
+
+        writeVarint(out, types.length);
+        for (Type type : types) {
+            writeType(out, type);
+        }
+
+        Map<String, Integer> stringIndices = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (Token token : tokens) {
+            stringIndex(token.getLexeme(), stringIndices, strings);
+            stringIndex(token.getLocation().getFilename(), stringIndices, strings);
+        }
+        writeVarint(out, strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, bytes.length);
+            out.write(bytes);
+        }
+
+        writeVarint(out, tokens.length);
+        for (Token token : tokens) {
+            writeToken(out, token, filename, stringIndices);
+        }
+    }
+
+    private int childCount(int node) {
+        int result = 0;
+        for (int child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+            result++;
+        }
+        return result;
+    }
+
+    // the tree written by writeTo, with its locations in the source file named filename.
+    // Throws IllegalArgumentException if the data is not such a tree.
+    public static CompactTree readFrom(ByteBuffer in, String filename) {
+        try {
+            int size = readVarint(in);
+            byte[] kinds = new byte[size];
+            int[] firstChildren = new int[size];
+            int[] nextSiblings = new int[size];
+            int[] tokenIndices = new int[size];
+            int[] typeIds = new int[size];
+            readNodes(in, kinds, firstChildren, nextSiblings, tokenIndices, typeIds);
+
+            Type[] types = new Type[readVarint(in)];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = readType(in);
+            }
+
+            String[] strings = new String[readVarint(in)];
+            for (int i = 0; i < strings.length; i++) {
+                int length = readVarint(in);
+                strings[i] = new String(in.array(), in.arrayOffset() + in.position(), length,
+                        StandardCharsets.UTF_8);
+                in.position(in.position() + length);
+            }
+
+            IdentifierPool identifiers = new IdentifierPool();
+            Token[] tokens = new Token[readVarint(in)];
+            for (int i = 0; i < tokens.length; i++) {
+                tokens[i] = readToken(in, filename, strings, identifiers);
+            }
+            return new CompactTree(kinds, firstChildren, nextSiblings, tokenIndices, typeIds,
+                    tokens, types);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("CompactTree: bad binary form", e);
+        }
+    }
+
+    // links each node to its parent's last child, and keeps the nodes whose children are
+    // still to come on a stack.
+    private static void readNodes(ByteBuffer in, byte[] kinds, int[] firstChildren,
+            int[] nextSiblings, int[] tokenIndices, int[] typeIds) {
+        int size = kinds.length;
+        int[] remainingChildren = new int[size];
+        int[] lastChildren = new int[size];
+        int[] parents = new int[size];
+        int depth = 0;
+        for (int node = 0; node < size; node++) {
+            kinds[node] = in.get();
+            int childCount = readVarint(in);
+            tokenIndices[node] = readVarint(in) - 1;
+            typeIds[node] = readVarint(in);
+            firstChildren[node] = NO_NODE;
+            nextSiblings[node] = NO_NODE;
+            lastChildren[node] = NO_NODE;
+
+            if (depth > 0) {
+                int parent = parents[depth - 1];
+                if (lastChildren[parent] == NO_NODE) {
+                    firstChildren[parent] = node;
+                } else {
+                    nextSiblings[lastChildren[parent]] = node;
+                }
+                lastChildren[parent] = node;
+                remainingChildren[parent]--;
+            } else if (node != ROOT) {
+                throw new IllegalArgumentException("CompactTree: more than one root");
+            }
+            if (childCount > 0) {
+                remainingChildren[node] = childCount;
+                parents[depth++] = node;
+            }
+            while (depth > 0 && remainingChildren[parents[depth - 1]] == 0) {
+                depth--;
+            }
+        }
+        if (depth != 0) {
+            throw new IllegalArgumentException("CompactTree: missing nodes");
+        }
+    }
+
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            result |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("CompactTree: bad varint");
+    }
+
+    private static void writeType(DataOutputStream out, Type type) throws IOException {
+        if (type instanceof PrimitiveType) {
+            out.writeByte(PRIMITIVE_TYPE);
+            out.writeByte(((PrimitiveType) type).ordinal());
+        } else if (type instanceof ArrayType) {
+            out.writeByte(ARRAY_TYPE);
+            writeType(out, ((ArrayType) type).getSubType());
+        } else {
+            throw new IllegalArgumentException("CompactTree: cannot write type " + type);
+        }
+    }
+
+    private static Type readType(ByteBuffer in) {
+        byte tag = in.get();
+        if (tag == PRIMITIVE_TYPE) {
+            return PrimitiveType.values()[in.get()];
+        }
+        if (tag == ARRAY_TYPE) {
+            return ArrayType.make(readType(in));
+        }
+        throw new IllegalArgumentException("CompactTree: bad type tag " + tag);
+    }
+
+    private static int stringIndex(String string, Map<String, Integer> indices, List<String> strings) {
+        Integer result = indices.get(string);
+        if (result == null) {
+            result = strings.size();
+            strings.add(string);
+            indices.put(string, result);
+        }
+        return result;
+    }
+
+    // kind, lexeme, location, then what the kind needs beyond the lexeme.
+    private static void writeToken(DataOutputStream out, Token token, String filename,
+            Map<String, Integer> stringIndices) throws IOException {
+        byte kind = token instanceof LextantToken ? TokenBuffer.LEXTANT : TokenBuffer.kindOf(token);
+        out.writeByte(kind);
+        writeVarint(out, stringIndices.get(token.getLexeme()));
+
+        TextLocation location = token.getLocation();
+        if (location == TextLocation.nullInstance()) {
+            writeVarint(out, NULL_LOCATION);
+        } else if (location.getFilename().equals(filename)) {
+            writeVarint(out, IN_SOURCE_FILE);
+        } else {
+            writeVarint(out, FILENAME_OFFSET + stringIndices.get(location.getFilename()));
+        }
+        writeVarint(out, location.getLineNumber());
+        writeVarint(out, location.getPosition());
+
+        switch (kind) {
+        case TokenBuffer.LEXTANT:
+            writeVarint(out, TokenBuffer.terminalFor(((LextantToken) token).getLextant()));
+            break;
+        case TokenBuffer.NUMBER:
+            writeVarint(out, ((NumberToken) token).getValue());
+            break;
+        case TokenBuffer.FLOAT:
+            out.writeDouble(((FloatToken) token).getValue());
+            break;
+        case TokenBuffer.IDENTIFIER:
+        case TokenBuffer.CHARACTER:
+        case TokenBuffer.STRING:
+        case TokenBuffer.NULL:
+            break;
+        default:
+            throw new IllegalArgumentException("CompactTree: cannot write token " + token);
+        }
+    }
+
+    private static Token readToken(ByteBuffer in, String filename, String[] strings,
+            IdentifierPool identifiers) {
+        byte kind = in.get();
+        String lexeme = strings[readVarint(in)];
+        int where = readVarint(in);
+        int lineNumber = readVarint(in);
+        int position = readVarint(in);
+        TextLocation location;
+        if (where == NULL_LOCATION) {
+            location = TextLocation.nullInstance();
+        } else if (where == IN_SOURCE_FILE) {
+            location = new TextLocation(filename, lineNumber, position);
+        } else {
+            location = new TextLocation(strings[where - FILENAME_OFFSET], lineNumber, position);
+        }
+
+        switch (kind) {
+        case TokenBuffer.LEXTANT:
+            Lextant lextant = TokenBuffer.lextantFor(readVarint(in));
+            return LextantToken.make(location, lexeme, lextant);
+        case TokenBuffer.IDENTIFIER:
+            return IdentifierToken.make(location, identifiers, identifiers.intern(lexeme));
+        case TokenBuffer.NUMBER:
+            return NumberToken.make(location, lexeme, readVarint(in));
+        case TokenBuffer.FLOAT:
+            return FloatToken.make(location, lexeme, in.getDouble());
+        case TokenBuffer.CHARACTER:
+            return CharToken.make(location, lexeme);
+        case TokenBuffer.STRING:
+            return StringToken.make(location, lexeme);
+        case TokenBuffer.NULL:
+            return NullToken.make(location);
+        default:
+            throw new IllegalArgumentException("CompactTree: bad token kind " + kind);
+        }
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // Arena: the arrays, grown as the Parser makes nodes. The nodes are numbered in the order
+    // they are made, which is not preorder (an operator is made after its operands), so
+    // finish(root) numbers the nodes under the root again in preorder. Nodes not under the
+    // root, such as those left behind by a syntax error, are dropped then.
+
+    public static class Arena implements TreeBuilder {
+        private static final int INITIAL_SIZE = 256;
+
+        private byte[] kinds = new byte[INITIAL_SIZE];
+        private int[] firstChildren = new int[INITIAL_SIZE];
+        private int[] nextSiblings = new int[INITIAL_SIZE];
+        private int[] lastChildren = new int[INITIAL_SIZE];
+        private int[] tokenIndices = new int[INITIAL_SIZE];
+        private int[] typeIds = new int[INITIAL_SIZE];
+        private int size = 0;
+        private final List<Token> tokens = new ArrayList<>();
+        private final Map<Type, Integer> typeIdsByType = new IdentityHashMap<>();
+        private final List<Type> types = new ArrayList<>();
+
+        @Override
+        public int node(NodeKind kind, Token token, Type type) {
+            if (size == kinds.length) {
+                grow();
+            }
+            int result = size++;
+            kinds[result] = (byte) kind.ordinal();
+            firstChildren[result] = NO_NODE;
+            nextSiblings[result] = NO_NODE;
+            lastChildren[result] = NO_NODE;
+            tokenIndices[result] = tokenIndex(token);
+            typeIds[result] = typeId(type);
+            return result;
+        }
+
+        @Override
+        public void appendChild(int parent, int child) {
+            if (lastChildren[parent] == NO_NODE) {
+                firstChildren[parent] = child;
+            } else {
+                nextSiblings[lastChildren[parent]] = child;
+            }
+            lastChildren[parent] = child;
+        }
+
+        private void grow() {
+            int length = kinds.length * 2;
+            kinds = Arrays.copyOf(kinds, length);
+            firstChildren = Arrays.copyOf(firstChildren, length);
+            nextSiblings = Arrays.copyOf(nextSiblings, length);
+            lastChildren = Arrays.copyOf(lastChildren, length);
+            tokenIndices = Arrays.copyOf(tokenIndices, length);
+            typeIds = Arrays.copyOf(typeIds, length);
+        }
+
+        // a node often has the token of the node made just before it (a function invocation
+        // that of its identifier), which is then stored once.
+        private int tokenIndex(Token token) {
+            if (token == null) {
+                return NO_TOKEN;
+            }
+            int last = tokens.size() - 1;
+            if (last >= 0 && tokens.get(last) == token) {
+                return last;
+            }
+            tokens.add(token);
+            return last + 1;
+        }
+
+        private int typeId(Type type) {
+            Integer result = typeIdsByType.get(type);
+            if (result == null) {
+                result = types.size();
+                types.add(type);
+                typeIdsByType.put(type, result);
+            }
+            return result;
+        }
+
+        // the tree under root, numbered in preorder, with the tokens it uses.
+        public CompactTree finish(int root) {
+            int count = countNodes(root);
+            byte[] newKinds = new byte[count];
+            int[] newFirstChildren = new int[count];
+            int[] newNextSiblings = new int[count];
+            int[] newTokenIndices = new int[count];
+            int[] newTypeIds = new int[count];
+            int[] newLastChildren = new int[count];
+            int[] tokenNumbers = new int[tokens.size()];
+            Arrays.fill(tokenNumbers, NO_TOKEN);
+            List<Token> keptTokens = new ArrayList<>();
+
+            // a stack of the nodes still to be numbered, each with its parent's new number.
+            int[] nodes = new int[count];
+            int[] parents = new int[count];
+            int top = 0;
+            nodes[top] = root;
+            parents[top++] = NO_NODE;
+            for (int index = 0; index < count; index++) {
+                int node = nodes[--top];
+                int parent = parents[top];
+                newKinds[index] = kinds[node];
+                newTypeIds[index] = typeIds[node];
+                newTokenIndices[index] = keptToken(tokenIndices[node], tokenNumbers, keptTokens);
+                newFirstChildren[index] = NO_NODE;
+                newNextSiblings[index] = NO_NODE;
+                newLastChildren[index] = NO_NODE;
+
+                if (parent != NO_NODE) {
+                    if (newLastChildren[parent] == NO_NODE) {
+                        newFirstChildren[parent] = index;
+                    } else {
+                        newNextSiblings[newLastChildren[parent]] = index;
+                    }
+                    newLastChildren[parent] = index;
+                }
+                int firstPushed = top;
+                for (int child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+                    nodes[top] = child;
+                    parents[top++] = index;
+                }
+                reverse(nodes, firstPushed, top);
+            }
+            return new CompactTree(newKinds, newFirstChildren, newNextSiblings, newTokenIndices,
+                    newTypeIds, keptTokens.toArray(new Token[keptTokens.size()]),
+                    types.toArray(new Type[types.size()]));
+        }
+
+        private int countNodes(int root) {
+            int result = 0;
+            int[] nodes = new int[size];
+            int top = 0;
+            nodes[top++] = root;
+            while (top > 0) {
+                int node = nodes[--top];
+                result++;
+                for (int child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+                    nodes[top++] = child;
+                }
+            }
+            return result;
+        }
+
+        private int keptToken(int token, int[] tokenNumbers, List<Token> keptTokens) {
+            if (token == NO_TOKEN) {
+                return NO_TOKEN;
+            }
+            if (tokenNumbers[token] == NO_TOKEN) {
+                tokenNumbers[token] = keptTokens.size();
+                keptTokens.add(tokens.get(token));
+            }
+            return tokenNumbers[token];
+        }
+
+        private static void reverse(int[] values, int start, int end) {
+            for (int i = start, j = end - 1; i < j; i++, j--) {
+                int value = values[i];
+                values[i] = values[j];
+                values[j] = value;
+            }
+        }
+    }
+
+
+    //////////////////////////////////////////////////////////////////////////////
+    // Builder: numbers the nodes in preorder, without recursion, so that deep trees
+    // do not overflow the stack.
+
+    private static class Builder {
+        private final ParseNode root;
+        private final Map<Token, Integer> tokenIndices = new IdentityHashMap<>();
+        private final List<Token> tokens = new ArrayList<>();
+        private final Map<Type, Integer> typeIds = new IdentityHashMap<>();
+        private final List<Type> types = new ArrayList<>();
+
+        Builder(ParseNode root) {
+            this.root = root;
+        }
+
+        CompactTree build() {
+            int size = countNodes();
+            byte[] kinds = new byte[size];
+            int[] firstChildren = new int[size];
+            int[] nextSiblings = new int[size];
+            int[] tokenIndices = new int[size];
+            int[] typeIds = new int[size];
+            int[] lastChildren = new int[size];
+
+            Deque<ParseNode> nodes = new ArrayDeque<>();
+            Deque<Integer> parents = new ArrayDeque<>();
+            nodes.push(root);
+            parents.push(NO_NODE);
+            for (int index = 0; index < size; index++) {
+                ParseNode node = nodes.pop();
+                int parent = parents.pop();
+
+                NodeKind kind = NodeKind.of(node);
+                kinds[index] = (byte) kind.ordinal();
+                firstChildren[index] = NO_NODE;
+                nextSiblings[index] = NO_NODE;
+                lastChildren[index] = NO_NODE;
+                tokenIndices[index] = tokenIndex(node.getToken());
+                typeIds[index] = typeId(kind.typeOf(node));
+
+                if (parent != NO_NODE) {
+                    if (lastChildren[parent] == NO_NODE) {
+                        firstChildren[parent] = index;
+                    } else {
+                        nextSiblings[lastChildren[parent]] = index;
+                    }
+                    lastChildren[parent] = index;
+                }
+                List<ParseNode> children = node.children();
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    nodes.push(children.get(i));
+                    parents.push(index);
+                }
+            }
+            return new CompactTree(kinds, firstChildren, nextSiblings, tokenIndices, typeIds,
+                    tokens.toArray(new Token[tokens.size()]), types.toArray(new Type[types.size()]));
+        }
+
+        private int countNodes() {
+            int result = 0;
+            Deque<ParseNode> nodes = new ArrayDeque<>();
+            nodes.push(root);
+            while (!nodes.isEmpty()) {
+                ParseNode node = nodes.pop();
+                result++;
+                for (ParseNode child : node.children()) {
+                    nodes.push(child);
+                }
+            }
+            return result;
+        }
+
+        private int tokenIndex(Token token) {
+            if (token == null) {
+                return NO_TOKEN;
+            }
+            Integer result = tokenIndices.get(token);
+            if (result == null) {
+                result = tokens.size();
+                tokens.add(token);
+                tokenIndices.put(token, result);
+            }
+            return result;
+        }
+
+        // Types are interned, so they are looked up by identity, as tokens are.
+        private int typeId(Type type) {
+            Integer result = typeIds.get(type);
+            if (result == null) {
+                result = types.size();
+                types.add(type);
+                typeIds.put(type, result);
+            }
+            return result;
+        }
+    }
+}
@@ -1,10 +1,48 @@
 package parseTree;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 
 import inputHandler.Locator;
 import inputHandler.TextLocation;
+import parseTree.nodeTypes.ArrayIndexNode;
+import parseTree.nodeTypes.AssignmentStatementNode;
+import parseTree.nodeTypes.BlockStatementNode;
+import parseTree.nodeTypes.BooleanConstantNode;
+import parseTree.nodeTypes.BreakStatementNode;
+import parseTree.nodeTypes.CallStatementNode;
+import parseTree.nodeTypes.CastNode;
+import parseTree.nodeTypes.CharConstantNode;
+import parseTree.nodeTypes.ContinueStatementNode;
+import parseTree.nodeTypes.DeclarationNode;
+import parseTree.nodeTypes.ErrorNode;
+import parseTree.nodeTypes.ExpressionListNode;
+import parseTree.nodeTypes.FloatConstantNode;
+import parseTree.nodeTypes.ForStatementNode;
+import parseTree.nodeTypes.FunctionDefinitionNode;
+import parseTree.nodeTypes.FunctionInvocationNode;
+import parseTree.nodeTypes.IdentifierNode;
+import parseTree.nodeTypes.IfStatementNode;
+import parseTree.nodeTypes.IntegerConstantNode;
+import parseTree.nodeTypes.NewArrayNode;
+import parseTree.nodeTypes.NewlineNode;
+import parseTree.nodeTypes.NodeKind;
+import parseTree.nodeTypes.OperatorNode;
+import parseTree.nodeTypes.ParameterListNode;
+import parseTree.nodeTypes.ParameterNode;
+import parseTree.nodeTypes.PopulatedArrayNode;
+import parseTree.nodeTypes.PrintStatementNode;
+import parseTree.nodeTypes.ProgramNode;
+import parseTree.nodeTypes.ReturnStatementNode;
+import parseTree.nodeTypes.SpaceNode;
+import parseTree.nodeTypes.StringConstantNode;
+import parseTree.nodeTypes.TabNode;
+import parseTree.nodeTypes.TargetExpressionNode;
+import parseTree.nodeTypes.WhileStatementNode;
 import semanticAnalyzer.types.PrimitiveType;
 import semanticAnalyzer.types.Type;
 import symbolTable.Binding;
@@ -14,15 +52,22 @@ import tokens.Token;
 
 public class ParseNode implements Locator {
     public static final ParseNode NO_PARENT = null;
+    private static final List<ParseNode> NO_CHILDREN = Collections.emptyList();
 
     List<ParseNode> children;
     ParseNode parent;
 
+    // set while this node is a view of a CompactTree node whose children have not been made.
+    private CompactTree arena;
+    private int arenaIndex;
+
+    private final NodeKind kind;
     protected Token token;
     Type type; // used for expressions
     private Scope scope; // the scope created by this node, if any.
 
     public ParseNode(Token token) {
+        this.kind = NodeKind.of(getClass());
         this.token = token;
         this.type = PrimitiveType.NO_TYPE;
         this.scope = null;
@@ -32,6 +77,7 @@ public class ParseNode implements Locator {
 
     // "detached" copy constructor. Copies all info except tree info (parent and children)
     public ParseNode(ParseNode node) {
+        this.kind = NodeKind.of(getClass());
         this.token = node.token;
         this.type = node.type;
         this.scope = node.scope;
@@ -41,6 +87,10 @@ public class ParseNode implements Locator {
         return token;
     }
 
+    public NodeKind getKind() {
+        return kind;
+    }
+
 
     ////////////////////////////////////////////////////////////////////////////////////
     // attributes
@@ -112,26 +162,27 @@ public class ParseNode implements Locator {
     }
 
     public List<ParseNode> getChildren() {
-        return children;
+        return children();
     }
 
     public ParseNode child(int i) {
-        return children.get(i);
+        return children().get(i);
     }
 
+    // leaves share one empty list; a node's own list is allocated when it gets its first child.
     public void initChildren() {
-        children = new ArrayList<ParseNode>();
+        children = NO_CHILDREN;
     }
 
     // adds a new child to this node (as first child) and sets its parent link.
     public void insertChild(ParseNode child) {
-        children.add(0, child);
+        writableChildren().add(0, child);
         child.setParent(this);
     }
 
     // adds a new child to this node (as last child) and sets its parent link.
     public void appendChild(ParseNode child) {
-        children.add(child);
+        writableChildren().add(child);
         child.setParent(this);
     }
 
@@ -149,7 +200,29 @@ public class ParseNode implements Locator {
     }
 
     public int nChildren() {
-        return children.size();
+        return children().size();
+    }
+
+    List<ParseNode> children() {
+        if (arena != null) {
+            CompactTree tree = arena;
+            arena = null;
+            tree.appendChildViews(this, arenaIndex);
+        }
+        return children;
+    }
+
+    private List<ParseNode> writableChildren() {
+        if (children() == NO_CHILDREN) {
+            children = new ArrayList<ParseNode>();
+        }
+        return children;
+    }
+
+    // makes this node a view of the given CompactTree node, whose children are made on demand.
+    void viewArenaNode(CompactTree arena, int arenaIndex) {
+        this.arena = arena;
+        this.arenaIndex = arenaIndex;
     }
 
     ////////////////////////////////////////////////////////////////////////////////////
@@ -169,16 +242,210 @@ public class ParseNode implements Locator {
 
     ////////////////////////////////////////////////////////////////////////////////////
     // for visitors
+    //
+    // accept walks the subtree with an explicit stack instead of recursing, so that deeply
+    // nested programs cannot overflow the Java stack. The visitor gets the calls a recursive
+    // walk would make, in the same order: visitEnter, the children, visitLeave for each node
+    // class that has children, and visit for a leaf class. The overloads are selected by a
+    // switch on the node's kind, rather than by a virtual call on each node.
+
+    public final void accept(ParseNodeVisitor visitor) {
+        visitEnter(this, visitor);
+        if (kind.isLeaf()) {
+            return;
+        }
+        Deque<ParseNode> parents = new ArrayDeque<ParseNode>();
+        Deque<Iterator<ParseNode>> childIterators = new ArrayDeque<Iterator<ParseNode>>();
+        parents.push(this);
+        childIterators.push(children().iterator());
+
+        while (!parents.isEmpty()) {
+            Iterator<ParseNode> siblings = childIterators.peek();
+            if (!siblings.hasNext()) {
+                childIterators.pop();
+                visitLeave(parents.pop(), visitor);
+                continue;
+            }
+            ParseNode child = siblings.next();
+            visitEnter(child, visitor);
+            if (!child.kind.isLeaf()) {
+                parents.push(child);
+                childIterators.push(child.children().iterator());
+            }
+        }
+    }
 
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
+    private static void visitEnter(ParseNode node, ParseNodeVisitor visitor) {
+        switch (node.kind) {
+        case ARRAY_INDEX:
+            visitor.visitEnter((ArrayIndexNode) node);
+            break;
+        case ASSIGNMENT_STATEMENT:
+            visitor.visitEnter((AssignmentStatementNode) node);
+            break;
+        case BLOCK_STATEMENT:
+            visitor.visitEnter((BlockStatementNode) node);
+            break;
+        case BOOLEAN_CONSTANT:
+            visitor.visit((BooleanConstantNode) node);
+            break;
+        case BREAK_STATEMENT:
+            visitor.visit((BreakStatementNode) node);
+            break;
+        case CALL_STATEMENT:
+            visitor.visitEnter((CallStatementNode) node);
+            break;
+        case CAST:
+            visitor.visitEnter((CastNode) node);
+            break;
+        case CHAR_CONSTANT:
+            visitor.visit((CharConstantNode) node);
+            break;
+        case CONTINUE_STATEMENT:
+            visitor.visit((ContinueStatementNode) node);
+            break;
+        case DECLARATION:
+            visitor.visitEnter((DeclarationNode) node);
+            break;
+        case ERROR:
+            visitor.visit((ErrorNode) node);
+            break;
+        case EXPRESSION_LIST:
+            visitor.visitEnter((ExpressionListNode) node);
+            break;
+        case FLOAT_CONSTANT:
+            visitor.visit((FloatConstantNode) node);
+            break;
+        case FOR_STATEMENT:
+            visitor.visitEnter((ForStatementNode) node);
+            break;
+        case FUNCTION_DEFINITION:
+            visitor.visitEnter((FunctionDefinitionNode) node);
+            break;
+        case FUNCTION_INVOCATION:
+            visitor.visitEnter((FunctionInvocationNode) node);
+            break;
+        case IDENTIFIER:
+            visitor.visit((IdentifierNode) node);
+            break;
+        case IF_STATEMENT:
+            visitor.visitEnter((IfStatementNode) node);
+            break;
+        case INTEGER_CONSTANT:
+            visitor.visit((IntegerConstantNode) node);
+            break;
+        case NEW_ARRAY:
+            visitor.visitEnter((NewArrayNode) node);
+            break;
+        case NEWLINE:
+            visitor.visit((NewlineNode) node);
+            break;
+        case OPERATOR:
+            visitor.visitEnter((OperatorNode) node);
+            break;
+        case PARAMETER_LIST:
+            visitor.visitEnter((ParameterListNode) node);
+            break;
+        case PARAMETER:
+            visitor.visitEnter((ParameterNode) node);
+            break;
+        case POPULATED_ARRAY:
+            visitor.visitEnter((PopulatedArrayNode) node);
+            break;
+        case PRINT_STATEMENT:
+            visitor.visitEnter((PrintStatementNode) node);
+            break;
+        case PROGRAM:
+            visitor.visitEnter((ProgramNode) node);
+            break;
+        case RETURN_STATEMENT:
+            visitor.visitEnter((ReturnStatementNode) node);
+            break;
+        case SPACE:
+            visitor.visit((SpaceNode) node);
+            break;
+        case STRING_CONSTANT:
+            visitor.visit((StringConstantNode) node);
+            break;
+        case TAB:
+            visitor.visit((TabNode) node);
+            break;
+        case TARGET_EXPRESSION:
+            visitor.visitEnter((TargetExpressionNode) node);
+            break;
+        case WHILE_STATEMENT:
+            visitor.visitEnter((WhileStatementNode) node);
+            break;
+        }
     }
 
-    protected void visitChildren(ParseNodeVisitor visitor) {
-        for (ParseNode child : children) {
-            child.accept(visitor);
+    private static void visitLeave(ParseNode node, ParseNodeVisitor visitor) {
+        switch (node.kind) {
+        case ARRAY_INDEX:
+            visitor.visitLeave((ArrayIndexNode) node);
+            break;
+        case ASSIGNMENT_STATEMENT:
+            visitor.visitLeave((AssignmentStatementNode) node);
+            break;
+        case BLOCK_STATEMENT:
+            visitor.visitLeave((BlockStatementNode) node);
+            break;
+        case CALL_STATEMENT:
+            visitor.visitLeave((CallStatementNode) node);
+            break;
+        case CAST:
+            visitor.visitLeave((CastNode) node);
+            break;
+        case DECLARATION:
+            visitor.visitLeave((DeclarationNode) node);
+            break;
+        case EXPRESSION_LIST:
+            visitor.visitLeave((ExpressionListNode) node);
+            break;
+        case FOR_STATEMENT:
+            visitor.visitLeave((ForStatementNode) node);
+            break;
+        case FUNCTION_DEFINITION:
+            visitor.visitLeave((FunctionDefinitionNode) node);
+            break;
+        case FUNCTION_INVOCATION:
+            visitor.visitLeave((FunctionInvocationNode) node);
+            break;
+        case IF_STATEMENT:
+            visitor.visitLeave((IfStatementNode) node);
+            break;
+        case NEW_ARRAY:
+            visitor.visitLeave((NewArrayNode) node);
+            break;
+        case OPERATOR:
+            visitor.visitLeave((OperatorNode) node);
+            break;
+        case PARAMETER_LIST:
+            visitor.visitLeave((ParameterListNode) node);
+            break;
+        case PARAMETER:
+            visitor.visitLeave((ParameterNode) node);
+            break;
+        case POPULATED_ARRAY:
+            visitor.visitLeave((PopulatedArrayNode) node);
+            break;
+        case PRINT_STATEMENT:
+            visitor.visitLeave((PrintStatementNode) node);
+            break;
+        case PROGRAM:
+            visitor.visitLeave((ProgramNode) node);
+            break;
+        case RETURN_STATEMENT:
+            visitor.visitLeave((ReturnStatementNode) node);
+            break;
+        case TARGET_EXPRESSION:
+            visitor.visitLeave((TargetExpressionNode) node);
+            break;
+        case WHILE_STATEMENT:
+            visitor.visitLeave((WhileStatementNode) node);
+            break;
+        default:
+            throw new IllegalStateException("visitLeave for leaf node " + node);
         }
     }
 
@@ -0,0 +1,93 @@
+package parseTree;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Parse trees kept on disk beside their source files, so that a source file that has not changed
+ * need not be lexed and parsed again. The tree for <code>name.tan</code> is kept, as the binary
+ * form of a CompactTree, in <code>name.tan.ast</code>, under the SHA-256 hash of the source's
+ * bytes. Use the factory <code>make(filename)</code>, which hashes the source as it is then;
+ * <code>load()</code> gives the tree, as a CompactTree view, if the cache file holds one for
+ * those contents, and null otherwise, and <code>store(tree)</code> keeps a tree for them.
+ * <p>
+ * Only trees parsed without errors should be stored: loading a tree skips the lexical analyzer
+ * and the parser, and with them any error messages they would log. A cache file that cannot be
+ * read or written is treated as missing.
+ */
+public class ParseTreeCache {
+    public static final String SUFFIX = ".ast";
+
+    // bumped whenever the binary form, or the node kinds it numbers, changes.
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAGIC = 0x54414e41; // "TANA"
+    private static final int HASH_LENGTH = 32;
+
+
+    private final String filename;
+    private final File cacheFile;
+    private final byte[] hash;
+
+    public static ParseTreeCache make(String filename) throws IOException {
+        return new ParseTreeCache(filename, hashOf(filename));
+    }
+
+    private ParseTreeCache(String filename, byte[] hash) {
+        this.filename = filename;
+        this.cacheFile = new File(cacheFilename(filename));
+        this.hash = hash;
+    }
+
+    public static String cacheFilename(String filename) {
+        return filename + SUFFIX;
+    }
+
+    public ParseNode load() {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(cacheFile.toPath()));
+            if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            byte[] storedHash = new byte[HASH_LENGTH];
+            in.get(storedHash);
+            if (!Arrays.equals(hash, storedHash)) {
+                return null;
+            }
+            return CompactTree.readFrom(in, filename).root();
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    public void store(ParseNode tree) {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(cacheFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.write(hash);
+            CompactTree.compact(tree).writeTo(out, filename);
+        } catch (IOException | RuntimeException e) {
+            cacheFile.delete();
+        }
+    }
+
+    private static byte[] hashOf(String filename) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return digest.digest(Files.readAllBytes(new File(filename).toPath()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
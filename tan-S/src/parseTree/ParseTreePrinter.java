@@ -1,8 +1,20 @@
 package parseTree;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
 /**
  * Through the static method <code>print</code>, this class will create a string that corresponds to
- * a pretty-printing of the AST subtree rooted at a given node.
+ * a pretty-printing of the AST subtree rooted at a given node. The other <code>print</code> methods
+ * write the same text to a Writer or OutputStream as the tree is walked, so that the printout
+ * is never held in memory all at once.
  */
 public class ParseTreePrinter {
     private static final int INDENT_INCREMENT = 4;
@@ -54,49 +66,88 @@ public class ParseTreePrinter {
      * @return string representation of AST
      */
     static public String print(ParseNode node) {
-        ParseTreePrinter printer = new ParseTreePrinter(0);
-        return printer.makeString(node);
+        StringWriter writer = new StringWriter();
+        try {
+            print(node, writer);
+        } catch (IOException e) {
+            throw new IllegalStateException("ParseTreePrinter: StringWriter failed", e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Writes the representation of the AST subtree rooted at the given node to a Writer, as the
+     * tree is walked. The writer is not flushed or closed.
+     * 
+     * @param node root of the subtree to print
+     * @param writer where the representation is written
+     * @throws IOException if the writer fails
+     */
+    static public void print(ParseNode node, Writer writer) throws IOException {
+        ParseTreePrinter printer = new ParseTreePrinter(0, writer);
+        printer.appendIndentedSubtree(node, printer.baseIndentation);
+    }
+
+    /**
+     * Writes the representation of the AST subtree rooted at the given node to an OutputStream,
+     * in the platform's default charset, through a buffer. The stream is flushed but not closed.
+     * 
+     * @param node root of the subtree to print
+     * @param out where the representation is written
+     * @throws IOException if the stream fails
+     */
+    static public void print(ParseNode node, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out));
+        print(node, writer);
+        writer.flush();
     }
 
 
     // per-instance code
     private final int baseIndentation;
-    private StringBuffer result;
+    private final Writer result;
 
-    // Constructor and main interface (makeString).
-    private ParseTreePrinter(int indentAmount) {
+    // Constructor and main interface (the print methods above).
+    private ParseTreePrinter(int indentAmount, Writer result) {
         super();
         this.baseIndentation = indentAmount;
+        this.result = result;
     }
 
-    private String makeString(ParseNode node) {
-        result = new StringBuffer();
-        appendIndentedSubtree(node, baseIndentation);
-        return result.toString();
-    }
-
-    // main logic for printing indented trees.
-    private void appendIndentedSubtree(ParseNode node, int indentAmount) {
-        appendIndentedLineFor(node, indentAmount);
-
-        for (ParseNode child : node.children) {
-            appendIndentedSubtree(child, indentAmount + INDENT_INCREMENT);
+    // main logic for printing indented trees: a preorder walk on an explicit stack,
+    // so that deeply nested trees cannot overflow the Java stack.
+    private void appendIndentedSubtree(ParseNode root, int rootIndentAmount) throws IOException {
+        Deque<ParseNode> nodes = new ArrayDeque<ParseNode>();
+        Deque<Integer> indentAmounts = new ArrayDeque<Integer>();
+        nodes.push(root);
+        indentAmounts.push(rootIndentAmount);
+
+        while (!nodes.isEmpty()) {
+            ParseNode node = nodes.pop();
+            int indentAmount = indentAmounts.pop();
+            appendIndentedLineFor(node, indentAmount);
+
+            List<ParseNode> children = node.children();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                nodes.push(children.get(i));
+                indentAmounts.push(indentAmount + INDENT_INCREMENT);
+            }
         }
     }
 
     // appends the information for the node, indented by the indentAmount.
-    private void appendIndentedLineFor(ParseNode node, int indentAmount) {
+    private void appendIndentedLineFor(ParseNode node, int indentAmount) throws IOException {
         indent(indentAmount);
         appendLineFor(node);
     }
 
-    private void indent(int indent) {
+    private void indent(int indent) throws IOException {
         for (int i = 0; i < indent; i++) {
-            result.append(' ');
+            result.write(' ');
         }
     }
 
-    private void appendLineFor(ParseNode node) {
+    private void appendLineFor(ParseNode node) throws IOException {
         appendNodeClass(node);
         appendToken(node);
         appendType(node);
@@ -107,25 +158,25 @@ public class ParseTreePrinter {
 
     // methods for the four pieces of information that we print;
     // each one appends only if the current printLevel allows it to.
-    private void appendNodeClass(ParseNode node) {
+    private void appendNodeClass(ParseNode node) throws IOException {
         if (printLevel.printNodeClass()) {
             result.append(node.getClass().getSimpleName() + " ");
         }
     }
 
-    private void appendToken(ParseNode node) {
+    private void appendToken(ParseNode node) throws IOException {
         if (printLevel.printToken()) {
             result.append(node.getToken().toString() + " ");
         }
     }
 
-    private void appendType(ParseNode node) {
+    private void appendType(ParseNode node) throws IOException {
         if (printLevel.printDecorations()) {
             result.append(node.getType().infoString() + " ");
         }
     }
 
-    private void appendAllocatedSize(ParseNode node) {
+    private void appendAllocatedSize(ParseNode node) throws IOException {
         if (printLevel.printDecorations() && node.hasScope()) {
             result.append("[scope:" + node.getScope().getAllocatedSize() + " bytes] ");
         }
@@ -0,0 +1,51 @@
+package parseTree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import parseTree.nodeTypes.NodeKind;
+import semanticAnalyzer.types.Type;
+import tokens.Token;
+
+/**
+ * What the Parser builds its tree with. A node is named by an int handle, given out in the order
+ * the nodes are made, and gets its children (in order) after it is made. <code>ParseNodes</code>
+ * builds ParseNodes; a <code>CompactTree.Arena</code> builds the arrays of a CompactTree, without
+ * making any ParseNode.
+ */
+public interface TreeBuilder {
+    // a new node without children. The type is the one NodeKind.make takes.
+    int node(NodeKind kind, Token token, Type type);
+
+    // adds the child as the last child of the parent.
+    void appendChild(int parent, int child);
+
+    // a new node with the given children.
+    default int withChildren(NodeKind kind, Token token, Type type, int... children) {
+        int result = node(kind, token, type);
+        for (int child : children) {
+            appendChild(result, child);
+        }
+        return result;
+    }
+
+
+    public static class ParseNodes implements TreeBuilder {
+        private final List<ParseNode> nodes = new ArrayList<ParseNode>();
+
+        @Override
+        public int node(NodeKind kind, Token token, Type type) {
+            nodes.add(kind.make(token, type));
+            return nodes.size() - 1;
+        }
+
+        @Override
+        public void appendChild(int parent, int child) {
+            nodes.get(parent).appendChild(nodes.get(child));
+        }
+
+        public ParseNode parseNode(int node) {
+            return nodes.get(node);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.Token;
 
 public class ArrayIndexNode extends ParseNode {
@@ -17,11 +16,6 @@ public class ArrayIndexNode extends ParseNode {
         return node;
     }
 
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
-    }
 
     public boolean isMutable() {
         return true;
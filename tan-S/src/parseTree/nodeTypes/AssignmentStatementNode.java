@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.Token;
 
 public class AssignmentStatementNode extends ParseNode {
@@ -17,10 +16,4 @@ public class AssignmentStatementNode extends ParseNode {
         node.appendChild(expression);
         return node;
     }
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
-    }
 }
@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.Token;
 
 public class BlockStatementNode extends ParseNode {
@@ -16,14 +15,4 @@ public class BlockStatementNode extends ParseNode {
 
     ////////////////////////////////////////////////////////////
     // no attributes
-
-
-    ///////////////////////////////////////////////////////////
-    // boilerplate for visitors
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
-    }
 }
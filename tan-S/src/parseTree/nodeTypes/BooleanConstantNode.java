@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import lexicalAnalyzer.Keyword;
 import tokens.LextantToken;
 import tokens.Token;
@@ -26,12 +25,4 @@ public class BooleanConstantNode extends ParseNode {
     public LextantToken lextantToken() {
         return (LextantToken) token;
     }
-
-    ///////////////////////////////////////////////////////////
-    // accept a visitor
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visit(this);
-    }
-
 }
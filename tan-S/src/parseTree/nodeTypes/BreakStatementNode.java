@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.Token;
 
 public class BreakStatementNode extends ParseNode {
@@ -9,8 +8,4 @@ public class BreakStatementNode extends ParseNode {
     public BreakStatementNode(Token token) {
         super(token);
     }
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visit(this);
-    }
 }
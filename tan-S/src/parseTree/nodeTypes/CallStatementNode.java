@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.Token;
 
 public class CallStatementNode extends ParseNode {
@@ -9,10 +8,4 @@ public class CallStatementNode extends ParseNode {
     public CallStatementNode(Token token) {
         super(token);
     }
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
-    }
 }
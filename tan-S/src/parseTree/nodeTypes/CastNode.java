@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import semanticAnalyzer.signatures.FunctionSignature;
 import semanticAnalyzer.types.Type;
 import tokens.Token;
@@ -23,11 +22,6 @@ public class CastNode extends ParseNode {
         return result;
     }
 
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
-    }
 
     public Type getCastType() {
         return castType;
@@ -40,5 +34,4 @@ public class CastNode extends ParseNode {
     public FunctionSignature getSignature() {
         return signature;
     }
-    
 }
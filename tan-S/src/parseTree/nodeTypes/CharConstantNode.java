@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.CharToken;
 import tokens.Token;
 
@@ -14,8 +13,4 @@ public class CharConstantNode extends ParseNode {
     public char getValue() {
         return ((CharToken) token).getValue();
     }
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visit(this);
-    }
 }
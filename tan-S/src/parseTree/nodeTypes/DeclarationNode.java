@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import lexicalAnalyzer.Keyword;
 import lexicalAnalyzer.Lextant;
 import tokens.LextantToken;
@@ -41,14 +40,4 @@ public class DeclarationNode extends ParseNode {
         node.appendChild(initializer);
         return node;
     }
-
-
-    ///////////////////////////////////////////////////////////
-    // boilerplate for visitors
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
-    }
 }
@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.Token;
 
 public class ErrorNode extends ParseNode {
@@ -13,12 +12,4 @@ public class ErrorNode extends ParseNode {
     public ErrorNode(Token token) {
         super(token);
     }
-
-
-    ///////////////////////////////////////////////////////////
-    // boilerplate for visitors
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visit(this);
-    }
 }
@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.FloatToken;
 import tokens.Token;
 
@@ -14,9 +13,4 @@ public class FloatConstantNode extends ParseNode {
     public double getValue() {
         return ((FloatToken) token).getValue();
     }
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visit(this);
-    }
-
 }
@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.Token;
 
 public class ForStatementNode extends ParseNode {
@@ -16,11 +15,6 @@ public class ForStatementNode extends ParseNode {
         super(token);
     }
 
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
-    }
 
     public static ParseNode withChildren(Token forToken, ParseNode id, ParseNode from, ParseNode to,
             ParseNode body) {
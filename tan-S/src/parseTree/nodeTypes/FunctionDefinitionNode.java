@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import semanticAnalyzer.types.Type;
 import tokens.Token;
 
@@ -24,11 +23,6 @@ public class FunctionDefinitionNode extends ParseNode {
         return result;
     }
 
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
-    }
 
     public void setEpilogueLabel(String epilogueLabel) {
         this.epilogueLabel = epilogueLabel;
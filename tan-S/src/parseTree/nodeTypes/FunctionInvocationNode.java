@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.Token;
 
 public class FunctionInvocationNode extends ParseNode {
@@ -10,11 +9,6 @@ public class FunctionInvocationNode extends ParseNode {
         super(token);
     }
 
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
-    }
 
     public static ParseNode withChildren(Token token, ParseNode literal, ParseNode expressionList) {
         FunctionInvocationNode result = new FunctionInvocationNode(token);
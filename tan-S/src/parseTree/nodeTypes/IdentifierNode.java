@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import logging.TanLogger;
 import symbolTable.Binding;
 import symbolTable.Scope;
@@ -60,11 +59,19 @@ public class IdentifierNode extends ParseNode {
         return Binding.nullInstance();
     }
 
+    // the scope holding the binding, as found by findVariableBinding or recorded by a visitor
+    // that resolved this identifier itself.
     public Scope getDeclarationScope() {
-        findVariableBinding();
+        if (declarationScope == null) {
+            findVariableBinding();
+        }
         return declarationScope;
     }
 
+    public void setDeclarationScope(Scope declarationScope) {
+        this.declarationScope = declarationScope;
+    }
+
     public void useBeforeDefineError() {
         TanLogger log = TanLogger.getLogger("compiler.semanticAnalyzer.identifierNode");
         Token token = getToken();
@@ -72,13 +79,6 @@ public class IdentifierNode extends ParseNode {
                 + token.getLocation());
     }
 
-    ///////////////////////////////////////////////////////////
-    // accept a visitor
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visit(this);
-    }
-
     ///////////////////////////////////////////////////////////
     // mutability
     public boolean isMutable() {
@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.NumberToken;
 import tokens.Token;
 
@@ -25,12 +24,4 @@ public class IntegerConstantNode extends ParseNode {
     public NumberToken numberToken() {
         return (NumberToken) token;
     }
-
-    ///////////////////////////////////////////////////////////
-    // accept a visitor
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visit(this);
-    }
-
 }
@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import semanticAnalyzer.types.Type;
 import tokens.Token;
 
@@ -17,10 +16,4 @@ public class NewArrayNode extends ParseNode {
         result.appendChild(expression);
         return result;
     }
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
-    }
 }
@@ -0,0 +1,121 @@
+package parseTree.nodeTypes;
+
+import java.util.function.Function;
+
+import parseTree.ParseNode;
+import semanticAnalyzer.types.Type;
+import tokens.Token;
+
+/**
+ * The kinds of ParseNode, one per node class. Every node carries its kind, and
+ * <code>ParseNode.accept</code> dispatches on it with a switch. A leaf kind is visited with
+ * <code>visit</code>, without visiting its children; the others with <code>visitEnter</code> and
+ * <code>visitLeave</code>.
+ * <p>
+ * A CompactTree stores nodes by kind. A kind makes a childless node of its class from a token and
+ * a type with <code>make(token, type)</code>; the type is the one <code>typeOf(node)</code> reads
+ * back, which for a CastNode is its cast type.
+ */
+public enum NodeKind {
+    ARRAY_INDEX(ArrayIndexNode.class, ArrayIndexNode::new),
+    ASSIGNMENT_STATEMENT(AssignmentStatementNode.class, AssignmentStatementNode::new),
+    BLOCK_STATEMENT(BlockStatementNode.class, BlockStatementNode::new),
+    BOOLEAN_CONSTANT(BooleanConstantNode.class, BooleanConstantNode::new, true),
+    BREAK_STATEMENT(BreakStatementNode.class, BreakStatementNode::new, true),
+    CALL_STATEMENT(CallStatementNode.class, CallStatementNode::new),
+    CAST(CastNode.class, CastNode::new) {
+        @Override
+        public ParseNode make(Token token, Type type) {
+            CastNode result = new CastNode(token);
+            result.castType = type;
+            return result;
+        }
+        @Override
+        public Type typeOf(ParseNode node) {
+            return ((CastNode) node).getCastType();
+        }
+    },
+    CHAR_CONSTANT(CharConstantNode.class, CharConstantNode::new, true),
+    CONTINUE_STATEMENT(ContinueStatementNode.class, ContinueStatementNode::new, true),
+    DECLARATION(DeclarationNode.class, DeclarationNode::new),
+    ERROR(ErrorNode.class, ErrorNode::new, true),
+    EXPRESSION_LIST(ExpressionListNode.class, ExpressionListNode::new),
+    FLOAT_CONSTANT(FloatConstantNode.class, FloatConstantNode::new, true),
+    FOR_STATEMENT(ForStatementNode.class, ForStatementNode::new),
+    FUNCTION_DEFINITION(FunctionDefinitionNode.class, FunctionDefinitionNode::new),
+    FUNCTION_INVOCATION(FunctionInvocationNode.class, FunctionInvocationNode::new),
+    IDENTIFIER(IdentifierNode.class, IdentifierNode::new, true),
+    IF_STATEMENT(IfStatementNode.class, IfStatementNode::new),
+    INTEGER_CONSTANT(IntegerConstantNode.class, IntegerConstantNode::new, true),
+    NEW_ARRAY(NewArrayNode.class, NewArrayNode::new),
+    NEWLINE(NewlineNode.class, NewlineNode::new, true),
+    OPERATOR(OperatorNode.class, OperatorNode::new),
+    PARAMETER_LIST(ParameterListNode.class, ParameterListNode::new),
+    PARAMETER(ParameterNode.class, ParameterNode::new),
+    POPULATED_ARRAY(PopulatedArrayNode.class, PopulatedArrayNode::new),
+    PRINT_STATEMENT(PrintStatementNode.class, PrintStatementNode::new),
+    PROGRAM(ProgramNode.class, ProgramNode::new),
+    RETURN_STATEMENT(ReturnStatementNode.class, ReturnStatementNode::new),
+    SPACE(SpaceNode.class, SpaceNode::new, true),
+    STRING_CONSTANT(StringConstantNode.class, StringConstantNode::new, true),
+    TAB(TabNode.class, TabNode::new, true),
+    TARGET_EXPRESSION(TargetExpressionNode.class, TargetExpressionNode::new),
+    WHILE_STATEMENT(WhileStatementNode.class, WhileStatementNode::new);
+
+    private static final ClassValue<NodeKind> kindsByClass = new ClassValue<NodeKind>() {
+        @Override
+        protected NodeKind computeValue(Class<?> nodeClass) {
+            for (NodeKind kind : values()) {
+                if (kind.nodeClass == nodeClass) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+    };
+
+    private final Class<? extends ParseNode> nodeClass;
+    private final Function<Token, ParseNode> constructor;
+    private final boolean isLeaf; // true for the leaf kinds, given as the third argument above.
+
+    private NodeKind(Class<? extends ParseNode> nodeClass, Function<Token, ParseNode> constructor) {
+        this(nodeClass, constructor, false);
+    }
+
+    private NodeKind(Class<? extends ParseNode> nodeClass, Function<Token, ParseNode> constructor,
+            boolean isLeaf) {
+        this.nodeClass = nodeClass;
+        this.constructor = constructor;
+        this.isLeaf = isLeaf;
+    }
+
+    public Class<? extends ParseNode> getNodeClass() {
+        return nodeClass;
+    }
+
+    public boolean isLeaf() {
+        return isLeaf;
+    }
+
+    public ParseNode make(Token token, Type type) {
+        ParseNode result = constructor.apply(token);
+        result.setType(type);
+        return result;
+    }
+
+    public Type typeOf(ParseNode node) {
+        return node.getType();
+    }
+
+    public static NodeKind of(ParseNode node) {
+        return node.getKind();
+    }
+
+    public static NodeKind of(Class<? extends ParseNode> nodeClass) {
+        NodeKind result = kindsByClass.get(nodeClass);
+        if (result == null) {
+            throw new IllegalArgumentException("no NodeKind for " + nodeClass.getSimpleName());
+        }
+        return result;
+    }
+}
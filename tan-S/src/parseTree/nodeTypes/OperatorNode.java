@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import semanticAnalyzer.signatures.FunctionSignature;
 import lexicalAnalyzer.Lextant;
 import tokens.LextantToken;
@@ -43,15 +42,6 @@ public class OperatorNode extends ParseNode {
         return node;
     }
 
-    ///////////////////////////////////////////////////////////
-    // boilerplate for visitors
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
-    }
-
     public void setSignature(FunctionSignature signature) {
         this.signature = signature;
     }
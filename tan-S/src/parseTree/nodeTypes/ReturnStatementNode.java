@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.Token;
 
 public class ReturnStatementNode extends ParseNode {
@@ -10,11 +9,6 @@ public class ReturnStatementNode extends ParseNode {
         super(token);
     }
 
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
-    }
 
     public Object getFunctionDefinitionNode() {
         ParseNode parent = this.getParent();
@@ -24,5 +18,4 @@ public class ReturnStatementNode extends ParseNode {
         assert parent != null : "Return statement not in function definition";
         return parent;
     }
-
 }
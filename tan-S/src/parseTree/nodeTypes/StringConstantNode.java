@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.StringToken;
 import tokens.Token;
 
@@ -15,8 +14,4 @@ public class StringConstantNode extends ParseNode {
         assert token instanceof StringToken;
         return ((StringToken) token).getValue();
     }
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visit(this);
-    }
 }
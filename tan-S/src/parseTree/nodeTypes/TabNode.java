@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.Token;
 
 public class TabNode extends ParseNode {
@@ -13,12 +12,4 @@ public class TabNode extends ParseNode {
     public TabNode(Token token) {
         super(token);
     }
-
-
-    ///////////////////////////////////////////////////////////
-    // boilerplate for visitors
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visit(this);
-    }
 }
@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.Token;
 
 public class TargetExpressionNode extends ParseNode {
@@ -14,11 +13,4 @@ public class TargetExpressionNode extends ParseNode {
         assert this.nChildren() == 1;
         return this.child(0).isMutable();
     }
-
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
-    }
-
 }
@@ -1,7 +1,6 @@
 package parseTree.nodeTypes;
 
 import parseTree.ParseNode;
-import parseTree.ParseNodeVisitor;
 import tokens.Token;
 
 public class WhileStatementNode extends ParseNode {
@@ -13,11 +12,6 @@ public class WhileStatementNode extends ParseNode {
         super(token);
     }
 
-    public void accept(ParseNodeVisitor visitor) {
-        visitor.visitEnter(this);
-        visitChildren(visitor);
-        visitor.visitLeave(this);
-    }
 
     public void setEndLabel(String endLabel) {
         this.endLabel = endLabel;
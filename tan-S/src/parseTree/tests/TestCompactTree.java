@@ -0,0 +1,86 @@
+package parseTree.tests;
+
+import junit.framework.TestCase;
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.CompactTree;
+import parseTree.ParseNode;
+import parseTree.nodeTypes.NodeKind;
+import parser.Parser;
+import semanticAnalyzer.SemanticAnalyzer;
+
+public class TestCompactTree extends TestCase {
+    private static final String FIXTURE_FILENAME = "src/applications/tests/fixtures/coinTest.tan";
+
+    public void testViewPrintsLikeTree() {
+        ParseNode tree = parse();
+        CompactTree compact = CompactTree.compact(tree);
+
+        assertEquals(tree.toString(), compact.root().toString());
+        assertEquals(NodeKind.PROGRAM, compact.kind(CompactTree.ROOT));
+        assertEquals(CompactTree.NO_NODE, compact.nextSibling(CompactTree.ROOT));
+        assertSame(tree.getToken(), compact.token(CompactTree.ROOT));
+    }
+
+    public void testPreorderLinks() {
+        ParseNode tree = parse();
+        CompactTree compact = CompactTree.compact(tree);
+
+        int[] next = { CompactTree.ROOT };
+        assertSameShape(tree, compact, CompactTree.ROOT, next);
+        assertEquals(compact.size(), next[0]);
+    }
+
+    public void testViewAnalyzesLikeTree() {
+        String expected = SemanticAnalyzer.analyze(parse()).toString();
+        ParseNode view = CompactTree.compact(parse()).root();
+        assertEquals(expected, SemanticAnalyzer.analyze(view).toString());
+    }
+
+    public void testParserBuildsTheSameArrays() {
+        CompactTree expected = CompactTree.compact(parse());
+        CompactTree built = Parser.parseCompact(LexicalAnalyzer.make(FIXTURE_FILENAME));
+
+        assertEquals(expected.size(), built.size());
+        assertEquals(expected.tokenCount(), built.tokenCount());
+        for (int node = 0; node < expected.size(); node++) {
+            assertSame(expected.kind(node), built.kind(node));
+            assertEquals(expected.token(node).toString(), built.token(node).toString());
+            assertSame(expected.type(node), built.type(node));
+            assertEquals(expected.firstChild(node), built.firstChild(node));
+            assertEquals(expected.nextSibling(node), built.nextSibling(node));
+        }
+    }
+
+    public void testBuiltTreeAnalyzesLikeTree() {
+        String expected = SemanticAnalyzer.analyze(parse()).toString();
+        CompactTree built = Parser.parseCompact(LexicalAnalyzer.make(FIXTURE_FILENAME));
+        assertEquals(expected, SemanticAnalyzer.analyze(built).toString());
+    }
+
+    public void testSideTable() {
+        CompactTree compact = CompactTree.compact(parse());
+        CompactTree.SideTable<String> names = compact.newSideTable();
+        names.set(CompactTree.ROOT, "root");
+
+        assertEquals("root", names.get(CompactTree.ROOT));
+        assertNull(names.get(compact.size() - 1));
+    }
+
+    private void assertSameShape(ParseNode node, CompactTree compact, int index, int[] next) {
+        assertEquals(index, next[0]++);
+        assertSame(node.getClass(), compact.kind(index).getNodeClass());
+        assertSame(node.getToken(), compact.token(index));
+
+        int child = compact.firstChild(index);
+        for (ParseNode childNode : node.getChildren()) {
+            assertEquals(next[0], child);
+            assertSameShape(childNode, compact, child, next);
+            child = compact.nextSibling(child);
+        }
+        assertEquals(CompactTree.NO_NODE, child);
+    }
+
+    private ParseNode parse() {
+        return Parser.parse(LexicalAnalyzer.make(FIXTURE_FILENAME));
+    }
+}
@@ -0,0 +1,103 @@
+package parseTree.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.ParseNode;
+import parseTree.ParseNodeVisitor;
+import parseTree.nodeTypes.NodeKind;
+import parser.Parser;
+
+public class TestParseNodeVisitor extends TestCase {
+    public void testVisitOrder() throws IOException {
+        ParseNode tree = parse("main {\n\tprint 1 + 2 \\n;\n}\n");
+        RecordingVisitor visitor = new RecordingVisitor();
+        tree.accept(visitor);
+
+        assertEquals(Arrays.asList(
+                "enter ProgramNode", "enter BlockStatementNode", "enter PrintStatementNode",
+                "enter OperatorNode", "leaf IntegerConstantNode", "leaf IntegerConstantNode",
+                "leave OperatorNode", "leaf NewlineNode", "leave PrintStatementNode",
+                "leave BlockStatementNode", "leave ProgramNode"), visitor.calls);
+    }
+
+    public void testVisitSubtree() throws IOException {
+        ParseNode tree = parse("main {\n\tprint 1 + 2 \\n;\n}\n");
+        RecordingVisitor visitor = new RecordingVisitor();
+        tree.child(0).child(0).child(0).accept(visitor);
+
+        assertEquals(Arrays.asList("enter OperatorNode", "leaf IntegerConstantNode",
+                "leaf IntegerConstantNode", "leave OperatorNode"), visitor.calls);
+    }
+
+    public void testNodesCarryTheirKinds() throws IOException {
+        ParseNode tree = parse("subr int f(int a) {\n\treturn a;\n}\n"
+                + "main {\n\tvar x := [1, 2];\n\tif ([x : 0] > 1) {\n\t\tprint <float>(f(2)) \\n;\n\t}\n}\n");
+        final List<NodeKind> leafKinds = new ArrayList<NodeKind>();
+        tree.accept(new ParseNodeVisitor.Default() {
+            @Override
+            public void defaultVisitEnter(ParseNode node) {
+                assertSame(node.getClass(), node.getKind().getNodeClass());
+                assertFalse(node.getKind().isLeaf());
+            }
+            @Override
+            public void defaultVisitForLeaf(ParseNode node) {
+                assertSame(node.getClass(), node.getKind().getNodeClass());
+                leafKinds.add(node.getKind());
+            }
+        });
+        assertTrue(leafKinds.contains(NodeKind.IDENTIFIER));
+        for (NodeKind kind : leafKinds) {
+            assertTrue(kind.isLeaf());
+        }
+    }
+
+    // a left-deep chain far deeper than a recursive walk could follow on the default stack.
+    public void testDeepTree() throws IOException {
+        int operators = 200000;
+        StringBuilder source = new StringBuilder("main {\n\tprint 1");
+        for (int i = 0; i < operators; i++) {
+            source.append(" + 1");
+        }
+        source.append(";\n}\n");
+        ParseNode tree = parse(source.toString());
+
+        RecordingVisitor visitor = new RecordingVisitor();
+        tree.accept(visitor);
+        assertEquals(6 + 2 * operators + (operators + 1), visitor.calls.size());
+        assertEquals("leave ProgramNode", visitor.calls.get(visitor.calls.size() - 1));
+    }
+
+    private static class RecordingVisitor extends ParseNodeVisitor.Default {
+        private final List<String> calls = new ArrayList<String>();
+
+        @Override
+        public void defaultVisitEnter(ParseNode node) {
+            calls.add("enter " + node.getClass().getSimpleName());
+        }
+
+        @Override
+        public void defaultVisitLeave(ParseNode node) {
+            calls.add("leave " + node.getClass().getSimpleName());
+        }
+
+        @Override
+        public void defaultVisitForLeaf(ParseNode node) {
+            calls.add("leaf " + node.getClass().getSimpleName());
+        }
+    }
+
+    private ParseNode parse(String source) throws IOException {
+        File file = File.createTempFile("visitor", ".tan");
+        file.deleteOnExit();
+        Files.write(file.toPath(), source.getBytes(Charset.defaultCharset()));
+        return Parser.parse(LexicalAnalyzer.make(file.getPath()));
+    }
+}
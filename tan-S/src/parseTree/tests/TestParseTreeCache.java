@@ -0,0 +1,61 @@
+package parseTree.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import benchmarks.SyntheticCorpus;
+import junit.framework.TestCase;
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.ParseNode;
+import parseTree.ParseTreeCache;
+import parseTree.ParseTreePrinter;
+import parser.Parser;
+
+public class TestParseTreeCache extends TestCase {
+    private File directory;
+    private File source;
+
+    @Override
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("tanCache").toFile();
+        source = SyntheticCorpus.make(3, 2, 4, 4).writeTo(directory);
+    }
+
+    @Override
+    protected void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    public void testLoadGivesStoredTree() throws IOException {
+        ParseNode tree = Parser.parse(LexicalAnalyzer.make(source.getPath()));
+        ParseTreeCache cache = ParseTreeCache.make(source.getPath());
+        assertNull(cache.load());
+        cache.store(tree);
+
+        ParseNode loaded = ParseTreeCache.make(source.getPath()).load();
+        assertNotNull(loaded);
+        assertEquals(ParseTreePrinter.print(tree), ParseTreePrinter.print(loaded));
+    }
+
+    public void testChangedSourceMisses() throws IOException {
+        ParseTreeCache.make(source.getPath()).store(Parser.parse(LexicalAnalyzer.make(source.getPath())));
+        Files.write(source.toPath(), "main {\n}\n".getBytes(), StandardOpenOption.APPEND);
+
+        assertNull(ParseTreeCache.make(source.getPath()).load());
+    }
+
+    public void testDamagedCacheMisses() throws IOException {
+        ParseTreeCache.make(source.getPath()).store(Parser.parse(LexicalAnalyzer.make(source.getPath())));
+        File cacheFile = new File(ParseTreeCache.cacheFilename(source.getPath()));
+        byte[] bytes = Files.readAllBytes(cacheFile.toPath());
+        Files.write(cacheFile.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertNull(ParseTreeCache.make(source.getPath()).load());
+    }
+}
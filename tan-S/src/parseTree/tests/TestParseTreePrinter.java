@@ -0,0 +1,37 @@
+package parseTree.tests;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import junit.framework.TestCase;
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.ParseNode;
+import parseTree.ParseTreePrinter;
+import parseTree.ParseTreePrinter.Level;
+import parser.Parser;
+
+public class TestParseTreePrinter extends TestCase {
+    private static final String FIXTURE_FILENAME = "src/applications/tests/fixtures/coinTest.tan";
+
+    public void testStreamsMatchString() throws IOException {
+        ParseNode tree = Parser.parse(LexicalAnalyzer.make(FIXTURE_FILENAME));
+        Level oldLevel = ParseTreePrinter.getPrintLevel();
+        try {
+            for (Level level : Level.values()) {
+                ParseTreePrinter.setPrintLevel(level);
+                String expected = ParseTreePrinter.print(tree);
+
+                StringWriter writer = new StringWriter();
+                ParseTreePrinter.print(tree, writer);
+                assertEquals(expected, writer.toString());
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ParseTreePrinter.print(tree, out);
+                assertEquals(expected, out.toString());
+            }
+        } finally {
+            ParseTreePrinter.setPrintLevel(oldLevel);
+        }
+    }
+}
@@ -1,157 +1,247 @@
 package parser;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import logging.TanLogger;
 import parseTree.*;
-import parseTree.nodeTypes.ArrayIndexNode;
-import parseTree.nodeTypes.AssignmentStatementNode;
-import parseTree.nodeTypes.BooleanConstantNode;
-import parseTree.nodeTypes.BreakStatementNode;
-import parseTree.nodeTypes.CallStatementNode;
-import parseTree.nodeTypes.CastNode;
-import parseTree.nodeTypes.CharConstantNode;
-import parseTree.nodeTypes.ContinueStatementNode;
 import parseTree.nodeTypes.BlockStatementNode;
-import parseTree.nodeTypes.DeclarationNode;
 import parseTree.nodeTypes.ErrorNode;
-import parseTree.nodeTypes.ExpressionListNode;
-import parseTree.nodeTypes.FloatConstantNode;
-import parseTree.nodeTypes.ForStatementNode;
-import parseTree.nodeTypes.FunctionDefinitionNode;
-import parseTree.nodeTypes.FunctionInvocationNode;
-import parseTree.nodeTypes.IdentifierNode;
-import parseTree.nodeTypes.IfStatementNode;
-import parseTree.nodeTypes.IntegerConstantNode;
-import parseTree.nodeTypes.NewArrayNode;
-import parseTree.nodeTypes.NewlineNode;
-import parseTree.nodeTypes.OperatorNode;
-import parseTree.nodeTypes.ParameterListNode;
-import parseTree.nodeTypes.ParameterNode;
-import parseTree.nodeTypes.PopulatedArrayNode;
-import parseTree.nodeTypes.PrintStatementNode;
-import parseTree.nodeTypes.ProgramNode;
-import parseTree.nodeTypes.ReturnStatementNode;
-import parseTree.nodeTypes.SpaceNode;
-import parseTree.nodeTypes.StringConstantNode;
-import parseTree.nodeTypes.TabNode;
-import parseTree.nodeTypes.TargetExpressionNode;
-import parseTree.nodeTypes.WhileStatementNode;
+import parseTree.nodeTypes.NodeKind;
 import semanticAnalyzer.types.ArrayType;
 import semanticAnalyzer.types.PrimitiveType;
 import semanticAnalyzer.types.Type;
 import tokens.*;
+import inputHandler.InputHandler;
+import inputHandler.MappedFileInputHandler;
+import inputHandler.PackedPosition;
+import inputHandler.PushbackCharStream;
+import lexicalAnalyzer.IdentifierPool;
 import lexicalAnalyzer.Keyword;
+import lexicalAnalyzer.LexicalAnalyzer;
 import lexicalAnalyzer.Lextant;
 import lexicalAnalyzer.Punctuator;
 import lexicalAnalyzer.Scanner;
+import lexicalAnalyzer.TokenBuffer;
 
 
+// Reads its tokens by index from a TokenBuffer. Tokens are asked for (with nowReading() and
+// previouslyRead()) only where a parse node or a syntax error needs one. The nodes are built
+// through a TreeBuilder, as ParseNodes or, for parseCompact, into a CompactTree.
 public class Parser {
-    private Scanner scanner;
-    private Token nowReading;
-    private Token previouslyRead;
+    private TokenBuffer tokens;
+    private int cursor;
+    // what the nodes are built with; see parseCompact.
+    private final TreeBuilder trees;
+    // for function-by-function parsing: each skipped function body.
+    private Map<ParseNode, SkippedBody> skippedBodies = new HashMap<ParseNode, SkippedBody>();
+    // for a Parser made by functionByFunction: the file, lexed again for each body, and the
+    // pool of its identifiers.
+    private MappedFileInputHandler source = null;
+    private IdentifierPool identifierPool = null;
+    // for parallel parsing: syntax errors held back instead of logged, or null to log them.
+    private List<String> heldErrors = null;
+
+    ////////////////////////////////////////////////////////////
+    // FIRST sets, and the other sets of terminals the parser decides on,
+    // each computed once from the grammar below.
+
+    private static final TerminalSet FIRST_PROGRAM = TerminalSet.of(Keyword.MAIN, Keyword.FUNCDEF);
+    private static final TerminalSet FIRST_TYPE = TerminalSet.of(Keyword.BOOL, Keyword.INT,
+            Keyword.FLOAT, Keyword.CHAR, Keyword.STRING, Keyword.VOID, Punctuator.OPEN_BRACKET);
+    private static final TerminalSet FIRST_PARAMETER_LIST =
+            TerminalSet.of(Punctuator.CLOSE_PAREN).union(FIRST_TYPE);
+
+    private static final TerminalSet BOOLEAN_LITERALS = TerminalSet.of(Keyword.TRUE, Keyword.FALSE);
+    private static final TerminalSet FIRST_LITERAL = TerminalSet.ofKinds(TokenBuffer.NUMBER,
+            TokenBuffer.IDENTIFIER, TokenBuffer.CHARACTER, TokenBuffer.FLOAT, TokenBuffer.STRING)
+            .union(BOOLEAN_LITERALS);
+    private static final TerminalSet FIRST_ATOMIC_EXPRESSION = TerminalSet.of(Punctuator.OPEN_PAREN,
+            Punctuator.LESS, Punctuator.OPEN_BRACKET, Keyword.NEW).union(FIRST_LITERAL);
+    private static final TerminalSet FIRST_UNARY_EXPRESSION = TerminalSet.of(Punctuator.SUBTRACT,
+            Punctuator.ADD, Punctuator.NOT, Keyword.LENGTH).union(FIRST_ATOMIC_EXPRESSION);
+
+
+    // binding powers of the binary operators, by terminal; 0 for any other terminal.
+    // OPERAND_NAMES[power] names the expression expected after an operator of power - 1.
+    private static final int LOGIC_OR_POWER = 1;
+    private static final int LOGIC_AND_POWER = 2;
+    private static final int COMPARISON_POWER = 3;
+    private static final int ADDITIVE_POWER = 4;
+    private static final int MULTIPLICATIVE_POWER = 5;
+    private static final String[] OPERAND_NAMES = { null, "logic or expression",
+            "logic and expression", "comparison expression", "additiveExpression",
+            "multiplicativeExpression", "unary expression" };
+    private static final int[] BINDING_POWERS = makeBindingPowers();
+
+    private static int[] makeBindingPowers() {
+        int[] result = new int[TokenBuffer.TERMINAL_COUNT];
+        setBindingPower(result, LOGIC_OR_POWER, Punctuator.OR);
+        setBindingPower(result, LOGIC_AND_POWER, Punctuator.AND);
+        setBindingPower(result, COMPARISON_POWER, Punctuator.GREATER, Punctuator.LESS,
+                Punctuator.GREATER_OR_EQUAL, Punctuator.LESS_OR_EQUAL,
+                Punctuator.EQUAL, Punctuator.NOT_EQUAL);
+        setBindingPower(result, ADDITIVE_POWER, Punctuator.ADD, Punctuator.SUBTRACT);
+        setBindingPower(result, MULTIPLICATIVE_POWER, Punctuator.MULTIPLY, Punctuator.DIVIDE);
+        return result;
+    }
+
+    private static void setBindingPower(int[] powers, int power, Punctuator... operators) {
+        for (Punctuator operator : operators) {
+            powers[TokenBuffer.terminalFor(operator)] = power;
+        }
+    }
+
+    private static final TerminalSet FIRST_DECLARATION = TerminalSet.of(Keyword.CONST, Keyword.VAR);
+    private static final TerminalSet FIRST_TARGET_EXPRESSION = TerminalSet.ofKinds(TokenBuffer.IDENTIFIER)
+            .union(TerminalSet.of(Punctuator.OPEN_PAREN, Punctuator.OPEN_BRACKET));
+    private static final TerminalSet FIRST_STATEMENT = TerminalSet.of(Keyword.PRINT,
+            Punctuator.OPEN_BRACE, Keyword.IF, Keyword.WHILE, Keyword.CALL, Keyword.RETURN,
+            Keyword.BREAK, Keyword.CONTINUE, Keyword.FOR)
+            .union(FIRST_DECLARATION, FIRST_TARGET_EXPRESSION);
+    private static final TerminalSet PRINT_SEPARATORS = TerminalSet.of(Punctuator.PRINT_SEPARATOR,
+            Punctuator.PRINT_SPACE, Punctuator.PRINT_NEWLINE, Punctuator.PRINT_TAB);
+    private static final TerminalSet FIRST_PRINT_EXPRESSION_LIST = TerminalSet.of(Punctuator.TERMINATOR)
+            .union(FIRST_UNARY_EXPRESSION, PRINT_SEPARATORS);
 
     public static ParseNode parse(Scanner scanner) {
         Parser parser = new Parser(scanner);
         return parser.parse();
     }
 
+    // the tree parse() builds, built into the arrays of a CompactTree without making a ParseNode.
+    public static CompactTree parseCompact(Scanner scanner) {
+        CompactTree.Arena arena = new CompactTree.Arena();
+        Parser parser = new Parser(TokenBuffer.make(scanner), arena);
+        parser.readToken();
+        return arena.finish(parser.parseProgram());
+    }
+
     public Parser(Scanner scanner) {
+        this(TokenBuffer.make(scanner));
+    }
+
+    private Parser(TokenBuffer tokens) {
+        this(tokens, new TreeBuilder.ParseNodes());
+    }
+
+    private Parser(TokenBuffer tokens, TreeBuilder trees) {
         super();
-        this.scanner = scanner;
+        this.tokens = tokens;
+        this.trees = trees;
+        this.cursor = -1;
     }
 
     public ParseNode parse() {
         readToken();
-        return parseProgram();
+        return parseNode(parseProgram());
     }
 
     ////////////////////////////////////////////////////////////
     // "program" is the start symbol S
     // S -> MAIN block
 
-    private ParseNode parseProgram() {
-        if (!startsProgram(nowReading)) {
+    private int parseProgram() {
+        if (!startsProgram(cursor)) {
             return syntaxErrorNode("program");
         }
     
-        ParseNode program = new ProgramNode(nowReading);
+        int program = node(NodeKind.PROGRAM, nowReading());
 
-        while (startsGlobalDefinition(nowReading)) {
-            ParseNode globalDefinition = parseGlobalDefinition();
-            program.appendChild(globalDefinition);
+        while (startsGlobalDefinition(cursor)) {
+            int globalDefinition = parseGlobalDefinition();
+            appendChild(program, globalDefinition);
         }
 
         expect(Keyword.MAIN);
-        ParseNode mainBlock = parseBlockStatement();
-        program.appendChild(mainBlock);
+        int mainBlock = parseBlockStatement();
+        appendChild(program, mainBlock);
 
-        if (!(nowReading instanceof NullToken)) {
+        if (tokens.kind(cursor) != TokenBuffer.NULL) {
             return syntaxErrorNode("end of program");
         }
 
         return program;
     }
 
-    private boolean startsProgram(Token token) {
-        return token.isLextant(Keyword.MAIN) || startsGlobalDefinition(token);
+    private boolean startsProgram(int index) {
+        return FIRST_PROGRAM.contains(tokens.terminal(index));
     }
 
     ////////////////////////////////////////////////////////////
     // globlDefinition -> functionDefinition
     
-    private boolean startsGlobalDefinition(Token token) {
-        return startsFunctionDefinition(token);
+    private boolean startsGlobalDefinition(int index) {
+        return startsFunctionDefinition(index);
     }
 
-    private ParseNode parseGlobalDefinition() {
-        if (!startsGlobalDefinition(nowReading)) {
+    private int parseGlobalDefinition() {
+        if (!startsGlobalDefinition(cursor)) {
             return syntaxErrorNode("global definition");
         }
-        if (startsFunctionDefinition(nowReading)) {
+        if (startsFunctionDefinition(cursor)) {
             return parseFunctionDefinition();
         }
         return syntaxErrorNode("global definition");
     }
 
-    private ParseNode parseFunctionDefinition() {
-        if (!startsFunctionDefinition(nowReading)) {
+    private int parseFunctionDefinition() {
+        return parseFunctionDefinition(false);
+    }
+
+    // with skipBody, an empty block stands in for the body; see parseProgramHeaders.
+    private int parseFunctionDefinition(boolean skipBody) {
+        if (!startsFunctionDefinition(cursor)) {
             return syntaxErrorNode("function definition");
         }
-        Token funcdefToken = nowReading;
+        Token funcdefToken = nowReading();
         expect(Keyword.FUNCDEF);
         Type type = parseType();
-        ParseNode identifier = parseIdentifier();
+        int identifier = parseIdentifier();
         expect(Punctuator.OPEN_PAREN);
-        ParseNode parameterList = parseParameterList();
+        int parameterList = parseParameterList();
         expect(Punctuator.CLOSE_PAREN);
-        ParseNode blockStatement = parseBlockStatement();
-        return FunctionDefinitionNode.withChildren(funcdefToken, type, identifier, parameterList, blockStatement);
+        if (skipBody && startsBlockStatement(cursor)) {
+            int bodyStart = cursor;
+            long openPosition = tokens.position(cursor);
+            int emptyBlock = skipBlockStatement();
+            int result = withChildren(NodeKind.FUNCTION_DEFINITION, funcdefToken, type, identifier,
+                    parameterList, emptyBlock);
+            skippedBodies.put(parseNode(result), new SkippedBody(bodyStart, openPosition, tokens.position(cursor - 1)));
+            return result;
+        }
+        int blockStatement = parseBlockStatement();
+        return withChildren(NodeKind.FUNCTION_DEFINITION, funcdefToken, type, identifier, parameterList, blockStatement);
     }
 
-    private ParseNode parseParameterList() {
-        if (!startsParameterList(nowReading)) {
+    private int parseParameterList() {
+        if (!startsParameterList(cursor)) {
             return syntaxErrorNode("parameter list");
         }
-        ParseNode result = new ParameterListNode(nowReading);
-        while (!nowReading.isLextant(Punctuator.CLOSE_PAREN)) {
-            Token token = nowReading;
+        int result = node(NodeKind.PARAMETER_LIST, nowReading());
+        while (!nowReadingIs(Punctuator.CLOSE_PAREN)) {
+            Token token = nowReading();
             Type type = parseType();
-            ParseNode identifier = parseIdentifier();
-            if (nowReading.isLextant(Punctuator.COMMA)) {
+            int identifier = parseIdentifier();
+            if (nowReadingIs(Punctuator.COMMA)) {
                 readToken();
             }
-            result.appendChild(ParameterNode.withChildren(token, type, identifier));
+            appendChild(result, withChildren(NodeKind.PARAMETER, token, type, identifier));
         }
         return result;
     }
 
-    private boolean startsParameterList(Token token) {
-        return token.isLextant(Punctuator.CLOSE_PAREN) || startsType(token);
+    private boolean startsParameterList(int index) {
+        return FIRST_PARAMETER_LIST.contains(tokens.terminal(index));
     }
 
-    private boolean startsFunctionDefinition(Token token) {
-        return token.isLextant(Keyword.FUNCDEF);
+    private boolean startsFunctionDefinition(int index) {
+        return isLextant(index, Keyword.FUNCDEF);
     }
 
     ///////////////////////////////////////////////////////////
@@ -159,270 +249,532 @@ public class Parser {
 
 
     // block -> { statement* }
-    private ParseNode parseBlockStatement() {
-        if (!startsBlockStatement(nowReading)) {
+    private int parseBlockStatement() {
+        if (!startsBlockStatement(cursor)) {
             return syntaxErrorNode("block");
         }
-        ParseNode block = new BlockStatementNode(nowReading);
+        int block = node(NodeKind.BLOCK_STATEMENT, nowReading());
         expect(Punctuator.OPEN_BRACE);
 
-        while (startsStatement(nowReading)) {
-            ParseNode statement = parseStatement();
-            block.appendChild(statement);
+        while (startsStatement(cursor)) {
+            int statement = parseStatement();
+            appendChild(block, statement);
         }
         expect(Punctuator.CLOSE_BRACE);
         return block;
     }
 
-    private boolean startsBlockStatement(Token token) {
-        return token.isLextant(Punctuator.OPEN_BRACE);
+    private boolean startsBlockStatement(int index) {
+        return isLextant(index, Punctuator.OPEN_BRACE);
+    }
+
+    // reads past a block by brace matching, without parsing it, and returns an empty block.
+    // A Parser made by functionByFunction lets go of the block's tokens as it goes.
+    private int skipBlockStatement() {
+        int emptyBlock = node(NodeKind.BLOCK_STATEMENT, nowReading());
+        int depth = 0;
+        do {
+            if (nowReadingIs(Punctuator.OPEN_BRACE)) {
+                depth++;
+            } else if (nowReadingIs(Punctuator.CLOSE_BRACE)) {
+                depth--;
+            }
+            readToken();
+            if (source != null) {
+                tokens.discardBefore(cursor - 1);
+            }
+        } while (depth > 0 && tokens.kind(cursor) != TokenBuffer.NULL);
+        return emptyBlock;
     }
 
 
     ///////////////////////////////////////////////////////////
-    // statements
+    // function-by-function parsing, for pipelined compilation.
+    //
+    // parseProgramHeaders parses a program's function definitions with an empty block standing
+    // in for each body, whose tokens are skipped by brace matching. parseFunctionBody then parses
+    // one body where it was skipped and puts it in its definition; dropFunctionBody puts an empty
+    // block back once the body is no longer needed. parseMainBlock finishes the program.
+    // For a program without syntax errors these build the nodes parse() would. The skipping
+    // needs every brace to have its match, and no lexical errors, which scansCleanly checks.
+    //
+    // A Parser made by functionByFunction(filename) does not keep the file's tokens: the headers
+    // and the main block are read through once, the skipped tokens let go of as they are read,
+    // and parseFunctionBody lexes the lines of its body again. So only one body's tokens are
+    // held at a time.
+
+    // a Parser for function-by-function parsing of the file, or null if the file has lexical
+    // errors or braces without a match, and must be parsed with parse(). The check reads the
+    // file's tokens once, holding none of them and logging none of the lexer's messages.
+    public static Parser functionByFunction(String filename) {
+        MappedFileInputHandler source = InputHandler.mappedFromFilename(filename);
+        TokenBuffer check = TokenBuffer.make(new LexicalAnalyzer(PushbackCharStream.make(source)));
+        check.startHoldingMessages();
+        if (!bracesBalance(check, true) || check.hasHeldMessages()) {
+            return null;
+        }
+
+        LexicalAnalyzer scanner = new LexicalAnalyzer(PushbackCharStream.make(source));
+        Parser parser = new Parser(TokenBuffer.make(scanner));
+        parser.source = source;
+        parser.identifierPool = scanner.getIdentifierPool();
+        return parser;
+    }
+
+    // scans the whole file, holding the lexer's messages until the tokens they were found with
+    // are read, as parse() would read them; true if there are none and the braces balance.
+    public boolean scansCleanly() {
+        tokens.startHoldingMessages();
+        try {
+            return bracesBalance(tokens, false) && !tokens.hasHeldMessages();
+        } finally {
+            tokens.stopHoldingMessages();
+        }
+    }
+
+    private static boolean bracesBalance(TokenBuffer tokens, boolean discarding) {
+        int depth = 0;
+        for (int index = 0; tokens.holds(index); index++) {
+            if (tokens.isLextant(index, Punctuator.OPEN_BRACE)) {
+                depth++;
+            } else if (tokens.isLextant(index, Punctuator.CLOSE_BRACE)) {
+                depth--;
+                if (depth < 0) {
+                    return false;
+                }
+            }
+            if (discarding) {
+                tokens.discardBefore(index);
+            }
+        }
+        return depth == 0;
+    }
 
-    // statement-> declaration | printStmt | assignmentStmt | blockStmt | callStmt
-    private ParseNode parseStatement() {
-        if (!startsStatement(nowReading)) {
-            return syntaxErrorNode("statement");
+    public ParseNode parseProgramHeaders() {
+        readToken();
+        if (!startsProgram(cursor)) {
+            return parseNode(syntaxErrorNode("program"));
         }
-        if (startsDeclaration(nowReading)) {
-            return parseDeclaration();
+        int program = node(NodeKind.PROGRAM, nowReading());
+        while (startsGlobalDefinition(cursor)) {
+            appendChild(program, parseFunctionDefinition(true));
         }
-        if (startsPrintStatement(nowReading)) {
-            return parsePrintStatement();
+        return parseNode(program);
+    }
+
+    // false for a function definition with a syntax error before its body.
+    public boolean hasSkippedBody(ParseNode functionDefinition) {
+        return skippedBodies.containsKey(functionDefinition);
+    }
+
+    public void parseFunctionBody(ParseNode functionDefinition) {
+        SkippedBody skipped = skippedBodies.get(functionDefinition);
+        if (skipped == null) {
+            throw new IllegalArgumentException("Parser: no skipped body for " + functionDefinition.getToken());
         }
-        if (startsAssignmentStatement(nowReading)) {
-            return parseAssignmentStatement();
+        if (source == null) {
+            throw new IllegalStateException("Parser: not made by functionByFunction");
         }
-        if (startsBlockStatement(nowReading)) {
-            return parseBlockStatement();
+        int firstLine = PackedPosition.lineNumber(skipped.openPosition);
+        int endLine = PackedPosition.lineNumber(skipped.closePosition) + 1;
+        LexicalAnalyzer scanner = new LexicalAnalyzer(
+                PushbackCharStream.make(source, firstLine, endLine), identifierPool);
+        Parser bodyParser = new Parser(TokenBuffer.make(scanner));
+        bodyParser.cursor = bodyParser.indexAt(skipped.openPosition);
+        ParseNode body = bodyParser.parseNode(bodyParser.parseBlockStatement());
+        functionDefinition.replaceChild(functionDefinition.child(2), body);
+    }
+
+    private int indexAt(long position) {
+        for (int index = 0; tokens.holds(index); index++) {
+            if (tokens.position(index) == position) {
+                return index;
+            }
+        }
+        throw new IllegalStateException("Parser: no token where a skipped body starts");
+    }
+
+    public void dropFunctionBody(ParseNode functionDefinition) {
+        ParseNode body = functionDefinition.child(2);
+        functionDefinition.replaceChild(body, new BlockStatementNode(body.getToken()));
+    }
+
+    // the main block, or an ErrorNode if tokens follow it (parse() would reject the whole program).
+    public ParseNode parseMainBlock(ParseNode program) {
+        expect(Keyword.MAIN);
+        ParseNode mainBlock = parseNode(parseBlockStatement());
+        program.appendChild(mainBlock);
+
+        if (tokens.kind(cursor) != TokenBuffer.NULL) {
+            return parseNode(syntaxErrorNode("end of program"));
         }
-        if (startsIfStatement(nowReading)) {
-            return parseIfStatement();
+        return mainBlock;
+    }
+
+    // a function body skipped by parseProgramHeaders: the index of its opening brace, and the
+    // positions of its opening and closing braces.
+    private static class SkippedBody {
+        final int start;
+        final long openPosition;
+        final long closePosition;
+
+        SkippedBody(int start, long openPosition, long closePosition) {
+            this.start = start;
+            this.openPosition = openPosition;
+            this.closePosition = closePosition;
         }
-        if (startsWhileStatement(nowReading)) {
-            return parseWhileStatement();
+    }
+
+
+    ///////////////////////////////////////////////////////////
+    // parallel parsing of the function bodies.
+    //
+    // The headers are parsed as for function-by-function parsing, and the skipped bodies are
+    // then parsed in a ForkJoinPool, each by a Parser of its own over the shared TokenBuffer,
+    // while this Parser parses the main block. scansCleanly has by then scanned every token, and
+    // there are no lexical messages to log; materializeAll then makes the Token of every keyword
+    // and punctuator, which token() would otherwise make and store on first reading. So the
+    // parsers only read the buffer, and it is filled before the tasks are submitted.
+    // A file with lexical errors is parsed with parse(), which logs them as it reads their
+    // tokens. The bodies are put in their definitions in source order. A body parsed without error ends at the brace matching
+    // its opening one, as it does in parse(), so if no part has a syntax error the tree is the
+    // one parse() builds. Syntax errors are held back meanwhile; if there are any, the program
+    // is parsed again with parse(), which logs them.
+
+    public static final int FUNCTIONS_PER_TASK = 8;
+
+    public static ParseNode parseInParallel(Scanner scanner) {
+        Parser parser = new Parser(scanner);
+        return parser.parseInParallel(ForkJoinPool.commonPool());
+    }
+
+    public ParseNode parseInParallel(ForkJoinPool pool) {
+        if (!scansCleanly()) {
+            return parse();
         }
-        if (startsCallStatement(nowReading)) {
-            return parseCallStatement();
+        tokens.materializeAll();
+        heldErrors = new ArrayList<String>();
+        ParseNode program = parseProgramHeaders();
+        if (!heldErrors.isEmpty()) {
+            return parseAgain();
         }
-        if (startsReturnStatement(nowReading)) {
-            return parseReturnStatement();
+
+        List<ParseNode> functions = program.getChildren();
+        int[] bodyStartArray = new int[functions.size()];
+        for (int i = 0; i < bodyStartArray.length; i++) {
+            bodyStartArray[i] = skippedBodies.get(functions.get(i)).start;
         }
-        if (startsBreakStatement(nowReading)) {
-            return parseBreakStatement();
+        BodyTask bodies = new BodyTask(tokens, bodyStartArray, 0, bodyStartArray.length);
+        ForkJoinTask<Void> bodiesParsed = pool.submit(bodies);
+        ParseNode mainBlock = parseMainBlock(program);
+        bodiesParsed.join();
+
+        if (!heldErrors.isEmpty() || bodies.hasErrors() || mainBlock instanceof ErrorNode) {
+            return parseAgain();
         }
-        if (startsContinueStatement(nowReading)) {
-            return parseContinueStatement();
+        for (int i = 0; i < bodyStartArray.length; i++) {
+            ParseNode function = functions.get(i);
+            function.replaceChild(function.child(2), bodies.results[i]);
         }
-        if (startsForStatement(nowReading)) {
-            return parseForStatement();
+        heldErrors = null;
+        skippedBodies.clear();
+        return program;
+    }
+
+    private ParseNode parseAgain() {
+        heldErrors = null;
+        skippedBodies.clear();
+        cursor = -1;
+        return parse();
+    }
+
+    // parses the bodies starting at bodyStarts[start] to bodyStarts[end - 1], into results,
+    // splitting the range in halves down to FUNCTIONS_PER_TASK bodies.
+    private static class BodyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final TokenBuffer tokens;
+        private final int[] bodyStarts;
+        private final int start;
+        private final int end;
+        private final ParseNode[] results;
+        private boolean hasErrors;
+        private BodyTask left;
+        private BodyTask right;
+
+        BodyTask(TokenBuffer tokens, int[] bodyStarts, int start, int end) {
+            this(tokens, bodyStarts, start, end, new ParseNode[bodyStarts.length]);
+        }
+
+        private BodyTask(TokenBuffer tokens, int[] bodyStarts, int start, int end, ParseNode[] results) {
+            this.tokens = tokens;
+            this.bodyStarts = bodyStarts;
+            this.start = start;
+            this.end = end;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > FUNCTIONS_PER_TASK) {
+                int middle = (start + end) >>> 1;
+                left = new BodyTask(tokens, bodyStarts, start, middle, results);
+                right = new BodyTask(tokens, bodyStarts, middle, end, results);
+                invokeAll(left, right);
+                return;
+            }
+            Parser parser = new Parser(tokens);
+            parser.heldErrors = new ArrayList<String>();
+            for (int i = start; i < end; i++) {
+                parser.cursor = bodyStarts[i];
+                results[i] = parser.parseNode(parser.parseBlockStatement());
+            }
+            hasErrors = !parser.heldErrors.isEmpty();
+        }
+
+        boolean hasErrors() {
+            if (left != null) {
+                return left.hasErrors() || right.hasErrors();
+            }
+            return hasErrors;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////
+    // statements
+
+    // statement-> declaration | printStmt | assignmentStmt | blockStmt | callStmt
+    private int parseStatement() {
+        if (!startsStatement(cursor)) {
+            return syntaxErrorNode("statement");
+        }
+        Lextant lextant = tokens.lextant(cursor);
+        if (lextant instanceof Keyword) {
+            switch ((Keyword) lextant) {
+            case CONST:
+            case VAR:
+                return parseDeclaration();
+            case PRINT:
+                return parsePrintStatement();
+            case IF:
+                return parseIfStatement();
+            case WHILE:
+                return parseWhileStatement();
+            case CALL:
+                return parseCallStatement();
+            case RETURN:
+                return parseReturnStatement();
+            case BREAK:
+                return parseBreakStatement();
+            case CONTINUE:
+                return parseContinueStatement();
+            case FOR:
+                return parseForStatement();
+            default:
+                break;
+            }
+        }
+        if (startsBlockStatement(cursor)) {
+            return parseBlockStatement();
+        }
+        if (startsAssignmentStatement(cursor)) {
+            return parseAssignmentStatement();
         }
         return syntaxErrorNode("statement");
     }
 
-    private ParseNode parseForStatement() {
-        if (!startsForStatement(nowReading)) {
+    private int parseForStatement() {
+        if (!startsForStatement(cursor)) {
             return syntaxErrorNode("for statement");
         }
-        Token forToken = nowReading;
+        Token forToken = nowReading();
         expect(Keyword.FOR);
         expect(Punctuator.OPEN_PAREN);
-        ParseNode id = parseIdentifier();
+        int id = parseIdentifier();
         expect(Keyword.FROM);
-        ParseNode from = parseExpression();
+        int from = parseExpression();
         expect(Keyword.TO);
-        ParseNode to = parseExpression();
+        int to = parseExpression();
         expect(Punctuator.CLOSE_PAREN);
-        ParseNode body = parseStatement();
-        return ForStatementNode.withChildren(forToken, from, to, id, body); // put id after from and to.
+        int body = parseStatement();
+        return withChildren(NodeKind.FOR_STATEMENT, forToken, from, to, id, body); // put id after from and to.
     }
 
-    private boolean startsForStatement(Token token) {
-        return token.isLextant(Keyword.FOR);
+    private boolean startsForStatement(int index) {
+        return isLextant(index, Keyword.FOR);
     }
 
-    private ParseNode parseContinueStatement() {
-        if (!startsContinueStatement(nowReading)) {
+    private int parseContinueStatement() {
+        if (!startsContinueStatement(cursor)) {
             return syntaxErrorNode("continue statement");
         }
-        ParseNode continueStatement = new ContinueStatementNode(nowReading);
+        int continueStatement = node(NodeKind.CONTINUE_STATEMENT, nowReading());
         expect(Keyword.CONTINUE);
         expect(Punctuator.TERMINATOR);
         return continueStatement;
     }
 
-    private boolean startsContinueStatement(Token token) {
-        return token.isLextant(Keyword.CONTINUE);
+    private boolean startsContinueStatement(int index) {
+        return isLextant(index, Keyword.CONTINUE);
     }
 
-    private ParseNode parseBreakStatement() {
-        if (!startsBreakStatement(nowReading)) {
+    private int parseBreakStatement() {
+        if (!startsBreakStatement(cursor)) {
             return syntaxErrorNode("break statement");
         }
-        ParseNode breakStatement = new BreakStatementNode(nowReading);
+        int breakStatement = node(NodeKind.BREAK_STATEMENT, nowReading());
         expect(Keyword.BREAK);
         expect(Punctuator.TERMINATOR);
         return breakStatement;
     }
 
-    private boolean startsBreakStatement(Token token) {
-        return token.isLextant(Keyword.BREAK);
+    private boolean startsBreakStatement(int index) {
+        return isLextant(index, Keyword.BREAK);
     }
 
-    private ParseNode parseReturnStatement() {
-        if (!startsReturnStatement(nowReading)) {
+    private int parseReturnStatement() {
+        if (!startsReturnStatement(cursor)) {
             return syntaxErrorNode("return statement");
         }
-        ParseNode returnStatement = new ReturnStatementNode(nowReading);
+        int returnStatement = node(NodeKind.RETURN_STATEMENT, nowReading());
         expect(Keyword.RETURN);
-        if (startsExpression(nowReading)) {
-            ParseNode expression = parseExpression();
-            returnStatement.appendChild(expression);
+        if (startsExpression(cursor)) {
+            int expression = parseExpression();
+            appendChild(returnStatement, expression);
         }
         expect(Punctuator.TERMINATOR);
         return returnStatement;
     }
 
-    private boolean startsReturnStatement(Token token) {
-        return token.isLextant(Keyword.RETURN);
+    private boolean startsReturnStatement(int index) {
+        return isLextant(index, Keyword.RETURN);
     }
 
-    private ParseNode parseCallStatement() {
-        if (!startsCallStatement(nowReading)) {
+    private int parseCallStatement() {
+        if (!startsCallStatement(cursor)) {
             return syntaxErrorNode("call statement");
         }
-        ParseNode callStatement = new CallStatementNode(nowReading);
+        int callStatement = node(NodeKind.CALL_STATEMENT, nowReading());
         expect(Keyword.CALL);
-        ParseNode identifier = parseIdentifier();
+        Token identifierToken = nowReading();
+        int identifier = parseIdentifier();
         expect(Punctuator.OPEN_PAREN);
-        ParseNode expressionList = parseExpressionList();
+        int expressionList = parseExpressionList();
         expect(Punctuator.CLOSE_PAREN);
-        ParseNode functionInvocation = FunctionInvocationNode.withChildren(identifier.getToken(), identifier,
+        int functionInvocation = withChildren(NodeKind.FUNCTION_INVOCATION, identifierToken, identifier,
                 expressionList);
         expect(Punctuator.TERMINATOR);
-        callStatement.appendChild(functionInvocation);
+        appendChild(callStatement, functionInvocation);
         return callStatement;
     }
 
-    private ParseNode parseExpressionList() {
-        ParseNode expressionList = new ExpressionListNode(nowReading);
-        while (startsExpression(nowReading)) {
-            expressionList.appendChild(parseExpression());
-            if (nowReading.isLextant(Punctuator.COMMA)) {
+    private int parseExpressionList() {
+        int expressionList = node(NodeKind.EXPRESSION_LIST, nowReading());
+        while (startsExpression(cursor)) {
+            appendChild(expressionList, parseExpression());
+            if (nowReadingIs(Punctuator.COMMA)) {
                 readToken();
             }
         }
         return expressionList;
     }
 
-    private boolean startsCallStatement(Token token) {
-        return token.isLextant(Keyword.CALL);
+    private boolean startsCallStatement(int index) {
+        return isLextant(index, Keyword.CALL);
     }
 
-    private boolean startsWhileStatement(Token token) {
-        return token.isLextant(Keyword.WHILE);
+    private boolean startsWhileStatement(int index) {
+        return isLextant(index, Keyword.WHILE);
     }
 
-    private ParseNode parseWhileStatement() {
-        if (!startsWhileStatement(nowReading)) {
+    private int parseWhileStatement() {
+        if (!startsWhileStatement(cursor)) {
             return syntaxErrorNode("while statement");
         }
-        ParseNode whileStatement = new WhileStatementNode(nowReading);
+        int whileStatement = node(NodeKind.WHILE_STATEMENT, nowReading());
         expect(Keyword.WHILE);
         expect(Punctuator.OPEN_PAREN);
-        whileStatement.appendChild(parseExpression());
+        appendChild(whileStatement, parseExpression());
         expect(Punctuator.CLOSE_PAREN);
-        whileStatement.appendChild(parseBlockStatement());
+        appendChild(whileStatement, parseBlockStatement());
         return whileStatement;
     }
 
-    private boolean startsIfStatement(Token token) {
-        return token.isLextant(Keyword.IF);
+    private boolean startsIfStatement(int index) {
+        return isLextant(index, Keyword.IF);
     }
 
-    private ParseNode parseIfStatement() {
-        if (!startsIfStatement(nowReading)) {
+    private int parseIfStatement() {
+        if (!startsIfStatement(cursor)) {
             return syntaxErrorNode("if statement");
         }
-        ParseNode ifStatement = new IfStatementNode(nowReading);
+        int ifStatement = node(NodeKind.IF_STATEMENT, nowReading());
         expect(Keyword.IF);
         expect(Punctuator.OPEN_PAREN);
-        ifStatement.appendChild(parseExpression());
+        appendChild(ifStatement, parseExpression());
         expect(Punctuator.CLOSE_PAREN);
-        ifStatement.appendChild(parseBlockStatement());
-        if (nowReading.isLextant(Keyword.ELSE)) {
+        appendChild(ifStatement, parseBlockStatement());
+        if (nowReadingIs(Keyword.ELSE)) {
             expect(Keyword.ELSE);
-            ifStatement.appendChild(parseBlockStatement());
+            appendChild(ifStatement, parseBlockStatement());
         }
         return ifStatement;
     }
 
     // assignmentStmt -> targetExpression ASSIGN expression TERMINATOR
-    private ParseNode parseAssignmentStatement() {
-        if (!startsAssignmentStatement(nowReading)) {
+    private int parseAssignmentStatement() {
+        if (!startsAssignmentStatement(cursor)) {
             return syntaxErrorNode("assignment statement");
         }
-        ParseNode target = parseTargetExpression();
+        int target = parseTargetExpression();
         expect(Punctuator.ASSIGN);
-        Token assignToken = previouslyRead;
-        ParseNode expression = parseExpression();
+        Token assignToken = previouslyRead();
+        int expression = parseExpression();
         expect(Punctuator.TERMINATOR);
-        return AssignmentStatementNode.withChildren(assignToken, target, expression);
+        return withChildren(NodeKind.ASSIGNMENT_STATEMENT, assignToken, target, expression);
     }
 
-    private ParseNode parseTargetExpression() {
-        if (!startsTargetExpression(nowReading)) {
+    private int parseTargetExpression() {
+        if (!startsTargetExpression(cursor)) {
             return syntaxErrorNode("target expression");
         }
-        ParseNode target = new TargetExpressionNode(nowReading);
-        if (startsIdentifier(nowReading)) {
-            target.appendChild(parseIdentifier());
+        int target = node(NodeKind.TARGET_EXPRESSION, nowReading());
+        if (startsIdentifier(cursor)) {
+            appendChild(target, parseIdentifier());
             return target;
         }
-        if (nowReading.isLextant(Punctuator.OPEN_PAREN)) {
+        if (nowReadingIs(Punctuator.OPEN_PAREN)) {
             expect(Punctuator.OPEN_PAREN);
-            target.appendChild(parseExpression());
+            appendChild(target, parseExpression());
             expect(Punctuator.CLOSE_PAREN);
             return target;
         }
-        if (nowReading.isLextant(Punctuator.OPEN_BRACKET)) {
-            target.appendChild(parseExpression());
+        if (nowReadingIs(Punctuator.OPEN_BRACKET)) {
+            appendChild(target, parseExpression());
             return target;
         }
         return syntaxErrorNode("target expression");
     }
 
-    private boolean startsTargetExpression(Token token) {
-        return startsIdentifier(token) || token.isLextant(Punctuator.OPEN_PAREN) || token.isLextant(Punctuator.OPEN_BRACKET);
+    private boolean startsTargetExpression(int index) {
+        return FIRST_TARGET_EXPRESSION.contains(tokens.terminal(index));
     }
 
-    private boolean startsAssignmentStatement(Token token) {
-        return startsTargetExpression(token);
+    private boolean startsAssignmentStatement(int index) {
+        return startsTargetExpression(index);
     }
 
-    private boolean startsStatement(Token token) {
-        return startsPrintStatement(token)
-            || startsDeclaration(token)
-            || startsAssignmentStatement(token)
-            || startsBlockStatement(token)
-            || startsIfStatement(token)
-            || startsWhileStatement(token)
-            || startsCallStatement(token)
-            || startsReturnStatement(token)
-            || startsBreakStatement(token)
-            || startsContinueStatement(token)
-            || startsForStatement(token);
+    private boolean startsStatement(int index) {
+        return FIRST_STATEMENT.contains(tokens.terminal(index));
     }
 
     // printStmt -> PRINT printExpressionList TERMINATOR
-    private ParseNode parsePrintStatement() {
-        if (!startsPrintStatement(nowReading)) {
+    private int parsePrintStatement() {
+        if (!startsPrintStatement(cursor)) {
             return syntaxErrorNode("print statement");
         }
-        ParseNode result = new PrintStatementNode(nowReading);
+        int result = node(NodeKind.PRINT_STATEMENT, nowReading());
 
         readToken();
         result = parsePrintExpressionList(result);
@@ -431,92 +783,90 @@ public class Parser {
         return result;
     }
 
-    private boolean startsPrintStatement(Token token) {
-        return token.isLextant(Keyword.PRINT);
+    private boolean startsPrintStatement(int index) {
+        return isLextant(index, Keyword.PRINT);
     }
 
     // This adds the printExpressions it parses to the children of the given parent
     // printExpressionList -> printSeparator* (expression printSeparator+)* expression? (note that
     // this is nullable)
 
-    private ParseNode parsePrintExpressionList(ParseNode parent) {
-        if (!startsPrintExpressionList(nowReading)) {
+    private int parsePrintExpressionList(int parent) {
+        if (!startsPrintExpressionList(cursor)) {
             return syntaxErrorNode("printExpressionList");
         }
 
-        while (startsPrintSeparator(nowReading)) {
+        while (startsPrintSeparator(cursor)) {
             parsePrintSeparator(parent);
         }
-        while (startsExpression(nowReading)) {
-            parent.appendChild(parseExpression());
-            if (nowReading.isLextant(Punctuator.TERMINATOR)) {
+        while (startsExpression(cursor)) {
+            appendChild(parent, parseExpression());
+            if (nowReadingIs(Punctuator.TERMINATOR)) {
                 return parent;
             }
             do {
                 parsePrintSeparator(parent);
-            } while (startsPrintSeparator(nowReading));
+            } while (startsPrintSeparator(cursor));
         }
         return parent;
     }
 
-    private boolean startsPrintExpressionList(Token token) {
-        return startsExpression(token) || startsPrintSeparator(token)
-                || token.isLextant(Punctuator.TERMINATOR);
+    private boolean startsPrintExpressionList(int index) {
+        return FIRST_PRINT_EXPRESSION_LIST.contains(tokens.terminal(index));
     }
 
 
     // This adds the printSeparator it parses to the children of the given parent
     // printSeparator -> PRINT_SEPARATOR | PRINT_SPACE | PRINT_NEWLINE | PRINT_TAB
 
-    private void parsePrintSeparator(ParseNode parent) {
-        if (!startsPrintSeparator(nowReading)) {
-            ParseNode child = syntaxErrorNode("print separator");
-            parent.appendChild(child);
+    private void parsePrintSeparator(int parent) {
+        if (!startsPrintSeparator(cursor)) {
+            int child = syntaxErrorNode("print separator");
+            appendChild(parent, child);
             return;
         }
 
-        if (nowReading.isLextant(Punctuator.PRINT_NEWLINE)) {
+        if (nowReadingIs(Punctuator.PRINT_NEWLINE)) {
             readToken();
-            ParseNode child = new NewlineNode(previouslyRead);
-            parent.appendChild(child);
-        } else if (nowReading.isLextant(Punctuator.PRINT_SPACE)) {
+            int child = node(NodeKind.NEWLINE, previouslyRead());
+            appendChild(parent, child);
+        } else if (nowReadingIs(Punctuator.PRINT_SPACE)) {
             readToken();
-            ParseNode child = new SpaceNode(previouslyRead);
-            parent.appendChild(child);
-        } else if (nowReading.isLextant(Punctuator.PRINT_TAB)) {
+            int child = node(NodeKind.SPACE, previouslyRead());
+            appendChild(parent, child);
+        } else if (nowReadingIs(Punctuator.PRINT_TAB)) {
             readToken();
-            ParseNode child = new TabNode(previouslyRead);
-            parent.appendChild(child);
-        } else if (nowReading.isLextant(Punctuator.PRINT_SEPARATOR)) {
+            int child = node(NodeKind.TAB, previouslyRead());
+            appendChild(parent, child);
+        } else if (nowReadingIs(Punctuator.PRINT_SEPARATOR)) {
             readToken();
         }
     }
 
-    private boolean startsPrintSeparator(Token token) {
-        return token.isLextant(Punctuator.PRINT_SEPARATOR, Punctuator.PRINT_SPACE,
-                Punctuator.PRINT_NEWLINE, Punctuator.PRINT_TAB);
+    private boolean startsPrintSeparator(int index) {
+        return PRINT_SEPARATORS.contains(tokens.terminal(index));
     }
 
 
     // declaration -> CONST identifier := expression TERMINATOR
     // declaration -> VAR identifier := expression TERMINATOR
-    private ParseNode parseDeclaration() {
-        if (!startsDeclaration(nowReading)) {
+    private int parseDeclaration() {
+        if (!startsDeclaration(cursor)) {
             return syntaxErrorNode("declaration");
         }
-        Token declarationToken = nowReading;
+        Token declarationToken = nowReading();
         readToken();
 
-        ParseNode identifier = parseIdentifier();
+        int identifier = parseIdentifier();
         expect(Punctuator.ASSIGN);
-        ParseNode initializer = parseExpression();
+        int initializer = parseExpression();
         expect(Punctuator.TERMINATOR);
 
-        return DeclarationNode.withChildren(declarationToken, identifier, initializer);
+        return withChildren(NodeKind.DECLARATION, declarationToken, identifier, initializer);
     }
 
-    private boolean startsDeclaration(Token token) {
-        return token.isLextant(Keyword.CONST, Keyword.VAR);
+    private boolean startsDeclaration(int index) {
+        return FIRST_DECLARATION.contains(tokens.terminal(index));
     }
 
     ///////////////////////////////////////////////////////////
@@ -531,232 +881,152 @@ public class Parser {
     // atomicExpression -> literal ｜ (expression)
     // literal -> intNumber | identifier | booleanConstant | floatNumber | charConstant | stringConstant
 
-    // expr -> comparisonExpression
-    private ParseNode parseExpression() {
-        if (!startsExpression(nowReading)) {
+    // The binary levels, logicOr down to multiplicative, are parsed by precedence climbing:
+    // parseExpression(power) parses a unaryExpression followed by any binary operators whose
+    // binding power (from BINDING_POWERS) is at least power. This builds the same left-associative
+    // OperatorNode trees as one method per level would, and gives the same syntax errors: a
+    // missing operand is reported under the name of the level that expected it, and after such an
+    // error no operator binding more tightly than the last one parsed is taken.
+
+    private int parseExpression() {
+        if (!startsExpression(cursor)) {
             return syntaxErrorNode("expression");
         }
-        return parseLogicOrExpression();
-    }
-
-    private boolean startsExpression(Token token) {
-        return startsLogicOrExpression(token);
+        return parseExpression(LOGIC_OR_POWER);
     }
 
-    private ParseNode parseLogicOrExpression() {
-        if (!startsLogicOrExpression(nowReading)) {
-            return syntaxErrorNode("logic or expression");
+    private int parseExpression(int minimumPower) {
+        if (!startsUnaryExpression(cursor)) {
+            return syntaxErrorNode(OPERAND_NAMES[minimumPower]);
         }
+        int left = parseUnaryExpression();
 
-        ParseNode left = parseLogicAndExpression();
-        while (nowReading.isLextant(Punctuator.OR)) {
-            Token logicOrToken = nowReading;
+        int maximumPower = MULTIPLICATIVE_POWER;
+        int power = bindingPower(cursor);
+        while (minimumPower <= power && power <= maximumPower) {
+            Token operatorToken = nowReading();
             readToken();
-            ParseNode right = parseLogicAndExpression();
-            left = OperatorNode.withChildren(logicOrToken, left, right);
-        }
-        return left;
-    }
-
-    private ParseNode parseLogicAndExpression() {
-        if (!startsLogicAndExpression(nowReading)) {
-            return syntaxErrorNode("logic and expression");
-        }
+            int right = parseExpression(power + 1);
+            left = withChildren(NodeKind.OPERATOR, operatorToken, left, right);
 
-        ParseNode left = parseComparisonExpression();
-        while (nowReading.isLextant(Punctuator.AND)) {
-            Token logicAndToken = nowReading;
-            readToken();
-            ParseNode right = parseComparisonExpression();
-            left = OperatorNode.withChildren(logicAndToken, left, right);
+            maximumPower = power;
+            power = bindingPower(cursor);
         }
         return left;
     }
 
-    private boolean startsLogicAndExpression(Token token) {
-        return startsComparisonExpression(token);
+    private int bindingPower(int index) {
+        return BINDING_POWERS[tokens.terminal(index)];
     }
 
-    private boolean startsLogicOrExpression(Token token) {
-        return startsLogicAndExpression(token);
-    }
-
-    // comparisonExpression -> additiveExpression [> additiveExpression]?
-    private ParseNode parseComparisonExpression() {
-        if (!startsComparisonExpression(nowReading)) {
-            return syntaxErrorNode("comparison expression");
-        }
-
-        ParseNode left = parseAdditiveExpression();
-        while (nowReading.isLextant(
-            Punctuator.GREATER,
-            Punctuator.LESS,
-            Punctuator.GREATER_OR_EQUAL,
-            Punctuator.LESS_OR_EQUAL,
-            Punctuator.EQUAL,
-            Punctuator.NOT_EQUAL)) {
-            Token compareToken = nowReading;
-            readToken();
-            ParseNode right = parseAdditiveExpression();
-
-            left = OperatorNode.withChildren(compareToken, left, right);
-        }
-        return left;
-    }
-
-    private boolean startsComparisonExpression(Token token) {
-        return startsAdditiveExpression(token);
-    }
-
-    // additiveExpression -> multiplicativeExpression [+ multiplicativeExpression]* (left-assoc)
-    private ParseNode parseAdditiveExpression() {
-        if (!startsAdditiveExpression(nowReading)) {
-            return syntaxErrorNode("additiveExpression");
-        }
-
-        ParseNode left = parseMultiplicativeExpression();
-        while (nowReading.isLextant(Punctuator.ADD, Punctuator.SUBTRACT)) {
-            Token additiveToken = nowReading;
-            readToken();
-            ParseNode right = parseMultiplicativeExpression();
-
-            left = OperatorNode.withChildren(additiveToken, left, right);
-        }
-        return left;
-    }
-
-    private boolean startsAdditiveExpression(Token token) {
-        return startsMultiplicativeExpression(token);
-    }
-
-    // multiplicativeExpression -> unaryExpression [MULT unaryExpression]* (left-assoc)
-    private ParseNode parseMultiplicativeExpression() {
-        if (!startsMultiplicativeExpression(nowReading)) {
-            return syntaxErrorNode("multiplicativeExpression");
-        }
-
-        ParseNode left = parseUnaryExpression();
-        while (nowReading.isLextant(Punctuator.MULTIPLY, Punctuator.DIVIDE)) {
-            Token multiplicativeToken = nowReading;
-            readToken();
-            ParseNode right = parseUnaryExpression();
-
-            left = OperatorNode.withChildren(multiplicativeToken, left, right);
-        }
-        return left;
-    }
-
-    private boolean startsMultiplicativeExpression(Token token) {
-        return startsUnaryExpression(token);
+    private boolean startsExpression(int index) {
+        return startsUnaryExpression(index);
     }
 
     // atomicExpression -> literal | (expression) | PopulatedArrayExpression | NewArrayExpression | ArrayIndexExpression | FunctionInvocationExpression
-    private ParseNode parseAtomicExpression() {
-        if (!startsAtomicExpression(nowReading)) {
+    private int parseAtomicExpression() {
+        if (!startsAtomicExpression(cursor)) {
             return syntaxErrorNode("atomic expression");
         }
-        if (nowReading.isLextant(Punctuator.OPEN_PAREN)) {
+        if (nowReadingIs(Punctuator.OPEN_PAREN)) {
             readToken();
-            ParseNode expression = parseExpression();
+            int expression = parseExpression();
             expect(Punctuator.CLOSE_PAREN);
             return expression;
         }
-        if (nowReading.isLextant(Punctuator.LESS)) {
-            Token castToken = nowReading;
+        if (nowReadingIs(Punctuator.LESS)) {
+            Token castToken = nowReading();
             readToken();
             Type type = parseType();
             expect(Punctuator.GREATER);
             expect(Punctuator.OPEN_PAREN);
-            ParseNode expression = parseExpression();
+            int expression = parseExpression();
             expect(Punctuator.CLOSE_PAREN);
-            return CastNode.withChildren(castToken, type, expression);
+            return withChildren(NodeKind.CAST, castToken, type, expression);
         }
-        if (startsPopulatedArrayOrArrayIndexingExpression(nowReading)) {
+        if (startsPopulatedArrayOrArrayIndexingExpression(cursor)) {
             return parsePopulatedArrayOrArrayIndexingExpression();
         }
-        if (startsNewArrayExpression(nowReading)) {
+        if (startsNewArrayExpression(cursor)) {
             return parseNewArrayExpression();
         }
-        ParseNode literal = parseLiteral();
-         if (literal instanceof IdentifierNode && nowReading.isLextant(Punctuator.OPEN_PAREN)) {
+        int literalStart = cursor;
+        int literal = parseLiteral();
+        if (startsIdentifier(literalStart) && nowReadingIs(Punctuator.OPEN_PAREN)) {
             expect(Punctuator.OPEN_PAREN);
-            ParseNode expressionList = parseExpressionList();
+            int expressionList = parseExpressionList();
             expect(Punctuator.CLOSE_PAREN);
-            return FunctionInvocationNode.withChildren(literal.getToken(), literal, expressionList);
+            return withChildren(NodeKind.FUNCTION_INVOCATION, tokens.token(literalStart), literal, expressionList);
         }
         return literal;
     }
 
-    private ParseNode parseNewArrayExpression() {
-        if (!startsNewArrayExpression(nowReading)) {
+    private int parseNewArrayExpression() {
+        if (!startsNewArrayExpression(cursor)) {
             return syntaxErrorNode("new array expression");
         }
-        Token newToken = nowReading;
-        expect(null, Keyword.NEW);
+        Token newToken = nowReading();
+        expect(Keyword.NEW);
         Type type = parseType();
         if (!(type instanceof ArrayType)) {
             return syntaxErrorNode("new array expression");
         }
         expect(Punctuator.OPEN_PAREN);
-        ParseNode expression = parseExpression();
+        int expression = parseExpression();
         expect(Punctuator.CLOSE_PAREN);
-        return NewArrayNode.withChildren(newToken, type, expression);
+        return withChildren(NodeKind.NEW_ARRAY, newToken, type, expression);
     }
 
-    private boolean startsNewArrayExpression(Token token) {
-        return token.isLextant(Keyword.NEW);
+    private boolean startsNewArrayExpression(int index) {
+        return isLextant(index, Keyword.NEW);
     }
 
     // [expression, expression, ...]
-    private ParseNode parsePopulatedArrayOrArrayIndexingExpression() {
-        if (!startsPopulatedArrayOrArrayIndexingExpression(nowReading)) {
+    private int parsePopulatedArrayOrArrayIndexingExpression() {
+        if (!startsPopulatedArrayOrArrayIndexingExpression(cursor)) {
             return syntaxErrorNode("populated array expression");
         }
-        Token openBracket = nowReading;
+        Token openBracket = nowReading();
         readToken();
-        ParseNode expression = parseExpression();
+        int expression = parseExpression();
 
         // Array Indexing Expression
         // [expression : expression]
-        if (nowReading.isLextant(Punctuator.COLON)) {
+        if (nowReadingIs(Punctuator.COLON)) {
             readToken();
-            ParseNode result = ArrayIndexNode.withChildren(openBracket, expression, parseExpression());
+            int result = withChildren(NodeKind.ARRAY_INDEX, openBracket, expression, parseExpression());
             expect(Punctuator.CLOSE_BRACKET);
             return result;
         }
         // populated array expression
-        ParseNode result = new PopulatedArrayNode(openBracket);
-        result.appendChild(expression);
-        while (nowReading.isLextant(Punctuator.COMMA)) {
+        int result = node(NodeKind.POPULATED_ARRAY, openBracket);
+        appendChild(result, expression);
+        while (nowReadingIs(Punctuator.COMMA)) {
             readToken();
             expression = parseExpression();
-            result.appendChild(expression);
+            appendChild(result, expression);
         }
         expect(Punctuator.CLOSE_BRACKET);
         return result;
     }
 
-    private boolean startsPopulatedArrayOrArrayIndexingExpression(Token token) {
-        return token.isLextant(Punctuator.OPEN_BRACKET);
+    private boolean startsPopulatedArrayOrArrayIndexingExpression(int index) {
+        return isLextant(index, Punctuator.OPEN_BRACKET);
     }
 
     private Type parseType() {
-        if (!startsType(nowReading)) {
+        if (!startsType(cursor)) {
             return PrimitiveType.ERROR;
         }
-        Token token = nowReading;
-
-        if (token.isLextant(Punctuator.OPEN_BRACKET)) {
+        if (nowReadingIs(Punctuator.OPEN_BRACKET)) {
             readToken();
             Type subtype = parseType();
             expect(Punctuator.CLOSE_BRACKET);
-            return new ArrayType(subtype);
+            return ArrayType.make(subtype);
         }
 
-        assert token instanceof LextantToken;
-        LextantToken lextantToken = (LextantToken) token;
-        Lextant lextant = lextantToken.getLextant();
-        
+        Lextant lextant = tokens.lextant(cursor);
+
         assert lextant instanceof Keyword;
         Keyword keyword = (Keyword) lextant;
 
@@ -787,164 +1057,176 @@ public class Parser {
         return type;
     }
 
-    private boolean startsType(Token token) {
-        return token.isLextant(
-            Keyword.BOOL,
-            Keyword.INT,
-            Keyword.FLOAT,
-            Keyword.CHAR,
-            Keyword.STRING,
-            Keyword.VOID,
-            Punctuator.OPEN_BRACKET);
+    private boolean startsType(int index) {
+        return FIRST_TYPE.contains(tokens.terminal(index));
     }
 
-    private boolean startsAtomicExpression(Token token) {
-        return startsLiteral(token)
-            || token.isLextant(Punctuator.OPEN_PAREN)
-            || token.isLextant(Punctuator.LESS)
-            || startsPopulatedArrayOrArrayIndexingExpression(token)
-            || startsNewArrayExpression(token);
+    private boolean startsAtomicExpression(int index) {
+        return FIRST_ATOMIC_EXPRESSION.contains(tokens.terminal(index));
     }
 
     // unaryExpression -> UNARYOP unaryExpression
     //                  | atomicExpression
-    private ParseNode parseUnaryExpression() {
-        if (startsAtomicExpression(nowReading)) {
+    private int parseUnaryExpression() {
+        if (startsAtomicExpression(cursor)) {
             return parseAtomicExpression();
         }
-        if (!startsUnaryExpression(nowReading)) {
+        if (!startsUnaryExpression(cursor)) {
             return syntaxErrorNode("unary expression");
         }
-        Token operatorToken = nowReading;
+        Token operatorToken = nowReading();
         readToken();
-        ParseNode child = parseUnaryExpression();
-        return OperatorNode.withChildren(operatorToken, child);
+        int child = parseUnaryExpression();
+        return withChildren(NodeKind.OPERATOR, operatorToken, child);
     }
 
-    private boolean startsUnaryExpression(Token token) {
-        return token.isLextant(Punctuator.SUBTRACT, Punctuator.ADD, Punctuator.NOT, Keyword.LENGTH) || startsAtomicExpression(token);
+    private boolean startsUnaryExpression(int index) {
+        return FIRST_UNARY_EXPRESSION.contains(tokens.terminal(index));
     }
 
     // literal -> number | identifier | booleanConstant
-    private ParseNode parseLiteral() {
-        if (!startsLiteral(nowReading)) {
+    private int parseLiteral() {
+        if (!startsLiteral(cursor)) {
             return syntaxErrorNode("literal");
         }
 
-        if (startsIntLiteral(nowReading)) {
+        switch (tokens.kind(cursor)) {
+        case TokenBuffer.NUMBER:
             return parseIntLiteral();
-        }
-        if (startsIdentifier(nowReading)) {
+        case TokenBuffer.IDENTIFIER:
             return parseIdentifier();
-        }
-        if (startsBooleanLiteral(nowReading)) {
+        case TokenBuffer.LEXTANT:
             return parseBooleanLiteral();
-        }
-        if (startsCharLiteral(nowReading)) {
+        case TokenBuffer.CHARACTER:
             return parseCharLiteral();
-        }
-        if (startsFloatLiteral(nowReading)) {
+        case TokenBuffer.FLOAT:
             return parseFloatLiteral();
-        }
-        if (startsStringLiteral(nowReading)) {
+        case TokenBuffer.STRING:
             return parseStringLiteral();
+        default:
+            return syntaxErrorNode("literal");
         }
-
-        return syntaxErrorNode("literal");
     }
 
-    private ParseNode parseStringLiteral() {
+    private int parseStringLiteral() {
         readToken();
-        return new StringConstantNode(previouslyRead);
+        return node(NodeKind.STRING_CONSTANT, previouslyRead());
     }
 
-    private boolean startsStringLiteral(Token token) {
-        return token instanceof StringToken;
-    }
-
-    private ParseNode parseFloatLiteral() {
+    private int parseFloatLiteral() {
         readToken();
-        return new FloatConstantNode(previouslyRead);
+        return node(NodeKind.FLOAT_CONSTANT, previouslyRead());
     }
 
-    private ParseNode parseCharLiteral() {
+    private int parseCharLiteral() {
         readToken();
-        return new CharConstantNode(previouslyRead);
-    }
-
-    private boolean startsLiteral(Token token) {
-        return startsIntLiteral(token)
-            || startsIdentifier(token)
-            || startsBooleanLiteral(token)
-            || startsCharLiteral(token)
-            || startsFloatLiteral(token)
-            || startsStringLiteral(token);
-    }
-
-    private boolean startsFloatLiteral(Token token) {
-        return token instanceof FloatToken;
+        return node(NodeKind.CHAR_CONSTANT, previouslyRead());
     }
 
-    private boolean startsCharLiteral(Token token) {
-        return token instanceof CharToken;
+    private boolean startsLiteral(int index) {
+        return FIRST_LITERAL.contains(tokens.terminal(index));
     }
 
     // number (literal)
-    private ParseNode parseIntLiteral() {
-        if (!startsIntLiteral(nowReading)) {
+    private int parseIntLiteral() {
+        if (!startsIntLiteral(cursor)) {
             return syntaxErrorNode("integer constant");
         }
         readToken();
-        return new IntegerConstantNode(previouslyRead);
+        return node(NodeKind.INTEGER_CONSTANT, previouslyRead());
     }
 
-    private boolean startsIntLiteral(Token token) {
-        return token instanceof NumberToken;
+    private boolean startsIntLiteral(int index) {
+        return tokens.kind(index) == TokenBuffer.NUMBER;
     }
 
     // identifier (terminal)
-    private ParseNode parseIdentifier() {
-        if (!startsIdentifier(nowReading)) {
+    private int parseIdentifier() {
+        if (!startsIdentifier(cursor)) {
             return syntaxErrorNode("identifier");
         }
         readToken();
-        return new IdentifierNode(previouslyRead);
+        return node(NodeKind.IDENTIFIER, previouslyRead());
     }
 
-    private boolean startsIdentifier(Token token) {
-        return token instanceof IdentifierToken;
+    private boolean startsIdentifier(int index) {
+        return tokens.kind(index) == TokenBuffer.IDENTIFIER;
     }
 
     // boolean literal
-    private ParseNode parseBooleanLiteral() {
-        if (!startsBooleanLiteral(nowReading)) {
+    private int parseBooleanLiteral() {
+        if (!startsBooleanLiteral(cursor)) {
             return syntaxErrorNode("boolean constant");
         }
         readToken();
-        return new BooleanConstantNode(previouslyRead);
+        return node(NodeKind.BOOLEAN_CONSTANT, previouslyRead());
+    }
+
+    private boolean startsBooleanLiteral(int index) {
+        return BOOLEAN_LITERALS.contains(tokens.terminal(index));
     }
 
-    private boolean startsBooleanLiteral(Token token) {
-        return token.isLextant(Keyword.TRUE, Keyword.FALSE);
+    ///////////////////////////////////////////////////////////
+    // building the tree, through the TreeBuilder
+
+    private int node(NodeKind kind, Token token) {
+        return trees.node(kind, token, PrimitiveType.NO_TYPE);
+    }
+
+    private int withChildren(NodeKind kind, Token token, int... children) {
+        return trees.withChildren(kind, token, PrimitiveType.NO_TYPE, children);
+    }
+
+    private int withChildren(NodeKind kind, Token token, Type type, int... children) {
+        return trees.withChildren(kind, token, type, children);
+    }
+
+    private void appendChild(int parent, int child) {
+        trees.appendChild(parent, child);
+    }
+
+    // the ParseNode built for the node; for the methods that give ParseNodes, which a Parser
+    // building a CompactTree does not have.
+    private ParseNode parseNode(int node) {
+        if (!(trees instanceof TreeBuilder.ParseNodes)) {
+            throw new IllegalStateException("Parser: builds a CompactTree, not ParseNodes");
+        }
+        return ((TreeBuilder.ParseNodes) trees).parseNode(node);
     }
 
     private void readToken() {
-        previouslyRead = nowReading;
-        nowReading = scanner.next();
+        cursor++;
+        tokens.scanTo(cursor);
+    }
+
+    private Token nowReading() {
+        return tokens.token(cursor);
+    }
+
+    private Token previouslyRead() {
+        return tokens.token(cursor - 1);
+    }
+
+    private boolean nowReadingIs(Lextant lextant) {
+        return tokens.isLextant(cursor, lextant);
+    }
+
+    private boolean isLextant(int index, Lextant lextant) {
+        return tokens.isLextant(index, lextant);
     }
 
     // if the current token is one of the given lextants, read the next token.
     // otherwise, give a syntax error and read next token (to avoid endless looping).
-    private void expect(Lextant... lextants) {
-        if (!nowReading.isLextant(lextants)) {
-            syntaxError(nowReading, "expecting " + Arrays.toString(lextants));
+    private void expect(Lextant lextant) {
+        if (!nowReadingIs(lextant)) {
+            syntaxError(nowReading(), "expecting " + Arrays.toString(new Lextant[] { lextant }));
         }
         readToken();
     }
 
-    private ErrorNode syntaxErrorNode(String expectedSymbol) {
-        syntaxError(nowReading, "expecting " + expectedSymbol);
-        ErrorNode errorNode = new ErrorNode(nowReading);
+    private int syntaxErrorNode(String expectedSymbol) {
+        syntaxError(nowReading(), "expecting " + expectedSymbol);
+        int errorNode = node(NodeKind.ERROR, nowReading());
         readToken();
         return errorNode;
     }
@@ -955,6 +1237,10 @@ public class Parser {
     }
 
     private void error(String message) {
+        if (heldErrors != null) {
+            heldErrors.add(message);
+            return;
+        }
         TanLogger log = TanLogger.getLogger("compiler.Parser");
         log.severe("syntax error: " + message);
     }
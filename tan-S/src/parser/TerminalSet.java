@@ -0,0 +1,55 @@
+package parser;
+
+import lexicalAnalyzer.Lextant;
+import lexicalAnalyzer.TokenBuffer;
+
+/**
+ * An immutable set of terminal symbols, as numbered by <code>TokenBuffer.terminal(...)</code>,
+ * held as a bitset. The Parser builds its FIRST sets from these once, so that deciding whether a
+ * token can start a construct is a single bit test.
+ */
+class TerminalSet {
+    private final long[] words;
+
+    private TerminalSet(long[] words) {
+        this.words = words;
+    }
+
+    private static TerminalSet empty() {
+        return new TerminalSet(new long[(TokenBuffer.TERMINAL_COUNT + 63) / 64]);
+    }
+
+    static TerminalSet of(Lextant... lextants) {
+        TerminalSet result = empty();
+        for (Lextant lextant : lextants) {
+            result.add(TokenBuffer.terminalFor(lextant));
+        }
+        return result;
+    }
+
+    static TerminalSet ofKinds(byte... kinds) {
+        TerminalSet result = empty();
+        for (byte kind : kinds) {
+            result.add(TokenBuffer.terminalFor(kind));
+        }
+        return result;
+    }
+
+    TerminalSet union(TerminalSet... others) {
+        long[] resultWords = words.clone();
+        for (TerminalSet other : others) {
+            for (int i = 0; i < resultWords.length; i++) {
+                resultWords[i] |= other.words[i];
+            }
+        }
+        return new TerminalSet(resultWords);
+    }
+
+    boolean contains(int terminal) {
+        return (words[terminal >>> 6] & (1L << terminal)) != 0;
+    }
+
+    private void add(int terminal) {
+        words[terminal >>> 6] |= 1L << terminal;
+    }
+}
@@ -0,0 +1,63 @@
+package parser.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import benchmarks.SyntheticCorpus;
+import junit.framework.TestCase;
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.ParseNode;
+import parseTree.ParseTreePrinter;
+import parser.Parser;
+
+public class TestFunctionByFunctionParsing extends TestCase {
+    private File directory;
+    private File file;
+
+    @Override
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("tanParser").toFile();
+        file = SyntheticCorpus.make(5, 3, 8, 4).writeTo(directory);
+    }
+
+    @Override
+    protected void tearDown() {
+        file.delete();
+        directory.delete();
+    }
+
+    public void testSameTreeAsParse() {
+        String expected = ParseTreePrinter.print(Parser.parse(LexicalAnalyzer.make(file.getPath())));
+
+        Parser parser = Parser.functionByFunction(file.getPath());
+        assertNotNull(parser);
+        ParseNode program = parser.parseProgramHeaders();
+        for (ParseNode function : program.getChildren()) {
+            assertEquals(0, function.child(2).nChildren());
+            assertTrue(parser.hasSkippedBody(function));
+            parser.parseFunctionBody(function);
+        }
+        parser.parseMainBlock(program);
+        assertEquals(expected, ParseTreePrinter.print(program));
+    }
+
+    public void testDropFunctionBody() {
+        Parser parser = Parser.functionByFunction(file.getPath());
+        ParseNode program = parser.parseProgramHeaders();
+        ParseNode function = program.child(0);
+        parser.parseFunctionBody(function);
+        assertTrue(function.child(2).nChildren() > 0);
+
+        parser.dropFunctionBody(function);
+        assertEquals(0, function.child(2).nChildren());
+        assertSame(function, function.child(2).getParent());
+    }
+
+    public void testUnbalancedBraces() throws IOException {
+        File unbalanced = new File(directory, "unbalanced.tan");
+        Files.write(unbalanced.toPath(), "subr int f(int a) { return a; \nmain { }\n".getBytes());
+        assertNull(Parser.functionByFunction(unbalanced.getPath()));
+        unbalanced.delete();
+    }
+}
@@ -0,0 +1,113 @@
+package parser.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import benchmarks.SyntheticCorpus;
+import junit.framework.TestCase;
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.ParseNode;
+import parseTree.ParseTreePrinter;
+import parser.Parser;
+import tokens.LextantToken;
+import tokens.Token;
+
+public class TestParallelParsing extends TestCase {
+    private File directory;
+    private ForkJoinPool pool;
+    private List<String> messages;
+    private Handler handler;
+
+    @Override
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("tanParser").toFile();
+        pool = new ForkJoinPool(4);
+        messages = new ArrayList<String>();
+        handler = new Handler() {
+            public void publish(LogRecord record) {
+                messages.add(record.getMessage());
+            }
+            public void flush() {}
+            public void close() {}
+        };
+        Logger.getLogger("compiler").addHandler(handler);
+    }
+
+    @Override
+    protected void tearDown() {
+        Logger.getLogger("compiler").removeHandler(handler);
+        pool.shutdown();
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    public void testSameTreeAsParse() throws IOException {
+        File file = SyntheticCorpus.make(4 * Parser.FUNCTIONS_PER_TASK + 3, 3, 8, 4).writeTo(directory);
+        assertSameTree(file);
+    }
+
+    public void testSyntaxErrorInBody() throws IOException {
+        File file = new File(directory, "error.tan");
+        String source = "subr int f(int a) { return a +; }\n"
+                + "subr int g(int b) { return b; }\n"
+                + "main { print g(1) \\n; }\n";
+        Files.write(file.toPath(), source.getBytes());
+        assertSameTree(file);
+    }
+
+    public void testLexicalErrorsBetweenFunctions() throws IOException {
+        File file = new File(directory, "lexical.tan");
+        String source = "subr int f(int a) { return a; }\n"
+                + "\"unterminated\n"
+                + "subr int g(int b) { return b $ 1; }\n"
+                + "main { print g(1) \\n; }\n";
+        Files.write(file.toPath(), source.getBytes());
+        assertSameTree(file);
+        assertTrue(messages.size() >= 3);
+    }
+
+    // the bodies' parsers share the buffer; each lextant token must be whole, and where parse() puts it.
+    public void testLextantTokensAcrossTasks() throws IOException {
+        File file = SyntheticCorpus.make(4 * Parser.FUNCTIONS_PER_TASK + 3, 3, 8, 4).writeTo(directory);
+        ParseNode expected = Parser.parse(LexicalAnalyzer.make(file.getPath()));
+        for (int i = 0; i < 5; i++) {
+            Parser parser = new Parser(LexicalAnalyzer.make(file.getPath()));
+            assertSameLextantTokens(expected, parser.parseInParallel(pool));
+        }
+    }
+
+    private void assertSameLextantTokens(ParseNode expected, ParseNode actual) {
+        Token expectedToken = expected.getToken();
+        Token actualToken = actual.getToken();
+        if (expectedToken instanceof LextantToken) {
+            assertTrue(actualToken instanceof LextantToken);
+            assertSame(((LextantToken) expectedToken).getLextant(), ((LextantToken) actualToken).getLextant());
+            assertEquals(expectedToken.getLexeme(), actualToken.getLexeme());
+            assertNotNull(actualToken.getLocation());
+            assertEquals(expectedToken.getLocation().toString(), actualToken.getLocation().toString());
+        }
+        assertEquals(expected.nChildren(), actual.nChildren());
+        for (int i = 0; i < expected.nChildren(); i++) {
+            assertSameLextantTokens(expected.child(i), actual.child(i));
+        }
+    }
+
+    private void assertSameTree(File file) {
+        String expected = ParseTreePrinter.print(Parser.parse(LexicalAnalyzer.make(file.getPath())));
+        List<String> expectedMessages = new ArrayList<String>(messages);
+        messages.clear();
+
+        Parser parser = new Parser(LexicalAnalyzer.make(file.getPath()));
+        assertEquals(expected, ParseTreePrinter.print(parser.parseInParallel(pool)));
+        assertEquals(expectedMessages, messages);
+    }
+}
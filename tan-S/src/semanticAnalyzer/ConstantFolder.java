@@ -0,0 +1,273 @@
+package semanticAnalyzer;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import inputHandler.Locator;
+import lexicalAnalyzer.Keyword;
+import lexicalAnalyzer.Lextant;
+import lexicalAnalyzer.Punctuator;
+import parseTree.ParseNode;
+import parseTree.ParseNodeVisitor;
+import parseTree.nodeTypes.BooleanConstantNode;
+import parseTree.nodeTypes.CastNode;
+import parseTree.nodeTypes.CharConstantNode;
+import parseTree.nodeTypes.DeclarationNode;
+import parseTree.nodeTypes.FloatConstantNode;
+import parseTree.nodeTypes.IdentifierNode;
+import parseTree.nodeTypes.IntegerConstantNode;
+import parseTree.nodeTypes.OperatorNode;
+import semanticAnalyzer.types.PrimitiveType;
+import semanticAnalyzer.types.Type;
+import symbolTable.Binding;
+import tokens.CharToken;
+import tokens.FloatToken;
+import tokens.LextantToken;
+import tokens.NumberToken;
+
+/**
+ * Folds the operators and casts of an analyzed tree whose operands are constants into constant
+ * nodes, and replaces the uses of a const whose initializer folds with its value. Run on a tree
+ * without errors, just before code generation.
+ * <p>
+ * A folded constant has the value the machine would have computed: integer results are folded
+ * only if they fit in an int, float results only if PushF prints them exactly, and a division
+ * by zero is not folded, so that it still jumps to the RunTime error handler. Strings are not
+ * folded; their comparisons compare addresses.
+ */
+public class ConstantFolder {
+
+    public static ParseNode fold(ParseNode decoratedTree) {
+        decoratedTree.accept(new FoldingVisitor());
+        return decoratedTree;
+    }
+
+    // true if the node is a constant that is not zero at run time, so dividing by it needs no check.
+    public static boolean isNonzeroConstant(ParseNode node) {
+        Number value = valueOf(node);
+        return value != null && value.doubleValue() != 0;
+    }
+
+
+    ///////////////////////////////////////////////////////////////
+    // the visitor
+    //
+    // A node's children are folded when the node is left, and not when they are: the walk
+    // is done with their list then (see ParseNode.replaceChild). So an expression folds from
+    // its leaves up, each operator as its parent is left.
+
+    private static class FoldingVisitor extends ParseNodeVisitor.Default {
+        private final Map<Binding, ParseNode> constants = new HashMap<Binding, ParseNode>();
+
+        @Override
+        public void defaultVisitLeave(ParseNode node) {
+            for (int i = 0; i < node.nChildren(); i++) {
+                ParseNode child = node.child(i);
+                ParseNode folded = folded(child);
+                if (folded != child) {
+                    node.replaceChild(child, folded);
+                }
+            }
+        }
+
+        @Override
+        public void visitLeave(DeclarationNode node) {
+            defaultVisitLeave(node);
+            if (node.getDeclarationType() == Keyword.CONST && valueOf(node.child(1)) != null) {
+                IdentifierNode identifier = (IdentifierNode) node.child(0);
+                constants.put(identifier.getBinding(), node.child(1));
+            }
+        }
+
+        private ParseNode folded(ParseNode node) {
+            if (node instanceof IdentifierNode) {
+                ParseNode constant = constants.get(((IdentifierNode) node).getBinding());
+                return constant == null ? node : constantNode(constant.getType(), valueOf(constant), node);
+            }
+            if (node instanceof OperatorNode) {
+                return foldedOperator((OperatorNode) node);
+            }
+            if (node instanceof CastNode) {
+                return foldedCast((CastNode) node);
+            }
+            return node;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////
+    // operators
+
+    private static ParseNode foldedOperator(OperatorNode node) {
+        Lextant operator = node.getOperator();
+        if (operator == Punctuator.AND || operator == Punctuator.OR) {
+            return foldedShortCircuit(node, operator);
+        }
+        Number[] operands = new Number[node.nChildren()];
+        for (int i = 0; i < operands.length; i++) {
+            operands[i] = valueOf(node.child(i));
+            if (operands[i] == null) {
+                return node;
+            }
+        }
+        boolean isFloat = node.child(0).getType() == PrimitiveType.FLOAT;
+        Number result = operands.length == 1
+                ? unary(operator, isFloat, operands[0])
+                : binary(operator, isFloat, operands[0], operands[1]);
+        return folded(node, node.getType(), result);
+    }
+
+    // a constant first operand decides an and or an or, or leaves it to the second.
+    private static ParseNode foldedShortCircuit(OperatorNode node, Lextant operator) {
+        Number first = valueOf(node.child(0));
+        if (first == null) {
+            return node;
+        }
+        boolean decides = (first.longValue() != 0) == (operator == Punctuator.OR);
+        return decides ? folded(node, PrimitiveType.BOOLEAN, first) : node.child(1);
+    }
+
+    private static Number unary(Lextant operator, boolean isFloat, Number operand) {
+        if (operator == Punctuator.SUBTRACT) {
+            return isFloat ? (Number) (-operand.doubleValue()) : (Number) (-operand.longValue());
+        }
+        if (operator == Punctuator.ADD) {
+            return operand;
+        }
+        if (operator == Punctuator.NOT) {
+            return operand.longValue() == 0 ? 1L : 0L;
+        }
+        return null;
+    }
+
+    private static Number binary(Lextant operator, boolean isFloat, Number left, Number right) {
+        if (isFloat) {
+            double a = left.doubleValue();
+            double b = right.doubleValue();
+            if (operator == Punctuator.ADD)      return a + b;
+            if (operator == Punctuator.SUBTRACT) return a - b;
+            if (operator == Punctuator.MULTIPLY) return a * b;
+            if (operator == Punctuator.DIVIDE)   return b == 0 ? null : (Number) (a / b);
+            return comparison(operator, a < b ? -1 : a > b ? 1 : 0);
+        }
+        long a = left.longValue();
+        long b = right.longValue();
+        if (operator == Punctuator.ADD)      return a + b;
+        if (operator == Punctuator.SUBTRACT) return a - b;
+        if (operator == Punctuator.MULTIPLY) return a * b;
+        if (operator == Punctuator.DIVIDE)   return b == 0 ? null : (Number) (a / b);
+        // the machine compares by subtracting, which must not overflow.
+        return fitsInt(a - b) ? comparison(operator, Long.signum(a - b)) : null;
+    }
+
+    private static Number comparison(Lextant operator, int sign) {
+        boolean result;
+        if (operator == Punctuator.GREATER) {
+            result = sign > 0;
+        } else if (operator == Punctuator.LESS) {
+            result = sign < 0;
+        } else if (operator == Punctuator.GREATER_OR_EQUAL) {
+            result = sign >= 0;
+        } else if (operator == Punctuator.LESS_OR_EQUAL) {
+            result = sign <= 0;
+        } else if (operator == Punctuator.EQUAL) {
+            result = sign == 0;
+        } else if (operator == Punctuator.NOT_EQUAL) {
+            result = sign != 0;
+        } else {
+            return null;
+        }
+        return result ? 1L : 0L;
+    }
+
+
+    ///////////////////////////////////////////////////////////////
+    // casts, as the code for each of the CAST signatures computes them
+
+    private static ParseNode foldedCast(CastNode node) {
+        Number value = valueOf(node.child(0));
+        if (value == null) {
+            return node;
+        }
+        Type from = node.child(0).getType();
+        Type to = node.getCastType();
+        Number result = null;
+        if (to == PrimitiveType.INTEGER && from == PrimitiveType.FLOAT) {
+            double d = value.doubleValue();
+            result = d > Integer.MIN_VALUE - 1.0 && d < Integer.MAX_VALUE + 1.0 ? (Number) (long) d : null;
+        } else if (to == PrimitiveType.FLOAT) {
+            result = value.doubleValue();
+        } else if (to == PrimitiveType.CHARACTER && from == PrimitiveType.INTEGER) {
+            result = value.longValue() & 0x7f;
+        } else if (to == PrimitiveType.BOOLEAN) {
+            result = value.longValue() != 0 ? 1L : 0L;
+        } else if (to == PrimitiveType.INTEGER || to == PrimitiveType.CHARACTER) {
+            result = value;
+        }
+        return folded(node, to, result);
+    }
+
+
+    ///////////////////////////////////////////////////////////////
+    // constant values and nodes
+    //
+    // A constant's value is a Long for an integer, character, or boolean (as the machine holds
+    // them), and for a float the Double that PushF gives, which can differ from the literal.
+
+    private static Number valueOf(ParseNode node) {
+        if (node instanceof IntegerConstantNode) {
+            return (long) ((IntegerConstantNode) node).getValue();
+        }
+        if (node instanceof CharConstantNode) {
+            return (long) ((CharConstantNode) node).getValue();
+        }
+        if (node instanceof BooleanConstantNode) {
+            return ((BooleanConstantNode) node).getValue() ? 1L : 0L;
+        }
+        if (node instanceof FloatConstantNode) {
+            return pushedValue(((FloatConstantNode) node).getValue());
+        }
+        return null;
+    }
+
+    // the node folded to the value, or the node itself if there is no value or no constant holds it.
+    private static ParseNode folded(ParseNode node, Type type, Number value) {
+        ParseNode constant = value == null ? null : constantNode(type, value, node);
+        return constant == null ? node : constant;
+    }
+
+    private static ParseNode constantNode(Type type, Number value, Locator locator) {
+        ParseNode result;
+        if (type == PrimitiveType.INTEGER) {
+            long l = value.longValue();
+            if (!fitsInt(l)) {
+                return null;
+            }
+            result = new IntegerConstantNode(NumberToken.make(locator, Long.toString(l), (int) l));
+        } else if (type == PrimitiveType.FLOAT) {
+            double d = value.doubleValue();
+            if (Double.isInfinite(d) || Double.isNaN(d) || pushedValue(d) != d) {
+                return null;
+            }
+            result = new FloatConstantNode(FloatToken.make(locator, Double.toString(d), d));
+        } else if (type == PrimitiveType.CHARACTER) {
+            result = new CharConstantNode(CharToken.make(locator, "%" + Long.toOctalString(value.longValue())));
+        } else if (type == PrimitiveType.BOOLEAN) {
+            Keyword keyword = value.longValue() != 0 ? Keyword.TRUE : Keyword.FALSE;
+            result = new BooleanConstantNode(LextantToken.make(locator, keyword.getLexeme(), keyword));
+        } else {
+            return null;
+        }
+        result.setType(type);
+        return result;
+    }
+
+    private static boolean fitsInt(long value) {
+        return value == (int) value;
+    }
+
+    // the value of a PushF of the double, which prints it with six decimals.
+    private static double pushedValue(double value) {
+        return Double.parseDouble(String.format(Locale.ROOT, "%f", value));
+    }
+}
@@ -2,10 +2,7 @@ package semanticAnalyzer;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import lexicalAnalyzer.Lextant;
 import lexicalAnalyzer.PseudoOperator;
 import parseTree.ParseNode;
@@ -16,239 +13,104 @@ import parseTree.nodeTypes.OperatorNode;
 import parseTree.nodeTypes.PopulatedArrayNode;
 import semanticAnalyzer.signatures.FunctionSignature;
 import semanticAnalyzer.signatures.FunctionSignatures;
+import semanticAnalyzer.signatures.Promotion;
 import semanticAnalyzer.types.ArrayType;
 import semanticAnalyzer.types.PrimitiveType;
 import semanticAnalyzer.types.Type;
 import tokens.LextantToken;
 
+// Each promotable method is called from a visitLeave on the node it is given, once the node's
+// children are analyzed; if the node's children can be promoted it inserts the casts above them
+// right away and returns true.
 public class Promoter {
 
-    LinkedHashMap<ParseNode, List<PrimitiveType>> promotions;
-
-    public Promoter() {
-        promotions = new LinkedHashMap<ParseNode, List<PrimitiveType>>();
-    }
-
     private Lextant operatorFor(ParseNode node) {
         LextantToken token = (LextantToken) node.getToken();
         return token.getLextant();
     }
 
     public boolean promotable(OperatorNode node) {
-        Lextant operator = operatorFor(node);
-
-        List<Type> childTypes = new ArrayList<Type>();
-        node.getChildren().forEach((child) -> childTypes.add(child.getType()));
-        FunctionSignature signature = FunctionSignatures.signature(operator, childTypes);
-
-        // cast to integer
-        for (int i = 0; i < childTypes.size(); i++) {
-            if (childTypes.get(i) == PrimitiveType.CHARACTER) {
-                childTypes.set(i, PrimitiveType.INTEGER);
-                signature = FunctionSignatures.signature(operator, childTypes);
-                if (signature.isNull()) {
-                    childTypes.set(i, PrimitiveType.CHARACTER);
-                } else {
-                    addPromotion(node.child(i), Arrays.asList(PrimitiveType.INTEGER));
-                }
-            }
-        }
-
-        if (signature.accepts(childTypes)) {
-            node.setSignature(signature);
-            node.setType(signature.resultType());
-            return true;
+        Promotion promotion = FunctionSignatures.promotion(operatorFor(node), node, 0);
+        if (!promotion.succeeds()) {
+            return false;
         }
 
-        // cast to float
-        for (int i = 0; i < childTypes.size(); i++) {
-            if (childTypes.get(i) == PrimitiveType.CHARACTER) {
-                childTypes.set(i, PrimitiveType.FLOAT);
-                signature = FunctionSignatures.signature(operator, childTypes);
-                if (signature.isNull()) {
-                    childTypes.set(i, PrimitiveType.CHARACTER);
-                } else {
-                    addPromotion(node.child(i), Arrays.asList(PrimitiveType.INTEGER, PrimitiveType.FLOAT));
-                }
-            }
-
-            if (childTypes.get(i) == PrimitiveType.INTEGER) {
-                childTypes.set(i, PrimitiveType.FLOAT);
-                signature = FunctionSignatures.signature(operator, childTypes);
-                if (signature.isNull()) {
-                    childTypes.set(i, PrimitiveType.INTEGER);
-                } else {
-                    addPromotion(node.child(i), Arrays.asList(PrimitiveType.FLOAT));
-                }
-            }
-        }
-
-        if (signature.accepts(childTypes)) {
-            node.setSignature(signature);
-            node.setType(signature.resultType());
-            return true;
-        }
-
-        return false;
+        promote(node, promotion);
+        node.setSignature(promotion.signature());
+        node.setType(promotion.signature().resultType());
+        return true;
     }
 
     public boolean promotable(PopulatedArrayNode node) {
         List<Type> childTypes = new ArrayList<Type>();
-        List<Type> castTypes = new ArrayList<Type>();
-
-        node.getChildren().forEach((child) -> {
-            Type type = child.getType();
-            childTypes.add(type);
-            castTypes.add(type);
-        });
-
-        // cast to integer
-        for (int i = 0; i < childTypes.size(); i++) {			
-            if (childTypes.get(i) == PrimitiveType.CHARACTER) {
-                castTypes.set(i, PrimitiveType.INTEGER);
-                addPromotion(node.child(i), Arrays.asList(PrimitiveType.INTEGER));
-            }
-        }
+        node.getChildren().forEach((child) -> childTypes.add(child.getType()));
 
-        if (Collections.frequency(castTypes, PrimitiveType.INTEGER) == node.nChildren()) {
-            node.setType(new ArrayType(PrimitiveType.INTEGER));
-            return true;
-        } else {
-            promotions.clear();
-            castTypes.clear();
-            node.getChildren().forEach((child) -> castTypes.add(child.getType()));
+        Type join = Promotion.join(childTypes);
+        if (join != PrimitiveType.INTEGER && join != PrimitiveType.FLOAT) {
+            return false;
         }
 
-        // cast to float
         for (int i = 0; i < childTypes.size(); i++) {
-            if (childTypes.get(i) == PrimitiveType.CHARACTER) {
-                castTypes.set(i, PrimitiveType.FLOAT);
-                addPromotion(node.child(i), Arrays.asList(PrimitiveType.INTEGER, PrimitiveType.FLOAT));
-            }
-            
-            if (childTypes.get(i) == PrimitiveType.INTEGER) {
-                castTypes.set(i, PrimitiveType.FLOAT);
-                addPromotion(node.child(i), Arrays.asList(PrimitiveType.FLOAT));
-            }
+            promote(node.child(i), Promotion.casts(childTypes.get(i), join));
         }
-
-        if (Collections.frequency(castTypes, PrimitiveType.FLOAT) == node.nChildren()) {
-            node.setType(new ArrayType(PrimitiveType.FLOAT));
-            return true;
-        } else {
-            promotions.clear();	
-            castTypes.clear();
-            node.getChildren().forEach((child) -> castTypes.add(child.getType()));
-        }
-
-        return false;
+        node.setType(ArrayType.make(join));
+        return true;
     }
 
     public boolean promotable(ArrayIndexNode node) {
-        List<Type> childTypes = new ArrayList<Type>();
-        node.getChildren().forEach((child) -> childTypes.add(child.getType()));
+        Type arrayType = node.child(0).getType();
+        List<PrimitiveType> casts = Promotion.casts(node.child(1).getType(), PrimitiveType.INTEGER);
 
-        if (childTypes.get(0) instanceof ArrayType) {
-            if (childTypes.get(1) == PrimitiveType.CHARACTER) {
-                addPromotion(node.child(1), Arrays.asList(PrimitiveType.INTEGER));
-                Type subtype = ((ArrayType)childTypes.get(0)).getSubType();
-                node.setType(subtype);
-                return true;
-            }
+        if (arrayType instanceof ArrayType && casts != null && !casts.isEmpty()) {
+            promote(node.child(1), casts);
+            node.setType(((ArrayType) arrayType).getSubType());
+            return true;
         }
 
         return false;
     }
 
     public boolean promotable(NewArrayNode node) {
-        List<Type> childTypes = new ArrayList<Type>();
-        node.getChildren().forEach((child) -> childTypes.add(child.getType()));
+        List<PrimitiveType> casts = Promotion.casts(node.child(0).getType(), PrimitiveType.INTEGER);
 
-        if (childTypes.get(0) == PrimitiveType.CHARACTER) {
-            addPromotion(node.child(0), Arrays.asList(PrimitiveType.INTEGER));
-            node.setType(new ArrayType(PrimitiveType.INTEGER));
+        if (casts != null && !casts.isEmpty()) {
+            promote(node.child(0), casts);
+            node.setType(ArrayType.make(PrimitiveType.INTEGER));
             return true;
         }
 
         return false;
-
     }
 
+    // the target of an assignment, its first child, is never promoted.
     public boolean promotable(ParseNode node) {
-        Lextant operator = operatorFor(node);
-
-        List<Type> childTypes = new ArrayList<Type>();
-        node.getChildren().forEach((child) -> childTypes.add(child.getType()));
-        FunctionSignature signature = FunctionSignatures.signature(operator, childTypes);
-
-        // Check for cast to integer
-        for (int i = 1; i < childTypes.size(); i++) {
-            if (childTypes.get(i) == PrimitiveType.CHARACTER) {
-                childTypes.set(i, PrimitiveType.INTEGER);
-                signature = FunctionSignatures.signature(operator, childTypes);
-                if (signature.isNull()) {
-                    childTypes.set(i, PrimitiveType.CHARACTER);
-                } else {
-                    addPromotion(node.child(i), Arrays.asList(PrimitiveType.INTEGER));
-                }
-            }
-        }
-
-        if (signature.accepts(childTypes)) {
-            node.setType(signature.resultType());
-            return true;
+        Promotion promotion = FunctionSignatures.promotion(operatorFor(node), node, 1);
+        if (!promotion.succeeds()) {
+            return false;
         }
 
-        // Check for cast to float
-        for (int i = 1; i < childTypes.size(); i++) {
-            if (childTypes.get(i) == PrimitiveType.CHARACTER) {
-                childTypes.set(i, PrimitiveType.FLOAT);
-                signature = FunctionSignatures.signature(operator, childTypes);
-                if (signature.isNull()) {
-                    childTypes.set(i, PrimitiveType.CHARACTER);
-                } else {
-                    addPromotion(node.child(i), Arrays.asList(PrimitiveType.INTEGER, PrimitiveType.FLOAT));
-                }
-            }
+        promote(node, promotion);
+        node.setType(promotion.signature().resultType());
+        return true;
+    }
 
-            if (childTypes.get(i) == PrimitiveType.INTEGER) {
-                childTypes.set(i, PrimitiveType.FLOAT);
-                signature = FunctionSignatures.signature(operator, childTypes);
-                if (signature.isNull()) {
-                    childTypes.set(i, PrimitiveType.INTEGER);
-                } else {
-                    addPromotion(node.child(i), Arrays.asList(PrimitiveType.FLOAT));
-                }
+    private void promote(ParseNode node, Promotion promotion) {
+        for (int i = 0; i < promotion.nOperands(); i++) {
+            if (promotion.castsFor(i) != null) {
+                promote(node.child(i), promotion.castsFor(i));
             }
         }
-
-        if (signature.accepts(childTypes)) {
-            node.setType(signature.resultType());
-            return true;
-        }
-
-        return false;
     }
 
-    private void addPromotion(ParseNode node, List<PrimitiveType> castTypes) {
-        promotions.put(node, castTypes);
-    }
-
-    public void promote() {
-        for (Map.Entry<ParseNode, List<PrimitiveType>> entry : promotions.entrySet()) {
-            ParseNode node = entry.getKey();
-            List<PrimitiveType> casts = entry.getValue();
-
-            for (PrimitiveType type : casts) {
-                ParseNode parentNode = node.getParent();
-                List<Type> childTypes = Arrays.asList(node.getType(), type);
-                FunctionSignature signature = FunctionSignatures.signature(PseudoOperator.CAST, childTypes);
-                CastNode cast = CastNode.withChildren(PseudoOperator.CAST.prototype(), type, node);
-                cast.setSignature(signature);
-                cast.setType(signature.resultType());
-                parentNode.replaceChild(node, cast);
-                node = cast;
-            }
+    private void promote(ParseNode node, List<PrimitiveType> casts) {
+        for (PrimitiveType type : casts) {
+            ParseNode parentNode = node.getParent();
+            FunctionSignature signature = FunctionSignatures.signature(PseudoOperator.CAST, Arrays.asList(node.getType(), type));
+            CastNode cast = CastNode.withChildren(PseudoOperator.CAST.prototype(), type, node);
+            cast.setSignature(signature);
+            cast.setType(signature.resultType());
+            parentNode.replaceChild(node, cast);
+            node = cast;
         }
     }
 
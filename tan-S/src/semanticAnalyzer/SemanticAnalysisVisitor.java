@@ -46,6 +46,7 @@ import semanticAnalyzer.types.PrimitiveType;
 import semanticAnalyzer.types.Type;
 import symbolTable.Binding;
 import symbolTable.Scope;
+import symbolTable.ScopeStack;
 import tokens.LextantToken;
 import tokens.Token;
 
@@ -53,6 +54,9 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 
     public Promoter promoter = new Promoter();
 
+    // the scopes of the nodes enclosing the current one; see ScopeStack.
+    private ScopeStack scopes = new ScopeStack();
+
     @Override
     public void visitLeave(ParseNode node) {
         throw new RuntimeException(
@@ -62,14 +66,19 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
     ///////////////////////////////////////////////////////////////////////////
     // constructs larger than statements
 
+    // the program scope was made in the first pass.
+    public void visitEnter(ProgramNode node) {
+        scopes.enter(node.getScope());
+    }
+
     public void visitLeave(ProgramNode node) {
         leaveScope(node);
     }
 
     public void visitEnter(BlockStatementNode node) {
         if (node.getParent() instanceof FunctionDefinitionNode) {
-            Scope parameterScope = node.getLocalScope();
-            node.setScope(parameterScope.createProcedureScope());
+            Scope parameterScope = scopes.localScope();
+            enterScope(node, parameterScope.createProcedureScope());
         } else {
             enterSubscope(node);
         }
@@ -84,13 +93,18 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
     // helper methods for scoping.
 
     private void enterSubscope(ParseNode node) {
-        Scope baseScope = node.getLocalScope();
-        Scope scope = baseScope.createSubscope();
+        Scope baseScope = scopes.localScope();
+        enterScope(node, baseScope.createSubscope());
+    }
+
+    private void enterScope(ParseNode node, Scope scope) {
         node.setScope(scope);
+        scopes.enter(scope);
     }
 
     private void leaveScope(ParseNode node) {
         node.getScope().leave();
+        scopes.leave();
     }
 
     ///////////////////////////////////////////////////////////////////////////
@@ -131,7 +145,7 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
         ParseNode expression = node.child(1);
         Type targetType = target.getType();
         Type expressionType = expression.getType();
-        if (!targetType.equals(expressionType)) {
+        if (targetType != expressionType) {
             List<Type> types = new ArrayList<Type>();
             types.add(targetType);
             types.add(expressionType);
@@ -159,7 +173,7 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
 
         // length array operator
 		if (childTypes.size() == 1 && childTypes.get(0) instanceof ArrayType && operator == Keyword.LENGTH) {
-            FunctionSignature signature = new FunctionSignature(new LengthArraySCG(), new ArrayType(), PrimitiveType.INTEGER);
+            FunctionSignature signature = new FunctionSignature(new LengthArraySCG(), ArrayType.anyArray(), PrimitiveType.INTEGER);
             node.setSignature(signature);
             node.setType(signature.resultType());
             return;
@@ -188,7 +202,7 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
             node.setType(PrimitiveType.ERROR);
             return;
         }
-        if (expressionType.equals(castType)) {
+        if (expressionType == castType) {
             node.setType(castType);
             return;
         }
@@ -232,12 +246,12 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
         // Check that all values are of same type
         Type type = childTypes.get(0);
         for (ParseNode child : node.getChildren()) {
-            if (!(type.equals(child.getType()))) {
+            if (type != child.getType()) {
                 typeCheckError(node, childTypes);
                 return;
             }
         }
-        Type nodeType = new ArrayType(type);
+        Type nodeType = ArrayType.make(type);
         node.setType(nodeType);
     }
 
@@ -334,15 +348,14 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
         assert functionType instanceof FunctionSignature;
         Type functionReturnType = ((FunctionSignature) functionType).resultType();
         Type returnType = node.getType();
-        if (!functionReturnType.equals(returnType)) {
+        if (functionReturnType != returnType) {
             typeCheckError(node, Arrays.asList(functionReturnType, returnType));
         }
     }
 
     @Override
     public void visitEnter(FunctionDefinitionNode node) {
-        Scope scope = Scope.createParameterScope();
-        node.setScope(scope);
+        enterScope(node, Scope.createParameterScope());
     }
 
     @Override
@@ -447,7 +460,7 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
         }
 
         if (!isBeingDeclared(node) && !isForIdentifier(node)) {
-            Binding binding = node.findVariableBinding();
+            Binding binding = resolve(node);
 
             node.setType(binding.getType());
             node.setBinding(binding);
@@ -468,8 +481,21 @@ class SemanticAnalysisVisitor extends ParseNodeVisitor.Default {
             || (parent instanceof ParameterNode) && (node == parent.child(0));
     }
 
+    // finds the binding against the scope stack, as findVariableBinding would up the tree,
+    // and records the scope it was found in on the node.
+    private Binding resolve(IdentifierNode node) {
+        String identifier = node.getToken().getLexeme();
+        Scope scope = scopes.scopeDeclaring(identifier);
+        if (scope == null) {
+            node.useBeforeDefineError();
+            return Binding.nullInstance();
+        }
+        node.setDeclarationScope(scope);
+        return scope.getSymbolTable().lookup(identifier);
+    }
+
     private void addBinding(IdentifierNode identifierNode, Type type) {
-        Scope scope = identifierNode.getLocalScope();
+        Scope scope = scopes.localScope();
         Binding binding = scope.createBinding(identifierNode, type);
         identifierNode.setBinding(binding);
     }
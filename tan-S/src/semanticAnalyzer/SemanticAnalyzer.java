@@ -1,7 +1,14 @@
 package semanticAnalyzer;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import logging.TanLogger;
+import logging.TanLogger.HeldMessages;
 import parseTree.*;
+import parseTree.nodeTypes.FunctionDefinitionNode;
 import parseTree.nodeTypes.IdentifierNode;
+import parseTree.nodeTypes.ProgramNode;
 import semanticAnalyzer.types.Type;
 import symbolTable.Binding;
 import symbolTable.Scope;
@@ -9,12 +16,22 @@ import symbolTable.Scope;
 
 public class SemanticAnalyzer {
     ParseNode ASTree;
+    private SemanticAnalysisVisitor childVisitor;
 
     public static ParseNode analyze(ParseNode ASTree) {
         SemanticAnalyzer analyzer = new SemanticAnalyzer(ASTree);
         return analyzer.analyze();
     }
 
+    // a tree from Parser.parseCompact: the first pass works on its arrays, and the second on
+    // its ParseNode view, which is returned.
+    public static ParseNode analyze(CompactTree tree) {
+        ParseNode ASTree = tree.root();
+        SementicAnalysisFirstPassVisitor.analyze(tree, ASTree);
+        ASTree.accept(new SemanticAnalysisVisitor());
+        return ASTree;
+    }
+
     public SemanticAnalyzer(ParseNode ASTree) {
         this.ASTree = ASTree;
     }
@@ -24,10 +41,120 @@ public class SemanticAnalyzer {
         ASTree.accept(sav_p1);
         SemanticAnalysisVisitor sav = new SemanticAnalysisVisitor();
         ASTree.accept(sav);
-        sav.promoter.promote();
         return ASTree;
     }
 
+    // pipelined analysis of a ProgramNode, one child at a time: analyzeSignatures while the
+    // function definitions are still without bodies, then analyzeChild on each child of the
+    // program in order, then finish. Each child is fully analyzed when analyzeChild returns.
+    public void analyzeSignatures() {
+        ASTree.accept(new SementicAnalysisFirstPassVisitor());
+        childVisitor = new SemanticAnalysisVisitor();
+        childVisitor.visitEnter((ProgramNode) ASTree);
+    }
+
+    public void analyzeChild(ParseNode child) {
+        child.accept(childVisitor);
+    }
+
+    public void finish() {
+        childVisitor.visitLeave((ProgramNode) ASTree);
+    }
+
+
+    ////////////////////////////////////////////////////////////////////////////////////
+    // parallel analysis
+    //
+    // Once the first pass has bound every function's signature in the program scope, analyzing
+    // a function body only reads the program scope, and allocates from the function's own
+    // scopes. So the bodies are analyzed by BodyTasks on a ForkJoinPool, FUNCTIONS_PER_TASK
+    // to a task, each task with its own visitor (and so its own Promoter and ScopeStack), while
+    // this thread analyzes the rest of the program. Each child of the program holds the
+    // messages it logs, and they are logged in source order once every child is analyzed.
+
+    public static final int FUNCTIONS_PER_TASK = 8;
+
+    public static ParseNode analyzeInParallel(ParseNode ASTree) {
+        SemanticAnalyzer analyzer = new SemanticAnalyzer(ASTree);
+        return analyzer.analyzeInParallel(ForkJoinPool.commonPool());
+    }
+
+    public ParseNode analyzeInParallel(ForkJoinPool pool) {
+        if (!(ASTree instanceof ProgramNode)) {
+            return analyze();
+        }
+        ProgramNode program = (ProgramNode) ASTree;
+        ASTree.accept(new SementicAnalysisFirstPassVisitor());
+
+        ParseNode[] children = program.getChildren().toArray(new ParseNode[program.nChildren()]);
+        HeldMessages[] messages = new HeldMessages[children.length];
+        BodyTask bodies = new BodyTask(program, children, 0, children.length, messages);
+        ForkJoinTask<Void> bodiesAnalyzed = pool.submit(bodies);
+
+        SemanticAnalysisVisitor visitor = new SemanticAnalysisVisitor();
+        visitor.visitEnter(program);
+        for (int i = 0; i < children.length; i++) {
+            if (!(children[i] instanceof FunctionDefinitionNode)) {
+                messages[i] = analyzeHoldingMessages(children[i], visitor);
+            }
+        }
+        bodiesAnalyzed.join();
+
+        for (HeldMessages held : messages) {
+            held.log();
+        }
+        visitor.visitLeave(program);
+        return ASTree;
+    }
+
+    private static HeldMessages analyzeHoldingMessages(ParseNode child, SemanticAnalysisVisitor visitor) {
+        HeldMessages held;
+        TanLogger.holdMessages();
+        try {
+            child.accept(visitor);
+        } finally {
+            held = TanLogger.releaseMessages();
+        }
+        return held;
+    }
+
+    // analyzes the function definitions among children[start] to children[end - 1], splitting
+    // the range in halves down to FUNCTIONS_PER_TASK children.
+    private static class BodyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ProgramNode program;
+        private final ParseNode[] children;
+        private final int start;
+        private final int end;
+        private final HeldMessages[] messages;
+
+        BodyTask(ProgramNode program, ParseNode[] children, int start, int end, HeldMessages[] messages) {
+            this.program = program;
+            this.children = children;
+            this.start = start;
+            this.end = end;
+            this.messages = messages;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > FUNCTIONS_PER_TASK) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new BodyTask(program, children, start, middle, messages),
+                        new BodyTask(program, children, middle, end, messages));
+                return;
+            }
+            SemanticAnalysisVisitor visitor = new SemanticAnalysisVisitor();
+            visitor.visitEnter(program);
+            for (int i = start; i < end; i++) {
+                if (children[i] instanceof FunctionDefinitionNode) {
+                    messages[i] = analyzeHoldingMessages(children[i], visitor);
+                }
+            }
+        }
+    }
+
     public static void addBinding(IdentifierNode identifier, Type type) {
         Scope scope = identifier.getLocalScope();
         Binding binding = scope.createBinding(identifier, type);
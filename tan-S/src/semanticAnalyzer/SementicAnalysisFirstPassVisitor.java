@@ -2,10 +2,12 @@ package semanticAnalyzer;
 
 import java.util.ArrayList;
 import java.util.List;
+import parseTree.CompactTree;
 import parseTree.ParseNode;
 import parseTree.ParseNodeVisitor;
 import parseTree.nodeTypes.FunctionDefinitionNode;
 import parseTree.nodeTypes.IdentifierNode;
+import parseTree.nodeTypes.NodeKind;
 import parseTree.nodeTypes.ParameterNode;
 import parseTree.nodeTypes.ProgramNode;
 import semanticAnalyzer.signatures.FunctionSignature;
@@ -19,14 +21,13 @@ public class SementicAnalysisFirstPassVisitor extends ParseNodeVisitor.Default {
         enterProgramScope(node);
     }
 
-    private void enterProgramScope(ParseNode node) {
+    private static void enterProgramScope(ParseNode node) {
         Scope scope = Scope.createProgramScope();
         node.setScope(scope);
     }
 
     @Override
     public void visitLeave(FunctionDefinitionNode node) {
-        IdentifierNode identifier = (IdentifierNode) node.child(0);
         ParseNode parameterListNode = node.child(1);
 
         Type returnType = node.getType();
@@ -35,7 +36,11 @@ public class SementicAnalysisFirstPassVisitor extends ParseNodeVisitor.Default {
             parameterTypes.add(parameterNode.getType());
         }
 
-        FunctionSignature signature = new FunctionSignature(1, parameterTypes, returnType);
+        bindSignature(node, new FunctionSignature(1, parameterTypes, returnType));
+    }
+
+    private static void bindSignature(FunctionDefinitionNode node, FunctionSignature signature) {
+        IdentifierNode identifier = (IdentifierNode) node.child(0);
         node.setType(signature);
 
         identifier.setType(node.getType());
@@ -43,6 +48,47 @@ public class SementicAnalysisFirstPassVisitor extends ParseNodeVisitor.Default {
         SemanticAnalyzer.addBinding(identifier, node.getType());
     }
 
+
+    ////////////////////////////////////////////////////////////////////////////////////
+    // the first pass over a CompactTree: the signatures are read from the arrays, and only
+    // the program and function definition nodes of the view are touched to bind them.
+
+    public static void analyze(CompactTree tree, ParseNode root) {
+        if (tree.kind(CompactTree.ROOT) != NodeKind.PROGRAM) {
+            return;
+        }
+        CompactTree.SideTable<FunctionSignature> signatures = signatures(tree);
+        enterProgramScope(root);
+
+        int node = tree.firstChild(CompactTree.ROOT);
+        for (ParseNode child : root.getChildren()) {
+            FunctionSignature signature = signatures.get(node);
+            if (signature != null) {
+                bindSignature((FunctionDefinitionNode) child, signature);
+            }
+            node = tree.nextSibling(node);
+        }
+    }
+
+    // the signature of each function definition, as visitLeave computes it.
+    private static CompactTree.SideTable<FunctionSignature> signatures(CompactTree tree) {
+        CompactTree.SideTable<FunctionSignature> result = tree.newSideTable();
+        int node = tree.firstChild(CompactTree.ROOT);
+        for ( ; node != CompactTree.NO_NODE; node = tree.nextSibling(node)) {
+            if (tree.kind(node) != NodeKind.FUNCTION_DEFINITION) {
+                continue;
+            }
+            int parameterList = tree.nextSibling(tree.firstChild(node));
+            List<Type> parameterTypes = new ArrayList<Type>();
+            for (int parameter = tree.firstChild(parameterList); parameter != CompactTree.NO_NODE;
+                    parameter = tree.nextSibling(parameter)) {
+                parameterTypes.add(tree.type(parameter));
+            }
+            result.set(node, new FunctionSignature(1, parameterTypes, tree.type(node)));
+        }
+        return result;
+    }
+
     @Override
     public void visitLeave(ParameterNode node) {
     }
@@ -53,6 +53,19 @@ public class FunctionSignature implements Type {
         return false;
     }
 
+    int arity() {
+        return paramTypes.length;
+    }
+
+    boolean takesOnlyPrimitives() {
+        for (Type paramType : paramTypes) {
+            if (!(paramType instanceof PrimitiveType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 
     ///////////////////////////////////////////////////////////////
     // main query
@@ -74,7 +87,7 @@ public class FunctionSignature implements Type {
         if (valueType == PrimitiveType.ERROR && ALL_TYPES_ACCEPT_ERROR_TYPES) {
             return true;
         }
-        return variableType.equals(valueType);
+        return variableType == valueType;
     }
 
     // Null object pattern
@@ -1,13 +1,18 @@
 package semanticAnalyzer.signatures;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import asmCodeGenerator.codeStorage.ASMOpcode;
 import asmCodeGenerator.operators.CastToBoolean;
 import asmCodeGenerator.operators.CastToChar;
+import parseTree.ParseNode;
+import semanticAnalyzer.types.ArrayType;
+import semanticAnalyzer.types.PrimitiveType;
 import semanticAnalyzer.types.Type;
+import lexicalAnalyzer.Keyword;
 import lexicalAnalyzer.PseudoOperator;
 import lexicalAnalyzer.Punctuator;
 import static semanticAnalyzer.types.PrimitiveType.*;
@@ -15,17 +20,35 @@ import static semanticAnalyzer.types.PrimitiveType.*;
 
 public class FunctionSignatures extends ArrayList<FunctionSignature> {
     private static final long serialVersionUID = -4907792488209670697L;
+    private static Map<Punctuator, FunctionSignatures> punctuatorSignatures =
+            new EnumMap<Punctuator, FunctionSignatures>(Punctuator.class);
+    private static Map<Keyword, FunctionSignatures> keywordSignatures =
+            new EnumMap<Keyword, FunctionSignatures>(Keyword.class);
+    private static Map<PseudoOperator, FunctionSignatures> pseudoOperatorSignatures =
+            new EnumMap<PseudoOperator, FunctionSignatures>(PseudoOperator.class);
     private static Map<Object, FunctionSignatures> signaturesForKey =
             new HashMap<Object, FunctionSignatures>();
 
+    // operand types are numbered by their PrimitiveType ordinal; every other type (arrays,
+    // functions) gets the one number after those, as no signature here takes one.
+    private static final int OTHER_TYPE_ID = PrimitiveType.values().length;
+    private static final int TYPE_IDS = OTHER_TYPE_ID + 1;
+
     Object key;
 
+    // for each number of operands, indexed by the tuple of operand type ids: the accepting
+    // signature, and the promotion for each first promotable operand.  Null if some signature
+    // takes a parameter that is not a PrimitiveType.
+    private FunctionSignature[][] accepting;
+    private Promotion[][][] promotions;
+
     public FunctionSignatures(Object key, FunctionSignature... functionSignatures) {
         this.key = key;
         for (FunctionSignature functionSignature : functionSignatures) {
             add(functionSignature);
         }
-        signaturesForKey.put(key, this);
+        register(key, this);
+        tabulate();
     }
 
     public Object getKey() {
@@ -50,24 +73,133 @@ public class FunctionSignatures extends ArrayList<FunctionSignature> {
     }
 
 
+    /////////////////////////////////////////////////////////////////////////////////
+    // the tables of signatures and promotions by operand types.
+
+    private void tabulate() {
+        int maxArity = 0;
+        for (FunctionSignature functionSignature : this) {
+            if (!functionSignature.takesOnlyPrimitives()) {
+                return;
+            }
+            maxArity = Math.max(maxArity, functionSignature.arity());
+        }
+
+        accepting = new FunctionSignature[maxArity + 1][];
+        promotions = new Promotion[maxArity + 1][][];
+        for (int arity = 0; arity <= maxArity; arity++) {
+            int tuples = (int) Math.pow(TYPE_IDS, arity);
+            accepting[arity] = new FunctionSignature[tuples];
+            promotions[arity] = new Promotion[arity + 1][tuples];
+            for (int tuple = 0; tuple < tuples; tuple++) {
+                List<Type> types = typesOf(tuple, arity);
+                accepting[arity][tuple] = acceptingSignature(types);
+                for (int first = 0; first <= arity; first++) {
+                    promotions[arity][first][tuple] = Promotion.cheapest(this, types, first);
+                }
+            }
+        }
+    }
+
+    private boolean isTabulated(int arity) {
+        return accepting != null && arity < accepting.length;
+    }
+
+    private static int typeId(Type type) {
+        if (type instanceof PrimitiveType) {
+            return ((PrimitiveType) type).ordinal();
+        }
+        return OTHER_TYPE_ID;
+    }
+
+    private static Type typeWithId(int id) {
+        if (id == OTHER_TYPE_ID) {
+            return ArrayType.anyArray();
+        }
+        return PrimitiveType.values()[id];
+    }
+
+    private static List<Type> typesOf(int tuple, int arity) {
+        List<Type> types = new ArrayList<Type>(arity);
+        for (int i = 0, place = tuple; i < arity; i++, place /= TYPE_IDS) {
+            types.add(0, typeWithId(place % TYPE_IDS));
+        }
+        return types;
+    }
+
+    private static int tupleOf(List<Type> types) {
+        int tuple = 0;
+        for (int i = 0; i < types.size(); i++) {
+            tuple = tuple * TYPE_IDS + typeId(types.get(i));
+        }
+        return tuple;
+    }
+
+    private static int tupleOfChildren(ParseNode node) {
+        int tuple = 0;
+        for (int i = 0; i < node.nChildren(); i++) {
+            tuple = tuple * TYPE_IDS + typeId(node.child(i).getType());
+        }
+        return tuple;
+    }
+
+    private static List<Type> typesOfChildren(ParseNode node) {
+        List<Type> types = new ArrayList<Type>();
+        node.getChildren().forEach((child) -> types.add(child.getType()));
+        return types;
+    }
+
+
     /////////////////////////////////////////////////////////////////////////////////
     // access to FunctionSignatures by key object.
 
     public static FunctionSignatures nullSignatures =
             new FunctionSignatures(0, FunctionSignature.nullInstance());
 
+    private static void register(Object key, FunctionSignatures signatures) {
+        if (key instanceof Punctuator) {
+            punctuatorSignatures.put((Punctuator) key, signatures);
+        } else if (key instanceof Keyword) {
+            keywordSignatures.put((Keyword) key, signatures);
+        } else if (key instanceof PseudoOperator) {
+            pseudoOperatorSignatures.put((PseudoOperator) key, signatures);
+        } else {
+            signaturesForKey.put(key, signatures);
+        }
+    }
+
     public static FunctionSignatures signaturesOf(Object key) {
-        if (signaturesForKey.containsKey(key)) {
-            return signaturesForKey.get(key);
+        FunctionSignatures signatures;
+        if (key instanceof Punctuator) {
+            signatures = punctuatorSignatures.get(key);
+        } else if (key instanceof Keyword) {
+            signatures = keywordSignatures.get(key);
+        } else if (key instanceof PseudoOperator) {
+            signatures = pseudoOperatorSignatures.get(key);
+        } else {
+            signatures = signaturesForKey.get(key);
         }
-        return nullSignatures;
+        return signatures == null ? nullSignatures : signatures;
     }
 
     public static FunctionSignature signature(Object key, List<Type> types) {
         FunctionSignatures signatures = FunctionSignatures.signaturesOf(key);
+        if (signatures.isTabulated(types.size())) {
+            return signatures.accepting[types.size()][tupleOf(types)];
+        }
         return signatures.acceptingSignature(types);
     }
 
+    // the promotion of the operands of an operator node, which are its children.
+    public static Promotion promotion(Object key, ParseNode node, int firstPromotable) {
+        FunctionSignatures signatures = FunctionSignatures.signaturesOf(key);
+        int arity = node.nChildren();
+        if (signatures.isTabulated(arity) && firstPromotable <= arity) {
+            return signatures.promotions[arity][firstPromotable][tupleOfChildren(node)];
+        }
+        return Promotion.cheapest(signatures, typesOfChildren(node), firstPromotable);
+    }
+
 
 
     /////////////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,151 @@
+package semanticAnalyzer.signatures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import semanticAnalyzer.types.PrimitiveType;
+import semanticAnalyzer.types.Type;
+import static semanticAnalyzer.types.PrimitiveType.*;
+
+/**
+ * The promotions that let an operator accept operand types it has no signature for: the casts
+ * each operand needs, in the order they are applied, and the signature that accepts the promoted
+ * types. Immutable.
+ * <p>
+ * Promotions follow the lattice CHARACTER &lt; INTEGER &lt; FLOAT, one cast for each step up,
+ * and a promotion costs its number of casts. An operator's promotion is the cheapest that
+ * promotes one of its operands, from <code>firstPromotable</code> on, to a type one of its
+ * signatures accepts; of equally cheap ones, the leftmost operand's. FunctionSignatures finds
+ * the promotion once for each tuple of operand types and keeps it.
+ */
+public class Promotion {
+    // the lattice, as each type's promotion by one step.
+    private static final Map<PrimitiveType, PrimitiveType> PROMOTES_TO =
+            new EnumMap<PrimitiveType, PrimitiveType>(PrimitiveType.class);
+    // the casts that promote each type to each type above it, and to itself, none.
+    private static final Map<PrimitiveType, Map<PrimitiveType, List<PrimitiveType>>> CASTS =
+            new EnumMap<PrimitiveType, Map<PrimitiveType, List<PrimitiveType>>>(PrimitiveType.class);
+
+    static {
+        PROMOTES_TO.put(CHARACTER, INTEGER);
+        PROMOTES_TO.put(INTEGER, FLOAT);
+
+        for (PrimitiveType type : PrimitiveType.values()) {
+            Map<PrimitiveType, List<PrimitiveType>> casts =
+                    new EnumMap<PrimitiveType, List<PrimitiveType>>(PrimitiveType.class);
+            List<PrimitiveType> chain = new ArrayList<PrimitiveType>();
+            casts.put(type, Collections.<PrimitiveType>emptyList());
+            for (PrimitiveType next = PROMOTES_TO.get(type); next != null; next = PROMOTES_TO.get(next)) {
+                chain.add(next);
+                casts.put(next, Collections.unmodifiableList(new ArrayList<PrimitiveType>(chain)));
+            }
+            CASTS.put(type, casts);
+        }
+    }
+
+    private final FunctionSignature signature;
+    private final List<List<PrimitiveType>> casts;
+
+
+    ///////////////////////////////////////////////////////////////
+    // construction
+
+    private Promotion(FunctionSignature signature, List<List<PrimitiveType>> casts) {
+        this.signature = signature;
+        this.casts = casts;
+    }
+
+    private static Promotion of(FunctionSignature signature, int nOperands, int operand, List<PrimitiveType> casts) {
+        List<List<PrimitiveType>> operandCasts = new ArrayList<List<PrimitiveType>>(Collections.nCopies(nOperands, null));
+        if (operand >= 0) {
+            operandCasts.set(operand, casts);
+        }
+        return new Promotion(signature, Collections.unmodifiableList(operandCasts));
+    }
+
+
+    ///////////////////////////////////////////////////////////////
+    // accessors
+
+    public boolean succeeds() {
+        return !signature.isNull();
+    }
+
+    public FunctionSignature signature() {
+        return signature;
+    }
+
+    public int nOperands() {
+        return casts.size();
+    }
+
+    // the casts to apply to the operand, in order, or null if it is not promoted.
+    public List<PrimitiveType> castsFor(int operand) {
+        return casts.get(operand);
+    }
+
+
+    ///////////////////////////////////////////////////////////////
+    // the lattice
+
+    // the casts that promote one type to another, in order: none if they are the same type,
+    // and null if the one does not promote to the other.
+    public static List<PrimitiveType> casts(Type from, Type to) {
+        if (!(from instanceof PrimitiveType) || !(to instanceof PrimitiveType)) {
+            return from == to ? Collections.<PrimitiveType>emptyList() : null;
+        }
+        return CASTS.get(from).get(to);
+    }
+
+    // the least type that all of the types promote to, or null if there is none.
+    public static Type join(List<Type> types) {
+        Type join = types.get(0);
+        for (Type type : types) {
+            if (casts(type, join) == null) {
+                if (casts(join, type) == null) {
+                    return null;
+                }
+                join = type;
+            }
+        }
+        return join;
+    }
+
+
+    ///////////////////////////////////////////////////////////////
+    // the cheapest promotion of a tuple of operand types
+
+    static Promotion cheapest(FunctionSignatures signatures, List<Type> operandTypes, int firstPromotable) {
+        List<Type> types = new ArrayList<Type>(operandTypes);
+        FunctionSignature signature = signatures.acceptingSignature(types);
+        if (!signature.isNull()) {
+            return of(signature, types.size(), -1, null);
+        }
+
+        int cheapestOperand = -1;
+        List<PrimitiveType> cheapestCasts = null;
+        for (int i = firstPromotable; i < types.size(); i++) {
+            Type type = types.get(i);
+            if (!(type instanceof PrimitiveType)) {
+                continue;
+            }
+            for (Map.Entry<PrimitiveType, List<PrimitiveType>> promotion : CASTS.get(type).entrySet()) {
+                List<PrimitiveType> casts = promotion.getValue();
+                if (casts.isEmpty() || (cheapestCasts != null && casts.size() >= cheapestCasts.size())) {
+                    continue;
+                }
+                types.set(i, promotion.getKey());
+                FunctionSignature promoted = signatures.acceptingSignature(types);
+                if (!promoted.isNull()) {
+                    signature = promoted;
+                    cheapestOperand = i;
+                    cheapestCasts = casts;
+                }
+            }
+            types.set(i, type);
+        }
+        return of(signature, types.size(), cheapestOperand, cheapestCasts);
+    }
+}
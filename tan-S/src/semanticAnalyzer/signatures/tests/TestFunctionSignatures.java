@@ -0,0 +1,88 @@
+package semanticAnalyzer.signatures.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import lexicalAnalyzer.Lextant;
+import lexicalAnalyzer.PseudoOperator;
+import lexicalAnalyzer.Punctuator;
+import parseTree.ParseNode;
+import parseTree.nodeTypes.OperatorNode;
+import semanticAnalyzer.signatures.FunctionSignatures;
+import semanticAnalyzer.signatures.Promotion;
+import semanticAnalyzer.types.ArrayType;
+import semanticAnalyzer.types.PrimitiveType;
+import semanticAnalyzer.types.Type;
+import static semanticAnalyzer.types.PrimitiveType.*;
+
+public class TestFunctionSignatures extends TestCase {
+    private static final Lextant[] OPERATORS = {
+            Punctuator.ADD, Punctuator.SUBTRACT, Punctuator.DIVIDE, Punctuator.LESS,
+            Punctuator.EQUAL, Punctuator.AND, Punctuator.NOT, Punctuator.ASSIGN, PseudoOperator.CAST
+    };
+
+    public void testTableAgreesWithScan() {
+        List<Type> types = new ArrayList<Type>(Arrays.asList(PrimitiveType.values()));
+        types.add(ArrayType.make(INTEGER));
+
+        for (Lextant operator : OPERATORS) {
+            FunctionSignatures signatures = FunctionSignatures.signaturesOf(operator);
+            for (Type type : types) {
+                List<Type> unary = Arrays.asList(type);
+                assertSame(signatures.acceptingSignature(unary), FunctionSignatures.signature(operator, unary));
+                for (Type other : types) {
+                    List<Type> binary = Arrays.asList(type, other);
+                    assertSame(signatures.acceptingSignature(binary), FunctionSignatures.signature(operator, binary));
+                }
+            }
+        }
+    }
+
+    public void testCharacterPromotedToInteger() {
+        Promotion promotion = promotionOf(Punctuator.ADD, 0, CHARACTER, INTEGER);
+        assertTrue(promotion.succeeds());
+        assertEquals(INTEGER, promotion.signature().resultType());
+        assertEquals(Arrays.asList(INTEGER), promotion.castsFor(0));
+        assertNull(promotion.castsFor(1));
+    }
+
+    public void testPromotionsToFloat() {
+        Promotion promotion = promotionOf(Punctuator.MULTIPLY, 0, FLOAT, CHARACTER);
+        assertTrue(promotion.succeeds());
+        assertEquals(Arrays.asList(INTEGER, FLOAT), promotion.castsFor(1));
+
+        promotion = promotionOf(Punctuator.LESS, 0, INTEGER, FLOAT);
+        assertTrue(promotion.succeeds());
+        assertEquals(BOOLEAN, promotion.signature().resultType());
+        assertEquals(Arrays.asList(FLOAT), promotion.castsFor(0));
+    }
+
+    public void testAssignmentTargetNotPromoted() {
+        assertTrue(promotionOf(Punctuator.ASSIGN, 1, FLOAT, INTEGER).succeeds());
+        assertFalse(promotionOf(Punctuator.ASSIGN, 1, INTEGER, FLOAT).succeeds());
+        assertFalse(promotionOf(Punctuator.AND, 0, BOOLEAN, INTEGER).succeeds());
+    }
+
+    public void testPromotionLattice() {
+        assertEquals(Arrays.asList(INTEGER, FLOAT), Promotion.casts(CHARACTER, FLOAT));
+        assertTrue(Promotion.casts(FLOAT, FLOAT).isEmpty());
+        assertNull(Promotion.casts(FLOAT, INTEGER));
+        assertNull(Promotion.casts(BOOLEAN, INTEGER));
+
+        assertEquals(FLOAT, Promotion.join(Arrays.<Type>asList(CHARACTER, INTEGER, FLOAT)));
+        assertEquals(INTEGER, Promotion.join(Arrays.<Type>asList(INTEGER, CHARACTER)));
+        assertNull(Promotion.join(Arrays.<Type>asList(INTEGER, BOOLEAN)));
+    }
+
+    private Promotion promotionOf(Lextant operator, int firstPromotable, Type... operandTypes) {
+        ParseNode node = new OperatorNode(Punctuator.ADD.prototype());
+        for (Type type : operandTypes) {
+            ParseNode operand = new OperatorNode(Punctuator.ADD.prototype());
+            operand.setType(type);
+            node.appendChild(operand);
+        }
+        return FunctionSignatures.promotion(operator, node, firstPromotable);
+    }
+}
@@ -0,0 +1,68 @@
+package semanticAnalyzer.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.ParseNode;
+import parseTree.nodeTypes.BooleanConstantNode;
+import parseTree.nodeTypes.CharConstantNode;
+import parseTree.nodeTypes.FloatConstantNode;
+import parseTree.nodeTypes.IdentifierNode;
+import parseTree.nodeTypes.IntegerConstantNode;
+import parseTree.nodeTypes.OperatorNode;
+import parser.Parser;
+import semanticAnalyzer.ConstantFolder;
+import semanticAnalyzer.SemanticAnalyzer;
+
+public class TestConstantFolder extends TestCase {
+    private File file;
+
+    @Override
+    protected void setUp() throws IOException {
+        file = File.createTempFile("tanFolder", ".tan");
+    }
+
+    @Override
+    protected void tearDown() {
+        file.delete();
+    }
+
+    public void testFoldsArithmetic() throws IOException {
+        assertEquals(11, ((IntegerConstantNode) folded("", "3 * 4 - 7 / 7")).getValue());
+        assertEquals(2.5, ((FloatConstantNode) folded("", "1 + 1.5")).getValue());
+        assertEquals('A', ((CharConstantNode) folded("", "<char>(65 + 128)")).getValue());
+    }
+
+    public void testFoldsComparisonsAndBooleans() throws IOException {
+        assertTrue(((BooleanConstantNode) folded("", "'a' < 'b' && !(2.0 > 3)")).getValue());
+        assertFalse(((BooleanConstantNode) folded("var b := true;", "false && b")).getValue());
+        assertTrue(folded("var b := true;", "true && b") instanceof IdentifierNode);
+    }
+
+    public void testPropagatesConsts() throws IOException {
+        assertEquals(64, ((IntegerConstantNode) folded("const n := 8; const m := n * n;", "m")).getValue());
+        assertTrue(folded("var n := 8;", "n * n") instanceof OperatorNode);
+    }
+
+    public void testKeepsRuntimeResults() throws IOException {
+        assertTrue(folded("", "7 / 0") instanceof OperatorNode);
+        assertTrue(folded("", "1.0 / 0.0") instanceof OperatorNode);
+        assertTrue(folded("", "2147483647 + 1") instanceof OperatorNode);
+        assertTrue(folded("", "1.0 / 3.0") instanceof OperatorNode);
+    }
+
+    // the expression printed by main, once the declarations before it are analyzed and folded.
+    private ParseNode folded(String declarations, String expression) throws IOException {
+        String source = "main {\n" + declarations + "\nprint " + expression + ";\n}\n";
+        Files.write(file.toPath(), source.getBytes());
+        ParseNode tree = SemanticAnalyzer.analyze(Parser.parse(LexicalAnalyzer.make(file.getPath())));
+        ConstantFolder.fold(tree);
+
+        ParseNode mainBlock = tree.child(tree.nChildren() - 1);
+        ParseNode print = mainBlock.child(mainBlock.nChildren() - 1);
+        return print.child(0);
+    }
+}
@@ -0,0 +1,78 @@
+package semanticAnalyzer.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import benchmarks.SyntheticCorpus;
+import junit.framework.TestCase;
+import lexicalAnalyzer.LexicalAnalyzer;
+import parseTree.ParseNode;
+import parseTree.ParseTreePrinter;
+import parser.Parser;
+import semanticAnalyzer.SemanticAnalyzer;
+
+public class TestParallelAnalysis extends TestCase {
+    private File directory;
+    private ForkJoinPool pool;
+    private List<String> messages;
+    private Handler handler;
+
+    @Override
+    protected void setUp() throws IOException {
+        directory = Files.createTempDirectory("tanAnalyzer").toFile();
+        pool = new ForkJoinPool(4);
+        messages = new ArrayList<String>();
+        handler = new Handler() {
+            public void publish(LogRecord record) {
+                messages.add(record.getMessage());
+            }
+            public void flush() {}
+            public void close() {}
+        };
+        Logger.getLogger("compiler").addHandler(handler);
+    }
+
+    @Override
+    protected void tearDown() {
+        Logger.getLogger("compiler").removeHandler(handler);
+        pool.shutdown();
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    public void testSameTreeAsAnalyze() throws IOException {
+        File file = SyntheticCorpus.make(3 * SemanticAnalyzer.FUNCTIONS_PER_TASK + 2, 3, 8, 4).writeTo(directory);
+        assertSameAnalysis(file);
+    }
+
+    public void testMessagesInSourceOrder() throws IOException {
+        File file = new File(directory, "errors.tan");
+        String source = "subr int f(int a) { return a && true; }\n"
+                + "subr int g(int b) { var c := b + 'x'; return d; }\n"
+                + "subr bool h(int e) { return e; }\n"
+                + "main { print f(1) + true; var f := 2; }\n";
+        Files.write(file.toPath(), source.getBytes());
+        assertSameAnalysis(file);
+        assertTrue(messages.size() >= 4);
+    }
+
+    private void assertSameAnalysis(File file) {
+        ParseNode serial = SemanticAnalyzer.analyze(Parser.parse(LexicalAnalyzer.make(file.getPath())));
+        List<String> serialMessages = new ArrayList<String>(messages);
+        messages.clear();
+
+        SemanticAnalyzer analyzer = new SemanticAnalyzer(Parser.parse(LexicalAnalyzer.make(file.getPath())));
+        ParseNode parallel = analyzer.analyzeInParallel(pool);
+        assertEquals(ParseTreePrinter.print(serial), ParseTreePrinter.print(parallel));
+        assertEquals(serialMessages, messages);
+    }
+}
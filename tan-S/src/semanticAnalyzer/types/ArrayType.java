@@ -1,13 +1,28 @@
 package semanticAnalyzer.types;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Array types are interned: <code>make(subtype)</code> gives the one ArrayType for each subtype,
+ * so equal types are the same object and compare with ==. Compound types added later should be
+ * made the same way, from their (already canonical) parts.
+ */
 public class ArrayType implements Type {
+    private static final ConcurrentMap<Type, ArrayType> arrayTypes = new ConcurrentHashMap<Type, ArrayType>();
 
-    private Type subtype = PrimitiveType.NO_TYPE;
+    private final Type subtype;
 
-    public ArrayType() {
+    public static ArrayType make(Type subtype) {
+        return arrayTypes.computeIfAbsent(subtype, ArrayType::new);
     }
 
-    public ArrayType(Type subtype) {
+    // the array type that the signature of length takes; its subtype is NO_TYPE.
+    public static ArrayType anyArray() {
+        return make(PrimitiveType.NO_TYPE);
+    }
+
+    private ArrayType(Type subtype) {
         this.subtype = subtype;
     }
 
@@ -35,13 +50,4 @@ public class ArrayType implements Type {
         return infoString();
     }
 
-    @Override
-    public boolean equals(Object obj) {
-        if (obj instanceof ArrayType) {
-            ArrayType other = (ArrayType) obj;
-            return this.subtype.equals(other.subtype);
-        }
-        return false;
-    }
-
 }
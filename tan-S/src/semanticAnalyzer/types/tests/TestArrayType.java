@@ -0,0 +1,19 @@
+package semanticAnalyzer.types.tests;
+
+import junit.framework.TestCase;
+import semanticAnalyzer.types.ArrayType;
+import semanticAnalyzer.types.PrimitiveType;
+
+public class TestArrayType extends TestCase {
+    public void testEqualTypesAreSame() {
+        assertSame(ArrayType.make(PrimitiveType.INTEGER), ArrayType.make(PrimitiveType.INTEGER));
+        assertSame(ArrayType.make(ArrayType.make(PrimitiveType.FLOAT)),
+                ArrayType.make(ArrayType.make(PrimitiveType.FLOAT)));
+        assertNotSame(ArrayType.make(PrimitiveType.INTEGER), ArrayType.make(PrimitiveType.FLOAT));
+        assertSame(PrimitiveType.CHARACTER, ArrayType.make(PrimitiveType.CHARACTER).getSubType());
+    }
+
+    public void testInfoString() {
+        assertEquals("[[BOOLEAN]]", ArrayType.make(ArrayType.make(PrimitiveType.BOOLEAN)).infoString());
+    }
+}
@@ -60,7 +60,7 @@ public class Binding {
     }
 
     private static class NullBinding extends Binding {
-        private static NullBinding instance = null;
+        private static final NullBinding instance = new NullBinding();
 
         private NullBinding() {
             super(PrimitiveType.ERROR, TextLocation.nullInstance(), MemoryLocation.nullInstance(),
@@ -68,8 +68,6 @@ public class Binding {
         }
 
         public static NullBinding getInstance() {
-            if (instance == null)
-                instance = new NullBinding();
             return instance;
         }
     }
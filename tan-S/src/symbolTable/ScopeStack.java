@@ -0,0 +1,52 @@
+package symbolTable;
+
+/**
+ * The scopes enclosing the node a visitor is at, innermost on top. A visitor enters a scope when
+ * it enters the node that holds it and leaves it when it leaves the node, so the stack holds
+ * exactly the scopes that a walk up the tree would find, without the nodes between them.
+ * Resolving an identifier then costs one symbol-table lookup per enclosing scope.
+ * <p>
+ * Leaving here only pops the stack; releasing the scope's memory is still Scope.leave().
+ */
+public class ScopeStack {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Scope[] scopes = new Scope[INITIAL_CAPACITY];
+    private int depth = 0;
+
+
+    public void enter(Scope scope) {
+        if (depth == scopes.length) {
+            Scope[] newScopes = new Scope[depth * 2];
+            System.arraycopy(scopes, 0, newScopes, 0, depth);
+            scopes = newScopes;
+        }
+        scopes[depth++] = scope;
+    }
+
+    public void leave() {
+        if (depth == 0) {
+            throw new IllegalStateException("ScopeStack: leave with no scope entered");
+        }
+        scopes[--depth] = null;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    // the innermost scope, or the null scope outside of any.
+    public Scope localScope() {
+        return depth == 0 ? Scope.nullInstance() : scopes[depth - 1];
+    }
+
+    // the innermost scope with a binding of the identifier, or null if there is none.
+    public Scope scopeDeclaring(String identifier) {
+        for (int i = depth - 1; i >= 0; i--) {
+            if (scopes[i].getSymbolTable().containsKey(identifier)) {
+                return scopes[i];
+            }
+        }
+        return null;
+    }
+}
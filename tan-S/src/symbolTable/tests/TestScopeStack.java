@@ -0,0 +1,55 @@
+package symbolTable.tests;
+
+import junit.framework.TestCase;
+import symbolTable.Binding;
+import symbolTable.Scope;
+import symbolTable.ScopeStack;
+
+public class TestScopeStack extends TestCase {
+    public void testEmptyStack() {
+        ScopeStack scopes = new ScopeStack();
+        assertEquals(0, scopes.depth());
+        assertSame(Scope.nullInstance(), scopes.localScope());
+        assertNull(scopes.scopeDeclaring("x"));
+    }
+
+    public void testInnermostBindingWins() {
+        ScopeStack scopes = new ScopeStack();
+        Scope outer = Scope.createProgramScope();
+        Scope inner = outer.createSubscope();
+        outer.getSymbolTable().install("x", Binding.nullInstance());
+        outer.getSymbolTable().install("y", Binding.nullInstance());
+        inner.getSymbolTable().install("x", Binding.nullInstance());
+
+        scopes.enter(outer);
+        scopes.enter(inner);
+        assertSame(inner, scopes.localScope());
+        assertSame(inner, scopes.scopeDeclaring("x"));
+        assertSame(outer, scopes.scopeDeclaring("y"));
+        assertNull(scopes.scopeDeclaring("z"));
+
+        scopes.leave();
+        assertSame(outer, scopes.scopeDeclaring("x"));
+    }
+
+    public void testDeepNesting() {
+        ScopeStack scopes = new ScopeStack();
+        Scope scope = Scope.createProgramScope();
+        scope.getSymbolTable().install("x", Binding.nullInstance());
+        Scope outermost = scope;
+        for (int i = 0; i < 100; i++) {
+            scopes.enter(scope);
+            scope = scope.createSubscope();
+        }
+        assertEquals(100, scopes.depth());
+        assertSame(outermost, scopes.scopeDeclaring("x"));
+    }
+
+    public void testLeavingTooOften() {
+        try {
+            new ScopeStack().leave();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+}
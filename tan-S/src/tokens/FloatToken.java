@@ -3,6 +3,8 @@ package tokens;
 import inputHandler.Locator;
 
 public class FloatToken extends TokenImp {
+    public static final String TOO_LARGE_MESSAGE = "FloatToken: value too large.";
+
     protected double value;
 
     protected FloatToken(Locator locator, String lexeme) {
@@ -12,7 +14,7 @@ public class FloatToken extends TokenImp {
     protected void setValue(double value) {
         this.value = value;
         if (value == Double.POSITIVE_INFINITY) {
-            throw new IllegalArgumentException("FloatToken: value too large.");
+            throw new IllegalArgumentException(TOO_LARGE_MESSAGE);
         }
     }
 
@@ -26,6 +28,13 @@ public class FloatToken extends TokenImp {
         return result;
     }
 
+    // for a lexeme whose value the caller has already found.
+    public static FloatToken make(Locator locator, String lexeme, double value) {
+        FloatToken result = new FloatToken(locator, lexeme);
+        result.setValue(value);
+        return result;
+    }
+
     @Override
     protected String rawString() {
         return "float, " + value;
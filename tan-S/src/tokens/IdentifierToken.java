@@ -1,18 +1,34 @@
 package tokens;
 
 import inputHandler.Locator;
+import lexicalAnalyzer.IdentifierPool;
 
 public class IdentifierToken extends TokenImp {
-    protected IdentifierToken(Locator locator, String lexeme) {
-        super(locator, lexeme.intern());
+    public static final int NO_SYMBOL_ID = -1;
+
+    private int symbolId;
+
+    protected IdentifierToken(Locator locator, String lexeme, int symbolId) {
+        super(locator, lexeme);
+        this.symbolId = symbolId;
     }
 
     // 工厂方法
     public static IdentifierToken make(Locator locator, String lexeme) {
-        IdentifierToken result = new IdentifierToken(locator, lexeme);
+        IdentifierToken result = new IdentifierToken(locator, lexeme, NO_SYMBOL_ID);
         return result;
     }
 
+    // for a lexeme from an IdentifierPool, which spells each identifier with one String.
+    public static IdentifierToken make(Locator locator, IdentifierPool pool, int symbolId) {
+        return new IdentifierToken(locator, pool.spelling(symbolId), symbolId);
+    }
+
+    // the id of this identifier in its IdentifierPool, or NO_SYMBOL_ID.
+    public int getSymbolId() {
+        return symbolId;
+    }
+
 
     @Override
     protected String rawString() {
@@ -23,6 +23,13 @@ public class NumberToken extends TokenImp {
         return result;
     }
 
+    // for a lexeme whose value the caller has already found.
+    public static NumberToken make(Locator locator, String lexeme, int value) {
+        NumberToken result = new NumberToken(locator, lexeme);
+        result.setValue(value);
+        return result;
+    }
+
     @Override
     protected String rawString() {
         return "number, " + value;
@@ -1,6 +1,5 @@
 package tokens;
 
-import inputHandler.LocatedChar;
 import inputHandler.Locator;
 
 public class StringToken extends TokenImp {
@@ -12,8 +11,8 @@ public class StringToken extends TokenImp {
         value = lexeme.substring(1, lexeme.length() - 1);
     }
 
-    public static Token make(LocatedChar ch, String string) {
-        return new StringToken(ch, string);
+    public static Token make(Locator locator, String string) {
+        return new StringToken(locator, string);
     }
 
     @Override
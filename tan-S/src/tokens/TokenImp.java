@@ -4,7 +4,7 @@ import lexicalAnalyzer.Lextant;
 import inputHandler.Locator;
 import inputHandler.TextLocation;
 
-public abstract class TokenImp implements Token {
+public abstract class TokenImp implements Token, Cloneable {
     private TextLocation location;
     private String lexeme;
 
@@ -24,6 +24,22 @@ public abstract class TokenImp implements Token {
         return location;
     }
 
+    /**
+     * a copy of this token at another location, for when the text of the token has moved
+     * without changing (as when lines above it are edited).
+     * 
+     * @return the copy
+     */
+    public TokenImp relocated(Locator locator) {
+        try {
+            TokenImp result = (TokenImp) clone();
+            result.location = locator.getLocation();
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * A string (not surrounded by parentheses) representing the subclass information.
      * 